@@ -0,0 +1,44 @@
+package com.seikyuuressha.lms.configuration;
+
+import com.seikyuuressha.lms.entity.Course;
+import com.seikyuuressha.lms.entity.Lesson;
+import com.seikyuuressha.lms.entity.Users;
+import com.seikyuuressha.lms.repository.CourseRepository;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.UserRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request DataLoaders for entities that nested resolvers look up by id.
+ * Inject them into a schema mapping as {@code DataLoader<UUID, Users>} (or Course/Lesson)
+ * and every id requested while resolving one level of the query is fetched with a single findAllById.
+ */
+@Configuration
+public class DataLoaderConfig {
+
+    public DataLoaderConfig(BatchLoaderRegistry registry,
+                            UserRepository userRepository,
+                            CourseRepository courseRepository,
+                            LessonRepository lessonRepository) {
+        registry.forTypePair(UUID.class, Users.class)
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() ->
+                        userRepository.findAllById(ids).stream()
+                                .collect(Collectors.toMap(Users::getUserId, Function.identity()))));
+
+        registry.forTypePair(UUID.class, Course.class)
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() ->
+                        courseRepository.findAllById(ids).stream()
+                                .collect(Collectors.toMap(Course::getCourseId, Function.identity()))));
+
+        registry.forTypePair(UUID.class, Lesson.class)
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() ->
+                        lessonRepository.findAllById(ids).stream()
+                                .collect(Collectors.toMap(Lesson::getLessonId, Function.identity()))));
+    }
+}
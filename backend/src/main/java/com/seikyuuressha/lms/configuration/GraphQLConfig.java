@@ -3,9 +3,9 @@ package com.seikyuuressha.lms.configuration;
 import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.analysis.MaxQueryDepthInstrumentation;
 import graphql.scalars.ExtendedScalars;
-import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 
 @Configuration
@@ -21,9 +21,14 @@ public class GraphQLConfig {
     }
 
     @Bean
-    public GraphQlSourceBuilderCustomizer limitConfiguration() {
-        return builder -> builder.configureGraphQl(graphql -> graphql
-                .instrumentation(new MaxQueryDepthInstrumentation(5))
-                .instrumentation(new MaxQueryComplexityInstrumentation(200)));
+    @Order(1)
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation() {
+        return new MaxQueryDepthInstrumentation(5);
+    }
+
+    @Bean
+    @Order(2)
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation() {
+        return new MaxQueryComplexityInstrumentation(200);
     }
 }
\ No newline at end of file
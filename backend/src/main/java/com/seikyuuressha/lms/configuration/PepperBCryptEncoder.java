@@ -1,25 +1,48 @@
 package com.seikyuuressha.lms.configuration;
 
+import com.seikyuuressha.lms.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class PepperBCryptEncoder implements PasswordEncoder {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+
     private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final int strength;
     @Value("${security.pepper}")
     private String pepper;
 
-    public PepperBCryptEncoder(int strength) {
+    public PepperBCryptEncoder(int strength, PasswordHashingExecutor hashingExecutor) {
         this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.hashingExecutor = hashingExecutor;
+        this.strength = strength;
     }
 
     @Override
     public String encode(CharSequence rawPassword) {
-        return passwordEncoder.encode(rawPassword + pepper);
+        return hashingExecutor.encode(() -> passwordEncoder.encode(rawPassword + pepper));
     }
 
     @Override
     public boolean matches(CharSequence rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword + pepper, encodedPassword);
+        return hashingExecutor.matches(() -> passwordEncoder.matches(rawPassword + pepper, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash was made with a different cost than the configured one, so a successful
+     * login re-hashes it. Works in both directions, which lets the cost be lowered as well as raised.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
     }
 }
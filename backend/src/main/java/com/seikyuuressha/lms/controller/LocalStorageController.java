@@ -0,0 +1,125 @@
+package com.seikyuuressha.lms.controller;
+
+import com.seikyuuressha.lms.service.storage.LocalObjectStorage;
+import com.seikyuuressha.lms.service.storage.ObjectStorage.StoredObject;
+import com.seikyuuressha.lms.util.ByteRange;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves the signed URLs issued by {@link LocalObjectStorage}. Reads honour a single HTTP byte range and are
+ * handed to Tomcat's sendfile when the connector supports it, so the file is copied to the socket by the kernel;
+ * otherwise {@link FileChannel#transferTo} streams it without going through a heap buffer of the whole range.
+ */
+@RestController
+@RequestMapping("/storage")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalObjectStorage storage;
+
+    @GetMapping("/**")
+    public void get(@RequestParam(required = false) Long expires,
+                    @RequestParam(required = false) String signature,
+                    @RequestParam(required = false) String cacheControl,
+                    @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                    HttpServletRequest request,
+                    HttpServletResponse response) throws IOException {
+        String key = objectKey(request);
+        if (!storage.isPublic(key) && (expires == null || !storage.verify("GET", key, expires, cacheControl, signature))) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        StoredObject object = storage.head(key).orElse(null);
+        if (object == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        ByteRange range = ByteRange.resolve(rangeHeader, object.size(), Long.MAX_VALUE, response);
+        if (range == null) {
+            return;
+        }
+
+        response.setContentType(object.contentType() != null ? object.contentType() : "application/octet-stream");
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (range.count() <= 0) {
+            return;
+        }
+
+        Path file = storage.resolve(key);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             OutputStream out = response.getOutputStream()) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = range.start();
+            long remaining = range.count();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    @PutMapping("/**")
+    public void put(@RequestParam Long expires,
+                    @RequestParam String signature,
+                    @RequestParam(required = false) String uploadId,
+                    @RequestParam(required = false) Integer partNumber,
+                    HttpServletRequest request,
+                    HttpServletResponse response) throws IOException {
+        String key = objectKey(request);
+        String options = uploadId != null ? uploadId + ":" + partNumber : null;
+        if (!storage.verify("PUT", key, expires, options, signature)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        if (uploadId != null) {
+            String etag = storage.writePart(uploadId, partNumber, request.getInputStream());
+            response.setHeader(HttpHeaders.ETAG, "\"" + etag + "\"");
+        } else {
+            storage.write(key, request.getInputStream());
+        }
+        response.setStatus(HttpStatus.OK.value());
+    }
+
+    private static String objectKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + "/storage/".length());
+        return UriUtils.decode(path, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,74 @@
+package com.seikyuuressha.lms.controller;
+
+import com.seikyuuressha.lms.service.video.VideoChunkCache;
+import com.seikyuuressha.lms.service.video.VideoStreamService;
+import com.seikyuuressha.lms.service.video.VideoStreamService.StreamTarget;
+import com.seikyuuressha.lms.util.ByteRange;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Streams lesson videos through the application instead of handing out storage URLs. Every request carries the
+ * signed URL from {@link VideoStreamService#streamUrl}, honours a single HTTP byte range and is served from
+ * {@link VideoChunkCache}, which keeps recently watched chunks off-heap and reads ahead of sequential playback.
+ * Open-ended ranges are answered with at most {@link #OPEN_RANGE_CHUNKS} chunks, so one request cannot pin a
+ * worker thread for the whole file.
+ */
+@RestController
+@RequestMapping("/api/videos/stream")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "video.stream.proxy.enabled", havingValue = "true")
+public class VideoStreamController {
+
+    static final int OPEN_RANGE_CHUNKS = 4;
+
+    private final VideoStreamService videoStreamService;
+    private final VideoChunkCache videoChunkCache;
+
+    @GetMapping("/{lessonId}")
+    public void stream(@PathVariable UUID lessonId,
+                       @RequestParam UUID user,
+                       @RequestParam Long expires,
+                       @RequestParam String signature,
+                       @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                       HttpServletResponse response) throws IOException {
+        if (!videoStreamService.verify(lessonId, user, expires, signature)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        StreamTarget target = videoStreamService.resolve(lessonId).orElse(null);
+        if (target == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = target.size();
+        ByteRange range = ByteRange.resolve(rangeHeader, length,
+                (long) OPEN_RANGE_CHUNKS * videoChunkCache.chunkSize(), response);
+        if (range == null) {
+            return;
+        }
+
+        long maxAge = Math.max(0, expires - Instant.now().getEpochSecond());
+        response.setContentType(target.contentType() != null ? target.contentType() : "application/octet-stream");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+        if (range.count() <= 0) {
+            return;
+        }
+
+        try (OutputStream out = response.getOutputStream()) {
+            videoChunkCache.transfer(target.objectKey(), length, range.start(), range.end(), Channels.newChannel(out));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.seikyuuressha.lms.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CourseCatalogFilter {
+    UUID categoryId;
+    String level;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+}
@@ -0,0 +1,8 @@
+package com.seikyuuressha.lms.dto.request;
+
+public enum CourseSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC,
+    RATING
+}
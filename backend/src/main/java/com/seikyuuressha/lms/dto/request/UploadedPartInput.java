@@ -0,0 +1,22 @@
+package com.seikyuuressha.lms.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedPartInput {
+
+    @NotNull(message = "Part number is required")
+    private Integer partNumber;
+
+    @NotNull(message = "ETag is required")
+    private String etag;
+
+    private Long size;
+}
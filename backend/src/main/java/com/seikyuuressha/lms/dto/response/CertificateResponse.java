@@ -1,5 +1,6 @@
 package com.seikyuuressha.lms.dto.response;
 
+import com.seikyuuressha.lms.entity.Certificate;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -17,6 +18,7 @@ public class CertificateResponse {
     UUID courseId;
     String certificateCode;
     String pdfUrl;
+    Certificate.Status status;
     Double finalScore;
     OffsetDateTime issuedAt;
     Boolean isValid;
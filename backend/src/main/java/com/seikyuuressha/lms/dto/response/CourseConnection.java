@@ -0,0 +1,13 @@
+package com.seikyuuressha.lms.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseConnection {
+    private List<CourseEdge> edges;
+    private PageInfo pageInfo;
+}
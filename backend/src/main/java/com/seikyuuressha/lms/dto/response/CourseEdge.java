@@ -0,0 +1,12 @@
+package com.seikyuuressha.lms.dto.response;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseEdge {
+    private String cursor;
+    private CourseResponse node;
+}
@@ -27,4 +27,5 @@ public class CourseResponse {
     private List<ModuleResponse> modules;
     private Integer totalLessons;
     private Integer totalDuration;
+    private Double averageRating;
 }
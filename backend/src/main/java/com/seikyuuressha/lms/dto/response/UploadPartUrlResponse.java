@@ -0,0 +1,16 @@
+package com.seikyuuressha.lms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadPartUrlResponse {
+    private Integer partNumber;
+    private String uploadUrl;
+    private Long expiresIn;
+}
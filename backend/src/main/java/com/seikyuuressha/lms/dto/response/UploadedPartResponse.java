@@ -0,0 +1,16 @@
+package com.seikyuuressha.lms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedPartResponse {
+    private Integer partNumber;
+    private String etag;
+    private Long size;
+}
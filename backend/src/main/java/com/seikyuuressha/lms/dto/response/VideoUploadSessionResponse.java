@@ -0,0 +1,21 @@
+package com.seikyuuressha.lms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoUploadSessionResponse {
+    private UUID videoId;
+    private String s3Key;
+    private Long partSize;
+    private Integer partCount;
+    private List<UploadedPartResponse> uploadedParts;
+}
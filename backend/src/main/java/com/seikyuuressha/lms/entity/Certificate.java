@@ -33,9 +33,12 @@ public class Certificate {
     @Column(nullable = false, unique = true)
     String certificateCode; // e.g., "LMS-2025-001234"
 
-    @Column(nullable = false)
     String pdfUrl;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    Status status;
+
     @Column(nullable = false)
     OffsetDateTime issuedAt;
 
@@ -61,11 +64,20 @@ public class Certificate {
         if (isValid == null) {
             isValid = true;
         }
+        if (status == null) {
+            status = Status.PENDING;
+        }
         if (certificateCode == null) {
             certificateCode = generateCertificateCode();
         }
     }
 
+    public enum Status {
+        PENDING,
+        READY,
+        FAILED
+    }
+
     private String generateCertificateCode() {
         return "LMS-" + 
                OffsetDateTime.now().getYear() + "-" + 
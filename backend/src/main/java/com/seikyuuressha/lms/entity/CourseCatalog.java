@@ -0,0 +1,80 @@
+package com.seikyuuressha.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "CourseCatalog")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CourseCatalog {
+    @Id
+    UUID courseId;
+
+    @Column(nullable = false, length = 200)
+    String title;
+
+    @Column(nullable = false, length = 150)
+    String slug;
+
+    @Column(columnDefinition = "NVARCHAR(MAX)")
+    String description;
+
+    @Column(length = 255)
+    String thumbnailUrl;
+
+    @Column(length = 50)
+    String level;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    BigDecimal price;
+
+    UUID categoryId;
+
+    @Column(length = 100)
+    String categoryName;
+
+    UUID instructorId;
+
+    @Column(length = 100)
+    String instructorName;
+
+    @Column(length = 100)
+    String instructorEmail;
+
+    @Column(length = 255)
+    String instructorAvatarUrl;
+
+    @Column(length = 500)
+    String instructorBio;
+
+    @Column(columnDefinition = "NVARCHAR(MAX)")
+    String coInstructors;
+
+    @Column(nullable = false)
+    Integer totalLessons;
+
+    @Column(nullable = false)
+    Integer totalDuration;
+
+    @Column(nullable = false)
+    Double averageRating;
+
+    @Column(nullable = false)
+    Integer reviewCount;
+
+    @Column(nullable = false)
+    OffsetDateTime createdAt;
+
+    @Column(nullable = false)
+    OffsetDateTime updatedAt;
+}
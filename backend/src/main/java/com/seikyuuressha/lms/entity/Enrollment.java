@@ -35,11 +35,17 @@ public class Enrollment {
     @Column(nullable = false)
     Double progressPercent;
 
+    @Column(nullable = false)
+    Integer completedLessons;
+
     @PrePersist
     protected void onCreate() {
         enrolledAt = OffsetDateTime.now();
         if (progressPercent == null) {
             progressPercent = 0.0;
         }
+        if (completedLessons == null) {
+            completedLessons = 0;
+        }
     }
 }
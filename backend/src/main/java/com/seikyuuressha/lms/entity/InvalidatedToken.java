@@ -3,6 +3,7 @@ package com.seikyuuressha.lms.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Persistable;
 
 import java.time.OffsetDateTime;
 
@@ -14,7 +15,7 @@ import java.time.OffsetDateTime;
 @Getter
 @Setter
 @FieldDefaults(level = AccessLevel.PRIVATE)
-public class InvalidatedToken {
+public class InvalidatedToken implements Persistable<String> {
     @Id
     @Column(length = 36)
     String tokenId;
@@ -24,7 +25,25 @@ public class InvalidatedToken {
     
     @Column(nullable = false)
     OffsetDateTime invalidatedAt;
-    
+
+    /** Assigned by the database on insert; instances sync on it instead of their own clocks. */
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT IDENTITY")
+    Long seq;
+
+    /** Set when consuming a token, so save() issues an INSERT that fails if the token was already revoked. */
+    @Transient
+    boolean inserting;
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return inserting;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (invalidatedAt == null) {
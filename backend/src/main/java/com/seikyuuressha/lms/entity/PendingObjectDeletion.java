@@ -0,0 +1,35 @@
+package com.seikyuuressha.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "PendingObjectDeletions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingObjectDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "deletionId", updatable = false, nullable = false)
+    private UUID deletionId;
+
+    @Column(name = "objectKey", nullable = false, length = 1024)
+    private String objectKey;
+
+    /** Set when the row stands for an unfinished multipart upload of {@code objectKey} that must be aborted. */
+    @Column(name = "uploadId", length = 1024)
+    private String uploadId;
+
+    @Column(name = "requestedAt", nullable = false)
+    private OffsetDateTime requestedAt;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+}
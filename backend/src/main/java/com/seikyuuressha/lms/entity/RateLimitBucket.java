@@ -0,0 +1,43 @@
+package com.seikyuuressha.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "RateLimitBuckets")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RateLimitBucket implements Persistable<String> {
+    @Id
+    @Column(length = 255)
+    String bucketKey;
+
+    @Column(nullable = false, length = 2048)
+    byte[] state;
+
+    @Column(nullable = false)
+    Long version;
+
+    @Column(nullable = false)
+    Long expiresAt;
+
+    /** Set on a row built for its first write, so save() issues an INSERT that fails on a duplicate key. */
+    @Transient
+    boolean inserting;
+
+    @Override
+    public String getId() {
+        return bucketKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return inserting;
+    }
+}
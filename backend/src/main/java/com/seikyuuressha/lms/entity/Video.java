@@ -48,6 +48,12 @@ public class Video {
     @Column(name = "uploadedAt", nullable = false)
     private OffsetDateTime uploadedAt;
 
+    @Column(name = "multipartUploadId", length = 1024)
+    private String multipartUploadId;
+
+    @Column(name = "partSize")
+    private Long partSize;
+
     @PrePersist
     protected void onCreate() {
         uploadedAt = OffsetDateTime.now();
@@ -0,0 +1,38 @@
+package com.seikyuuressha.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "VideoUploadParts",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"videoId", "partNumber"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoUploadPart {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "partId", updatable = false, nullable = false)
+    private UUID partId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "videoId", nullable = false)
+    private Video video;
+
+    @Column(name = "partNumber", nullable = false)
+    private Integer partNumber;
+
+    @Column(name = "eTag", nullable = false, length = 200)
+    private String etag;
+
+    @Column(name = "sizeBytes")
+    private Long sizeBytes;
+
+    @Column(name = "uploadedAt", nullable = false)
+    private OffsetDateTime uploadedAt;
+}
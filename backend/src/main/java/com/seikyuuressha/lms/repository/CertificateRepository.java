@@ -4,8 +4,13 @@ import com.seikyuuressha.lms.entity.Certificate;
 import com.seikyuuressha.lms.entity.Course;
 import com.seikyuuressha.lms.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +21,31 @@ public interface CertificateRepository extends JpaRepository<Certificate, UUID>
     Optional<Certificate> findByCertificateCode(String certificateCode);
     List<Certificate> findByUserOrderByIssuedAtDesc(Users user);
     List<Certificate> findByUserAndIsValidOrderByIssuedAtDesc(Users user, Boolean isValid);
+
+    @Query("SELECT c FROM Certificate c JOIN FETCH c.user JOIN FETCH c.course WHERE c.certificateId = :certificateId")
+    Optional<Certificate> findByIdWithUserAndCourse(@Param("certificateId") UUID certificateId);
+
+    @Query("SELECT c.certificateId FROM Certificate c WHERE c.status = :status AND c.issuedAt < :before")
+    List<UUID> findIdsByStatusIssuedBefore(@Param("status") Certificate.Status status,
+                                           @Param("before") OffsetDateTime before);
+
+    /** Restarts a stale PENDING certificate's clock; only the replica whose update matches gets to resubmit it. */
+    @Modifying
+    @Query("UPDATE Certificate c SET c.issuedAt = :now " +
+           "WHERE c.certificateId = :certificateId AND c.issuedAt < :before " +
+           "AND c.status = com.seikyuuressha.lms.entity.Certificate.Status.PENDING")
+    int claimStale(@Param("certificateId") UUID certificateId, @Param("before") OffsetDateTime before,
+                   @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("UPDATE Certificate c SET c.status = :status, c.pdfUrl = :pdfUrl " +
+           "WHERE c.certificateId = :certificateId AND c.status = com.seikyuuressha.lms.entity.Certificate.Status.PENDING")
+    int completePending(@Param("certificateId") UUID certificateId, @Param("status") Certificate.Status status,
+                        @Param("pdfUrl") String pdfUrl);
+
+    @Query("SELECT c.pdfUrl FROM Certificate c WHERE c.course.courseId = :courseId AND c.pdfUrl IS NOT NULL")
+    List<String> findPdfKeysByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT c.pdfUrl FROM Certificate c WHERE c.pdfUrl IN :keys")
+    List<String> findPdfKeysIn(@Param("keys") Collection<String> keys);
 }
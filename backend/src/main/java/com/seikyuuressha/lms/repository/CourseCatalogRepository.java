@@ -0,0 +1,83 @@
+package com.seikyuuressha.lms.repository;
+
+import com.seikyuuressha.lms.entity.CourseCatalog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CourseCatalogRepository extends JpaRepository<CourseCatalog, UUID> {
+
+    String FILTER = "(:categoryId IS NULL OR c.categoryId = :categoryId) " +
+            "AND (:level IS NULL OR c.level = :level) " +
+            "AND (:minPrice IS NULL OR c.price >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR c.price <= :maxPrice) ";
+
+    List<CourseCatalog> findByCategoryId(UUID categoryId);
+
+    @Query("SELECT c.courseId FROM CourseCatalog c")
+    List<UUID> findAllCourseIds();
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "ORDER BY c.createdAt DESC, c.courseId DESC")
+    List<CourseCatalog> findNewest(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                   @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                   Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.courseId < :courseId)) " +
+           "ORDER BY c.createdAt DESC, c.courseId DESC")
+    List<CourseCatalog> findNewestAfter(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                        @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                        @Param("createdAt") OffsetDateTime createdAt, @Param("courseId") UUID courseId,
+                                        Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "ORDER BY c.price ASC, c.courseId ASC")
+    List<CourseCatalog> findCheapest(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                     @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                     Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "AND (c.price > :price OR (c.price = :price AND c.courseId > :courseId)) " +
+           "ORDER BY c.price ASC, c.courseId ASC")
+    List<CourseCatalog> findCheapestAfter(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                          @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                          @Param("price") BigDecimal price, @Param("courseId") UUID courseId,
+                                          Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "ORDER BY c.price DESC, c.courseId DESC")
+    List<CourseCatalog> findMostExpensive(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                          @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                          Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "AND (c.price < :price OR (c.price = :price AND c.courseId < :courseId)) " +
+           "ORDER BY c.price DESC, c.courseId DESC")
+    List<CourseCatalog> findMostExpensiveAfter(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                               @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                               @Param("price") BigDecimal price, @Param("courseId") UUID courseId,
+                                               Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "ORDER BY c.averageRating DESC, c.courseId DESC")
+    List<CourseCatalog> findTopRated(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                     @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                     Pageable pageable);
+
+    @Query("SELECT c FROM CourseCatalog c WHERE " + FILTER +
+           "AND (c.averageRating < :rating OR (c.averageRating = :rating AND c.courseId < :courseId)) " +
+           "ORDER BY c.averageRating DESC, c.courseId DESC")
+    List<CourseCatalog> findTopRatedAfter(@Param("categoryId") UUID categoryId, @Param("level") String level,
+                                          @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                          @Param("rating") Double rating, @Param("courseId") UUID courseId,
+                                          Pageable pageable);
+}
@@ -5,8 +5,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,6 +16,27 @@ import java.util.UUID;
 @Repository
 public interface CourseRepository extends JpaRepository<Course, UUID> {
     Optional<Course> findBySlug(String slug);
+
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.category " +
+           "LEFT JOIN FETCH c.modules WHERE c.courseId = :courseId")
+    Optional<Course> findWithModulesById(@Param("courseId") UUID courseId);
+
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.category " +
+           "LEFT JOIN FETCH c.modules WHERE c.slug = :slug")
+    Optional<Course> findWithModulesBySlug(@Param("slug") String slug);
+
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.courseInstructors ci LEFT JOIN FETCH ci.user " +
+           "WHERE c.courseId = :courseId")
+    Optional<Course> fetchCourseInstructors(@Param("courseId") UUID courseId);
+
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.category " +
+           "LEFT JOIN FETCH c.modules WHERE c.courseId IN :courseIds")
+    List<Course> findWithModulesByIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.courseInstructors ci LEFT JOIN FETCH ci.user " +
+           "WHERE c.courseId IN :courseIds")
+    List<Course> fetchCourseInstructorsByIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
     List<Course> findByIsPublishedTrue();
     
     @Query("SELECT c FROM Course c WHERE c.isPublished = true AND " +
@@ -21,6 +44,20 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
     List<Course> findPublishedCourses(UUID categoryId);
     
     List<Course> findByInstructor_UserId(UUID instructorId);
+
+    @Query("SELECT c.courseId FROM Course c WHERE c.isPublished = true")
+    List<UUID> findPublishedCourseIds();
+
+    @Query("SELECT DISTINCT c.courseId FROM Course c LEFT JOIN c.courseInstructors ci " +
+           "WHERE c.instructor.userId = :instructorId OR ci.userId = :instructorId")
+    List<UUID> findCourseIdsByInstructorId(@Param("instructorId") UUID instructorId);
+
+    @Query("SELECT c.courseId FROM Course c WHERE c.category.categoryId = :categoryId")
+    List<UUID> findCourseIdsByCategoryId(@Param("categoryId") UUID categoryId);
+
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.category " +
+           "WHERE c.courseId IN :courseIds")
+    List<Course> findWithInstructorAndCategoryByIdIn(@Param("courseIds") Collection<UUID> courseIds);
     
     boolean existsBySlug(String slug);
     
@@ -2,7 +2,9 @@ package com.seikyuuressha.lms.repository;
 
 import com.seikyuuressha.lms.entity.Enrollment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -25,6 +27,30 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
 
     long countByCourse_CourseId(UUID courseId);
 
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.completedLessons = e.completedLessons + :delta, " +
+           "e.progressPercent = (e.completedLessons + :delta) * 100.0 / :totalLessons " +
+           "WHERE e.user.userId = :userId AND e.course.courseId = :courseId")
+    int addCompletedLessons(@Param("userId") UUID userId, @Param("courseId") UUID courseId,
+                            @Param("delta") int delta, @Param("totalLessons") long totalLessons);
+
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.completedLessons = (" +
+           "SELECT COUNT(p) FROM Progress p JOIN p.lesson l JOIN l.module m " +
+           "WHERE p.user.userId = e.user.userId AND m.course.courseId = e.course.courseId " +
+           "AND p.progressPercent >= :threshold) " +
+           "WHERE e.course.courseId = :courseId")
+    int recountCompletedLessons(@Param("courseId") UUID courseId, @Param("threshold") double threshold);
+
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.progressPercent = e.completedLessons * 100.0 / :totalLessons " +
+           "WHERE e.course.courseId = :courseId")
+    int recalculateProgressPercent(@Param("courseId") UUID courseId, @Param("totalLessons") long totalLessons);
+
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.completedLessons = 0, e.progressPercent = 0.0 WHERE e.course.courseId = :courseId")
+    int resetProgress(@Param("courseId") UUID courseId);
+
     default boolean existsByUserAndCourse(com.seikyuuressha.lms.entity.Users user,
             com.seikyuuressha.lms.entity.Course course) {
         return existsByUser_UserIdAndCourse_CourseId(user.getUserId(), course.getCourseId());
@@ -1,11 +1,17 @@
 package com.seikyuuressha.lms.repository;
 
 import com.seikyuuressha.lms.entity.InvalidatedToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
@@ -13,4 +19,23 @@ public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedTok
     
     @Modifying
     void deleteByExpiryTimeBefore(OffsetDateTime time);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.tokenId AS tokenId, t.expiryTime AS expiryTime, t.seq AS seq FROM InvalidatedToken t " +
+           "WHERE t.expiryTime > :now")
+    Stream<RevokedToken> streamUnexpired(@Param("now") OffsetDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.tokenId AS tokenId, t.expiryTime AS expiryTime, t.seq AS seq FROM InvalidatedToken t " +
+           "WHERE t.seq > :after AND t.expiryTime > :now")
+    Stream<RevokedToken> streamInvalidatedAfter(@Param("after") long after,
+                                                @Param("now") OffsetDateTime now);
+
+    interface RevokedToken {
+        String getTokenId();
+
+        OffsetDateTime getExpiryTime();
+
+        Long getSeq();
+    }
 }
@@ -3,9 +3,12 @@ package com.seikyuuressha.lms.repository;
 import com.seikyuuressha.lms.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,6 +17,20 @@ public interface LessonRepository extends JpaRepository<Lesson, UUID> {
     @Query("SELECT l FROM Lesson l WHERE l.module.course.courseId = :courseId")
     List<Lesson> findByCourseId(UUID courseId);
     
+    @Query("SELECT l FROM Lesson l JOIN FETCH l.module m JOIN FETCH m.course WHERE l.lessonId = :lessonId")
+    Optional<Lesson> findByIdWithCourse(@Param("lessonId") UUID lessonId);
+    
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.module.course.courseId = :courseId")
     long countByCourseId(UUID courseId);
+
+    @Query("SELECT l.module.course.courseId, COUNT(l) FROM Lesson l " +
+           "WHERE l.module.course.courseId IN :courseIds GROUP BY l.module.course.courseId")
+    List<Object[]> countByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
+
+    @Query("SELECT l.module.course.courseId, COUNT(l), COALESCE(SUM(l.durationSeconds), 0) FROM Lesson l " +
+           "WHERE l.module.course.courseId IN :courseIds GROUP BY l.module.course.courseId")
+    List<Object[]> summarizeByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
+
+    @Query("SELECT l.module.course.courseId, l.title FROM Lesson l WHERE l.module.course.courseId IN :courseIds")
+    List<Object[]> findTitlesByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
 }
\ No newline at end of file
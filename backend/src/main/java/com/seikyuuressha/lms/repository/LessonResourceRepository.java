@@ -2,8 +2,11 @@ package com.seikyuuressha.lms.repository;
 
 import com.seikyuuressha.lms.entity.LessonResource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +14,13 @@ import java.util.UUID;
 public interface LessonResourceRepository extends JpaRepository<LessonResource, UUID> {
     List<LessonResource> findByLesson_LessonIdOrderByCreatedAtDesc(UUID lessonId);
     void deleteByResourceId(UUID resourceId);
+
+    @Query("SELECT r.s3Key FROM LessonResource r WHERE r.lesson.lessonId = :lessonId AND r.s3Key IS NOT NULL")
+    List<String> findS3KeysByLessonId(@Param("lessonId") UUID lessonId);
+
+    @Query("SELECT r.s3Key FROM LessonResource r WHERE r.lesson.module.course.courseId = :courseId AND r.s3Key IS NOT NULL")
+    List<String> findS3KeysByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT r.s3Key FROM LessonResource r WHERE r.s3Key IN :keys")
+    List<String> findS3KeysIn(@Param("keys") Collection<String> keys);
 }
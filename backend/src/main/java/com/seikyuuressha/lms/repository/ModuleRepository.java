@@ -2,8 +2,11 @@ package com.seikyuuressha.lms.repository;
 
 import com.seikyuuressha.lms.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +16,10 @@ public interface ModuleRepository extends JpaRepository<Module, UUID> {
     List<Module> findByCourse_CourseId(UUID courseId);
 
     List<Module> findByCourse_CourseIdOrderBySortOrderAsc(UUID courseId);
+
+    @Query("SELECT DISTINCT m FROM Module m LEFT JOIN FETCH m.lessons WHERE m.course.courseId = :courseId")
+    List<Module> fetchLessonsByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT DISTINCT m FROM Module m LEFT JOIN FETCH m.lessons WHERE m.course.courseId IN :courseIds")
+    List<Module> fetchLessonsByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
 }
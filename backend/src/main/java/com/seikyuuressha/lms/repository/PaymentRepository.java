@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +30,8 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     boolean existsByEnrollment_EnrollmentIdAndPaymentStatus(UUID enrollmentId, String paymentStatus);
     Optional<Payment> findByEnrollment_EnrollmentId(UUID enrollmentId);
 
+    List<Payment> findByEnrollment_EnrollmentIdIn(Collection<UUID> enrollmentIds);
+
     @Query(value = """
         SELECT 
             YEAR(p.createdAt) as year,
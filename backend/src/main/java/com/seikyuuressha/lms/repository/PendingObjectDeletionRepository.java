@@ -0,0 +1,30 @@
+package com.seikyuuressha.lms.repository;
+
+import com.seikyuuressha.lms.entity.PendingObjectDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingObjectDeletionRepository extends JpaRepository<PendingObjectDeletion, UUID> {
+
+    List<PendingObjectDeletion> findByOrderByAttemptsAscRequestedAtAsc(Pageable pageable);
+
+    @Query("SELECT p.objectKey FROM PendingObjectDeletion p WHERE p.objectKey IN :keys")
+    List<String> findObjectKeysIn(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("DELETE FROM PendingObjectDeletion p WHERE p.deletionId IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE PendingObjectDeletion p SET p.attempts = p.attempts + 1 WHERE p.deletionId IN :ids")
+    int incrementAttempts(@Param("ids") Collection<UUID> ids);
+}
@@ -2,8 +2,11 @@ package com.seikyuuressha.lms.repository;
 
 import com.seikyuuressha.lms.entity.Progress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,10 +16,18 @@ public interface ProgressRepository extends JpaRepository<Progress, UUID> {
     Optional<Progress> findByUser_UserIdAndLesson_LessonId(UUID userId, UUID lessonId);
     List<Progress> findByUser_UserId(UUID userId);
     List<Progress> findByUser_UserIdAndLesson_Module_Course_CourseId(UUID userId, UUID courseId);
+    List<Progress> findByUser_UserIdAndLesson_Module_Course_CourseIdIn(UUID userId, Collection<UUID> courseIds);
     boolean existsByLesson_LessonId(UUID lessonId);
     
     void deleteByUser_UserIdAndLesson_Module_Course_CourseId(UUID userId, UUID courseId);
     
+    @Query("SELECT COUNT(p) FROM Progress p " +
+           "WHERE p.user.userId = :userId AND p.lesson.module.course.courseId = :courseId " +
+           "AND p.progressPercent >= :threshold")
+    long countCompletedLessons(@Param("userId") UUID userId,
+                               @Param("courseId") UUID courseId,
+                               @Param("threshold") double threshold);
+
     default List<Progress> findProgressByCourseAndUser(UUID courseId, UUID userId) {
         return findByUser_UserIdAndLesson_Module_Course_CourseId(userId, courseId);
     }
@@ -0,0 +1,22 @@
+package com.seikyuuressha.lms.repository;
+
+import com.seikyuuressha.lms.entity.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    @Modifying
+    @Query("UPDATE RateLimitBucket b SET b.state = :state, b.version = b.version + 1, b.expiresAt = :expiresAt " +
+           "WHERE b.bucketKey = :bucketKey AND b.version = :version")
+    int compareAndSwap(@Param("bucketKey") String bucketKey, @Param("version") long version,
+                       @Param("state") byte[] state, @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RateLimitBucket b WHERE b.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -5,8 +5,10 @@ import com.seikyuuressha.lms.entity.Course;
 import com.seikyuuressha.lms.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,4 +26,8 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     
     @Query("SELECT COUNT(r) FROM Review r WHERE r.course = :course AND r.isActive = true")
     Long getReviewCountForCourse(Course course);
+
+    @Query("SELECT r.course.courseId, AVG(r.rating), COUNT(r) FROM Review r " +
+           "WHERE r.course.courseId IN :courseIds AND r.isActive = true GROUP BY r.course.courseId")
+    List<Object[]> summarizeByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
 }
@@ -4,10 +4,12 @@ import com.seikyuuressha.lms.entity.Users;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,8 +19,16 @@ public interface UserRepository extends JpaRepository<Users, UUID> {
     
     @Query("SELECT u FROM Users u JOIN FETCH u.role WHERE u.email = :email")
     Optional<Users> findByEmailWithRole(@Param("email") String email);
+
+    @Query("SELECT u FROM Users u JOIN FETCH u.role WHERE u.userId = :userId")
+    Optional<Users> findByIdWithRole(@Param("userId") UUID userId);
     
     boolean existsByEmail(String email);
     Page<Users> findByRole_RoleName(String roleName, Pageable pageable);
     long countByRole_RoleName(String roleName);
+
+    @Modifying
+    @Query("UPDATE Users u SET u.failedLoginAttempts = :attempts, u.blockUntil = :blockUntil WHERE u.email = :email")
+    int blockByEmail(@Param("email") String email, @Param("attempts") int attempts,
+                     @Param("blockUntil") OffsetDateTime blockUntil);
 }
\ No newline at end of file
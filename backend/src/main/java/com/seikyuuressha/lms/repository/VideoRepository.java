@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,4 +26,29 @@ public interface VideoRepository extends JpaRepository<Video, UUID> {
     List<Video> findByCourseId(@Param("courseId") UUID courseId);
 
     boolean existsByLesson_LessonId(UUID lessonId);
+
+    @Query("SELECT v.lesson.lessonId FROM Video v " +
+           "WHERE v.lesson.module.course.courseId = :courseId AND v.processingStatus = :status")
+    List<UUID> findLessonIdsByCourseIdAndStatus(@Param("courseId") UUID courseId,
+                                                @Param("status") Video.ProcessingStatus status);
+
+    @Query("SELECT v.lesson.module.course.courseId, v.lesson.lessonId FROM Video v " +
+           "WHERE v.lesson.module.course.courseId IN :courseIds AND v.processingStatus = :status")
+    List<Object[]> findLessonIdsByCourseIdsAndStatus(@Param("courseIds") Collection<UUID> courseIds,
+                                                     @Param("status") Video.ProcessingStatus status);
+
+    @Query("SELECT v.videoId FROM Video v " +
+           "WHERE v.multipartUploadId IS NOT NULL AND v.uploadedAt < :cutoff " +
+           "AND NOT EXISTS (SELECT p FROM VideoUploadPart p WHERE p.video = v AND p.uploadedAt >= :cutoff)")
+    List<UUID> findAbandonedMultipartUploadIds(@Param("cutoff") OffsetDateTime cutoff);
+
+    @Query("SELECT v FROM Video v " +
+           "WHERE v.lesson.module.course.courseId = :courseId AND v.multipartUploadId IS NOT NULL")
+    List<Video> findMultipartUploadsByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT v.s3Key FROM Video v WHERE v.lesson.module.course.courseId = :courseId")
+    List<String> findS3KeysByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT v.s3Key FROM Video v WHERE v.s3Key IN :keys")
+    List<String> findS3KeysIn(@Param("keys") Collection<String> keys);
 }
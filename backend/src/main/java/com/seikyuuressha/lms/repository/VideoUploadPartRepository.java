@@ -0,0 +1,24 @@
+package com.seikyuuressha.lms.repository;
+
+import com.seikyuuressha.lms.entity.VideoUploadPart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface VideoUploadPartRepository extends JpaRepository<VideoUploadPart, UUID> {
+
+    List<VideoUploadPart> findByVideo_VideoIdOrderByPartNumberAsc(UUID videoId);
+
+    Optional<VideoUploadPart> findByVideo_VideoIdAndPartNumber(UUID videoId, Integer partNumber);
+
+    @Modifying
+    @Query("DELETE FROM VideoUploadPart p WHERE p.video.videoId = :videoId")
+    int deleteByVideoId(@Param("videoId") UUID videoId);
+}
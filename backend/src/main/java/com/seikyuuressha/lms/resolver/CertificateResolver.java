@@ -3,10 +3,9 @@ package com.seikyuuressha.lms.resolver;
 import com.seikyuuressha.lms.dto.response.CertificateResponse;
 import com.seikyuuressha.lms.entity.Course;
 import com.seikyuuressha.lms.entity.Users;
-import com.seikyuuressha.lms.repository.CourseRepository;
-import com.seikyuuressha.lms.repository.UserRepository;
 import com.seikyuuressha.lms.service.CertificateService;
 import lombok.RequiredArgsConstructor;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -16,14 +15,13 @@ import org.springframework.stereotype.Controller;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
 public class CertificateResolver {
 
     private final CertificateService certificateService;
-    private final UserRepository userRepository;
-    private final CourseRepository courseRepository;
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
@@ -44,14 +42,12 @@ public class CertificateResolver {
     }
 
     @SchemaMapping(typeName = "Certificate", field = "user")
-    public Users getUser(CertificateResponse certificate) {
-        return userRepository.findById(certificate.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public CompletableFuture<Users> getUser(CertificateResponse certificate, DataLoader<UUID, Users> users) {
+        return users.load(certificate.getUserId());
     }
 
     @SchemaMapping(typeName = "Certificate", field = "course")
-    public Course getCourse(CertificateResponse certificate) {
-        return courseRepository.findById(certificate.getCourseId())
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+    public CompletableFuture<Course> getCourse(CertificateResponse certificate, DataLoader<UUID, Course> courses) {
+        return courses.load(certificate.getCourseId());
     }
 }
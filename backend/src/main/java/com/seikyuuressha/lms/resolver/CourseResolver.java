@@ -1,5 +1,8 @@
 package com.seikyuuressha.lms.resolver;
 
+import com.seikyuuressha.lms.dto.request.CourseCatalogFilter;
+import com.seikyuuressha.lms.dto.request.CourseSort;
+import com.seikyuuressha.lms.dto.response.CourseConnection;
 import com.seikyuuressha.lms.dto.response.CourseResponse;
 import com.seikyuuressha.lms.service.AdminService;
 import com.seikyuuressha.lms.service.CourseService;
@@ -25,6 +28,17 @@ public class CourseResolver {
         return courseService.getAllPublishedCourses(categoryId);
     }
 
+    @QueryMapping
+    public CourseConnection getCourseCatalog(@Argument Integer first, @Argument String after,
+                                             @Argument CourseSort sort, @Argument CourseCatalogFilter filter) {
+        return courseService.getCourseCatalog(first, after, sort, filter);
+    }
+
+    @QueryMapping
+    public List<CourseResponse> searchCourses(@Argument String query, @Argument Integer first) {
+        return courseService.searchCourses(query, first);
+    }
+
     @QueryMapping
     public CourseResponse getCourseById(@Argument UUID courseId) {
         return courseService.getCourseById(courseId);
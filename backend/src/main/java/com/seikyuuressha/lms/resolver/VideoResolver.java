@@ -1,8 +1,11 @@
 package com.seikyuuressha.lms.resolver;
 
+import com.seikyuuressha.lms.dto.request.UploadedPartInput;
 import com.seikyuuressha.lms.dto.request.VideoUploadRequest;
 import com.seikyuuressha.lms.dto.response.PresignedUrlResponse;
+import com.seikyuuressha.lms.dto.response.UploadPartUrlResponse;
 import com.seikyuuressha.lms.dto.response.VideoResponse;
+import com.seikyuuressha.lms.dto.response.VideoUploadSessionResponse;
 import com.seikyuuressha.lms.service.VideoService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -28,6 +31,41 @@ public class VideoResolver {
     }
 
     
+    @MutationMapping
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public VideoUploadSessionResponse createVideoUploadSession(@Argument VideoUploadRequest input) {
+        return videoService.createUploadSession(input);
+    }
+
+    
+    @MutationMapping
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public List<UploadPartUrlResponse> generateVideoUploadPartUrls(@Argument UUID videoId, @Argument List<Integer> partNumbers) {
+        return videoService.generateUploadPartUrls(videoId, partNumbers);
+    }
+
+    
+    @MutationMapping
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public VideoUploadSessionResponse recordVideoUploadParts(@Argument UUID videoId, @Argument List<UploadedPartInput> parts) {
+        return videoService.recordUploadedParts(videoId, parts);
+    }
+
+    
+    @MutationMapping
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public Boolean abortVideoUploadSession(@Argument UUID videoId) {
+        return videoService.abortUploadSession(videoId);
+    }
+
+    
+    @QueryMapping
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public VideoUploadSessionResponse getVideoUploadSession(@Argument UUID videoId) {
+        return videoService.getUploadSession(videoId);
+    }
+
+    
     @MutationMapping
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public VideoResponse confirmVideoUpload(@Argument UUID videoId, @Argument Integer durationSeconds) {
@@ -0,0 +1,48 @@
+package com.seikyuuressha.lms.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Coarse per-address limit that runs before JwtAuthenticationFilter, so a flood of requests carrying
+ * bogus tokens is turned away before any token is parsed or principal loaded. Its budget is sized for
+ * many users behind one NAT; RateLimitFilter then applies the per-user limit once the caller is known.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AddressRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitBucketStore bucketStore;
+    private final ClientAddressResolver clientAddressResolver;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String clientIp = clientAddressResolver.resolve(request);
+        request.setAttribute(RateLimitFilter.CLIENT_IP_ATTRIBUTE, clientIp);
+
+        if (bucketStore.addressBucket(clientIp).tryConsume(1)) {
+            filterChain.doFilter(request, response);
+        } else {
+            meterRegistry.counter("ratelimit.rejections", "type", "address").increment();
+            log.warn("Address rate limit exceeded for {} on path: {}", clientIp, request.getRequestURI());
+            RateLimitFilter.writeTooManyRequests(response);
+        }
+    }
+}
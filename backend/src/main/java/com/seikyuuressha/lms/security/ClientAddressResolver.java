@@ -0,0 +1,61 @@
+package com.seikyuuressha.lms.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The address a request is rate limited and login-tracked by. {@code X-Forwarded-For} is only honoured when the
+ * connection comes from one of {@code rate-limit.trusted-proxies} (comma-separated addresses or CIDR ranges);
+ * the header is then read right to left and the first hop that is not a trusted proxy is the client. Anyone
+ * else gets their socket address, so rotating the header neither escapes a limit nor fills the bucket store.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(@Value("${rate-limit.trusted-proxies:}") String trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .collect(Collectors.toList());
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor == null || xForwardedFor.isBlank() || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String[] hops = xForwardedFor.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            client = hops[i].trim();
+            if (client.isEmpty() || !isTrusted(client)) {
+                break;
+            }
+        }
+        return client.isEmpty() ? remoteAddr : client;
+    }
+
+    private boolean isTrusted(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.seikyuuressha.lms.security;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.GraphQLTypeUtil;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges each GraphQL operation its field cost from the caller's GraphQL cost bucket, which is sized
+ * separately from the per-request limit RateLimitFilter enforces. Every selected field costs one token,
+ * or its weight from {@link #FIELD_WEIGHTS} for resolvers that aggregate over many rows.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class GraphQLCostLimiter extends SimplePerformantInstrumentation implements WebGraphQlInterceptor {
+
+    static final String CLIENT_KEY = GraphQLCostLimiter.class.getName() + ".clientKey";
+
+    static final Map<String, Integer> FIELD_WEIGHTS = Map.ofEntries(
+            Map.entry("Query.getCourseById", 5),
+            Map.entry("Query.getCourseBySlug", 5),
+            Map.entry("Query.getAllCourses", 10),
+            Map.entry("Query.getCourseEnrollments", 10),
+            Map.entry("Query.getCourseRevenue", 10),
+            Map.entry("Query.getStudentProgress", 25),
+            Map.entry("Query.getMonthlyRevenue", 20),
+            Map.entry("Query.getCourseMonthlyRevenue", 20),
+            Map.entry("Query.getAllUsers", 10),
+            Map.entry("Query.getAllCoursesAdmin", 10),
+            Map.entry("Query.getAllPayments", 10),
+            Map.entry("Query.getRevenueReport", 40),
+            Map.entry("Query.getSystemStatistics", 50),
+            Map.entry("Mutation.generateCertificate", 20));
+
+    private final RateLimitBucketStore bucketStore;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        Object clientKey = request.getAttributes().get(RateLimitFilter.CLIENT_KEY_ATTRIBUTE);
+        if (clientKey != null) {
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(Map.of(CLIENT_KEY, clientKey)).build());
+        }
+        return chain.next(request).doOnNext(response -> response.getErrors().stream()
+                .map(error -> error.getExtensions().get("retryAfter"))
+                .filter(retryAfter -> retryAfter != null)
+                .findFirst()
+                .ifPresent(retryAfter -> response.getResponseHeaders().set("Retry-After", retryAfter.toString())));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        String clientKey = context.getGraphQLContext().get(CLIENT_KEY);
+        if (clientKey == null) {
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        int cost = calculateCost(context);
+        if (cost > 0) {
+            Bucket bucket = bucketStore.graphQLCostBucket(clientKey);
+            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(cost);
+            if (!probe.isConsumed()) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+                meterRegistry.counter("ratelimit.rejections", "type", "graphql-cost").increment();
+                log.warn("GraphQL cost limit exceeded for {}: cost {}", clientKey, cost);
+                throw new RateLimitExceededException(cost, retryAfter);
+            }
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    static int calculateCost(ExecutionContext context) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+                .schema(context.getGraphQLSchema())
+                .document(context.getDocument())
+                .operationName(context.getOperationDefinition().getName())
+                .coercedVariables(context.getCoercedVariables())
+                .build();
+        return traverser.reducePreOrder((env, cost) -> cost + fieldCost(env), 0);
+    }
+
+    private static int fieldCost(QueryVisitorFieldEnvironment env) {
+        if (env.isTypeNameIntrospectionField() || env.getFieldDefinition().getName().startsWith("__")) {
+            return 0;
+        }
+        String parentType = GraphQLTypeUtil.simplePrint(GraphQLTypeUtil.unwrapAll(env.getParentType()));
+        return FIELD_WEIGHTS.getOrDefault(parentType + "." + env.getField().getName(), 1);
+    }
+
+    static class RateLimitExceededException extends AbortExecutionException {
+
+        private final long retryAfterSeconds;
+
+        RateLimitExceededException(int cost, long retryAfterSeconds) {
+            super("Too many requests. This operation costs " + cost + " and the rate limit is exhausted. "
+                    + "Retry after " + retryAfterSeconds + " seconds.");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        @Override
+        public Map<String, Object> getExtensions() {
+            return Map.of("classification", "TOO_MANY_REQUESTS", "retryAfter", retryAfterSeconds);
+        }
+    }
+}
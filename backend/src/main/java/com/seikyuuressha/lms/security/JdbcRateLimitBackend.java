@@ -0,0 +1,177 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.entity.RateLimitBucket;
+import com.seikyuuressha.lms.repository.RateLimitBucketRepository;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucket state shared by all replicas through the RateLimitBuckets table, updated with optimistic
+ * compare-and-swap on a version column. Each bucket proxy consumes locally and only synchronizes with
+ * the table every {@code rate-limit.jdbc.sync-tokens} tokens or {@code rate-limit.jdbc.sync-interval-ms},
+ * so a request does not normally pay a database round trip. A sync-tokens value of 0 synchronizes on every request.
+ * Async bucket operations run the same compare-and-swap on a small worker pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProxyManager<String> proxyManager;
+    private final DelayParameters delayParameters;
+    private final long idleExpiryMillis;
+    private final ThreadPoolExecutor asyncExecutor;
+
+    public JdbcRateLimitBackend(RateLimitBucketRepository rateLimitBucketRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${rate-limit.jdbc.sync-tokens:20}") long syncTokens,
+                                @Value("${rate-limit.jdbc.sync-interval-ms:1000}") long syncIntervalMillis,
+                                @Value("${rate-limit.idle-expiry-ms:600000}") long idleExpiryMillis) {
+        this.rateLimitBucketRepository = rateLimitBucketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.proxyManager = new JdbcProxyManager();
+        this.delayParameters = syncTokens > 0
+                ? new DelayParameters(syncTokens, Duration.ofMillis(syncIntervalMillis))
+                : null;
+        this.idleExpiryMillis = idleExpiryMillis;
+        // Callers block on the returned futures, so a full queue runs the operation on the caller instead of dropping it.
+        this.asyncExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rate-limit-jdbc");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncExecutor.shutdown();
+    }
+
+    @Override
+    public Bucket bucket(String key, BucketConfiguration configuration) {
+        if (delayParameters == null) {
+            return proxyManager.builder().build(key, () -> configuration);
+        }
+        return proxyManager.builder()
+                .withOptimization(Optimizations.delaying(delayParameters))
+                .build(key, () -> configuration);
+    }
+
+    @Override
+    public void evictExpired() {
+        int deleted = transactionTemplate.execute(status ->
+                rateLimitBucketRepository.deleteExpired(System.currentTimeMillis()));
+        if (deleted > 0) {
+            log.debug("Removed {} expired rate-limit buckets", deleted);
+        }
+    }
+
+    private class JdbcProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+        JdbcProxyManager() {
+            super(ClientSideConfig.getDefault());
+        }
+
+        @Override
+        protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+            return new CompareAndSwapOperation() {
+                private Long version;
+
+                @Override
+                public Optional<byte[]> getStateData() {
+                    Optional<RateLimitBucket> row = transactionTemplate.execute(status ->
+                            rateLimitBucketRepository.findById(key));
+                    version = row.map(RateLimitBucket::getVersion).orElse(null);
+                    return row.map(RateLimitBucket::getState);
+                }
+
+                @Override
+                public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                    long now = System.currentTimeMillis();
+                    long expiresAt = now + idleExpiryMillis + TimeUnit.NANOSECONDS.toMillis(
+                            newState.calculateFullRefillingTime(TimeUnit.MILLISECONDS.toNanos(now)));
+                    try {
+                        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                            if (version == null) {
+                                // Another replica inserting the same key first fails this INSERT: the CAS is lost.
+                                rateLimitBucketRepository.saveAndFlush(RateLimitBucket.builder()
+                                        .bucketKey(key)
+                                        .state(newData)
+                                        .version(0L)
+                                        .expiresAt(expiresAt)
+                                        .inserting(true)
+                                        .build());
+                                return true;
+                            }
+                            return rateLimitBucketRepository.compareAndSwap(key, version, newData, expiresAt) == 1;
+                        }));
+                    } catch (DataIntegrityViolationException e) {
+                        return false;
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+            CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+            return new AsyncCompareAndSwapOperation() {
+                @Override
+                public CompletableFuture<Optional<byte[]>> getStateData() {
+                    return CompletableFuture.supplyAsync(operation::getStateData, asyncExecutor);
+                }
+
+                @Override
+                public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData,
+                                                                 RemoteBucketState newState) {
+                    return CompletableFuture.supplyAsync(
+                            () -> operation.compareAndSwap(originalData, newData, newState), asyncExecutor);
+                }
+            };
+        }
+
+        @Override
+        protected CompletableFuture<Void> removeAsync(String key) {
+            return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            transactionTemplate.executeWithoutResult(status -> rateLimitBucketRepository.deleteById(key));
+        }
+
+        @Override
+        public boolean isAsyncModeSupported() {
+            return true;
+        }
+    }
+}
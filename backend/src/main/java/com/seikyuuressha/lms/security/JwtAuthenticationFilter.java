@@ -1,6 +1,5 @@
 package com.seikyuuressha.lms.security;
 
-import com.seikyuuressha.lms.security.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,14 +7,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -23,7 +22,7 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -41,39 +40,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authorizationHeader.substring(7);
 
-        String username;
-        String userIdStr;
+        JwtUtil.TokenClaims claims;
 
         try {
-            username = jwtUtil.extractUsername(jwt);
-            userIdStr = jwtUtil.extractUserId(jwt);
+            claims = jwtUtil.parseToken(jwt);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        String username = claims.subject();
+        String userIdStr = claims.userId();
+
         if (username != null
                 && userIdStr != null
                 && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails =
-                    this.userDetailsService.loadUserByUsername(username);
+            UUID userId;
+            try {
+                userId = UUID.fromString(userIdStr);
+            } catch (IllegalArgumentException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            PrincipalCache.CachedPrincipal principal = principalCache.get(userId);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                if (!userDetails.isEnabled()) {
+            if (principal != null && username.equals(principal.email())) {
+                if (!principal.active()) {
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                     response.setContentType("application/json");
                     response.getWriter().write("{\"error\": \"Account is locked\", \"message\": \"Tài khoản của bạn đã bị khóa\"}");
                     return;
                 }
 
-                UUID userId = UUID.fromString(userIdStr);
-
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
                                 userId,
                                 null,
-                                userDetails.getAuthorities()
+                                List.of(new SimpleGrantedAuthority("ROLE_" + principal.roleName()))
                         );
 
                 authenticationToken.setDetails(
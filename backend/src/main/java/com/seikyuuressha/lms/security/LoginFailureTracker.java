@@ -0,0 +1,213 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts failed logins per email and per client IP in memory, over a fixed window of
+ * {@code security.login-failures.window-ms}. Counters live in lock-striped maps and expire on their own,
+ * so failed attempts never write to the database; only when an email reaches
+ * {@code security.login-failures.max-attempts} is the lock persisted on the Users row.
+ * An IP is refused in memory once it has failed against {@code security.login-failures.max-attempts-per-ip}
+ * distinct emails: that is the password-spraying pattern, whereas many users behind one NAT mistyping their
+ * own passwords are already covered by the per-email lock. Each stripe holds at most its share of
+ * {@code security.login-failures.max-tracked} windows and drops the oldest when full.
+ */
+@Slf4j
+@Component
+public class LoginFailureTracker {
+
+    private static final int STRIPE_COUNT = 16;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final int maxAttemptsPerIp;
+    private final long windowMillis;
+    private final long blockMillis;
+    private final int stripeCapacity;
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, Window>[] stripes = new Map[STRIPE_COUNT];
+
+    public LoginFailureTracker(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${security.login-failures.max-attempts:5}") int maxAttempts,
+                               @Value("${security.login-failures.max-attempts-per-ip:100}") int maxAttemptsPerIp,
+                               @Value("${security.login-failures.window-ms:900000}") long windowMillis,
+                               @Value("${security.login-failures.block-ms:900000}") long blockMillis,
+                               @Value("${security.login-failures.max-tracked:100000}") int maxTracked) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.windowMillis = windowMillis;
+        this.blockMillis = blockMillis;
+        this.stripeCapacity = Math.max(1, maxTracked / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > stripeCapacity;
+                }
+            };
+        }
+    }
+
+    private static final class Window {
+        final long startedAt;
+        int failures;
+        long blockedUntil;
+        /** Emails an IP has failed against in this window; null for email windows. */
+        Set<String> emails;
+
+        Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    public boolean isIpBlocked(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        String key = ipKey(ip);
+        Map<String, Window> stripe = stripeFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (stripe) {
+            Window window = stripe.get(key);
+            return window != null && window.blockedUntil > now;
+        }
+    }
+
+    /** Records a failed attempt against an email that has no account; only the IP's counter moves. */
+    public void recordUnknownEmail(String email, String ip) {
+        if (ip != null) {
+            recordIpFailure(ip, email, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Records a failed attempt and, when it is the one that crosses the limit for this email, persists the
+     * lock. Returns true in that case.
+     */
+    public boolean recordFailure(String email, String ip) {
+        long now = System.currentTimeMillis();
+        if (ip != null) {
+            recordIpFailure(ip, email, now);
+        }
+        if (email == null) {
+            return false;
+        }
+
+        int failures = incrementEmail(emailKey(email), now);
+        if (failures < maxAttempts) {
+            return false;
+        }
+        OffsetDateTime blockUntil = OffsetDateTime.now().plusNanos(blockMillis * 1_000_000);
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.blockByEmail(email, failures, blockUntil));
+        log.warn("Login blocked for {} until {} after {} failed attempts", email, blockUntil, failures);
+        return true;
+    }
+
+    public void recordSuccess(String email) {
+        String key = emailKey(email);
+        Map<String, Window> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-failures.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Map<String, Window> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.values().removeIf(window -> isExpired(window, now));
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Window> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private int incrementEmail(String key, long now) {
+        Map<String, Window> stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = currentWindow(stripe, key, now);
+            int failures = ++window.failures;
+            if (failures >= maxAttempts) {
+                stripe.remove(key);
+            }
+            return failures;
+        }
+    }
+
+    private void recordIpFailure(String ip, String email, long now) {
+        String key = ipKey(ip);
+        String target = email != null ? email.toLowerCase(Locale.ROOT) : "";
+        Map<String, Window> stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = currentWindow(stripe, key, now);
+            if (window.blockedUntil > now) {
+                return;
+            }
+            if (window.emails == null) {
+                window.emails = new HashSet<>();
+            }
+            if (window.emails.add(target) && ++window.failures >= maxAttemptsPerIp) {
+                window.blockedUntil = now + blockMillis;
+                window.emails = null;
+                log.warn("Login blocked for IP {} after failures against {} emails", ip, window.failures);
+            }
+        }
+    }
+
+    /** The live window for a key, replacing an expired one at the young end of the stripe's eviction order. */
+    private Window currentWindow(Map<String, Window> stripe, String key, long now) {
+        Window window = stripe.get(key);
+        if (window == null || isExpired(window, now)) {
+            stripe.remove(key);
+            window = new Window(now);
+            stripe.put(key, window);
+        }
+        return window;
+    }
+
+    private boolean isExpired(Window window, long now) {
+        return window.startedAt + windowMillis <= now && window.blockedUntil <= now;
+    }
+
+    private Map<String, Window> stripeFor(String key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPE_COUNT)];
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+}
@@ -0,0 +1,73 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Short-lived cache of the account state JwtAuthenticationFilter needs (email, role, active flag),
+ * so authenticated requests normally skip the user lookup. Admin changes to an account call
+ * {@link #invalidate(UUID)} so locks and role changes apply on the next request.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final BoundedCache<UUID, CachedPrincipal> principals;
+    private long ttlMillis;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${security.principal-cache.ttl-ms:60000}") long ttlMillis,
+                          @Value("${security.principal-cache.max-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.principals = new BoundedCache<>(maxSize, Duration.ofMillis(ttlMillis));
+    }
+
+    public record CachedPrincipal(UUID userId, String email, String roleName, boolean active, long expiresAt) {
+    }
+
+
+    public CachedPrincipal get(UUID userId) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        CachedPrincipal loaded = userRepository.findByIdWithRole(userId)
+                .map(user -> new CachedPrincipal(
+                        user.getUserId(),
+                        user.getEmail(),
+                        user.getRole().getRoleName(),
+                        user.isActive(),
+                        now + ttlMillis))
+                .orElse(null);
+
+        if (loaded == null) {
+            principals.remove(userId);
+            return null;
+        }
+        principals.put(userId, loaded, loaded.expiresAt());
+        return loaded;
+    }
+
+
+    public void invalidate(UUID userId) {
+        principals.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principals.remove(userId);
+                }
+            });
+        }
+    }
+}
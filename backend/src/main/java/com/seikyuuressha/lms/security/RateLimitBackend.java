@@ -0,0 +1,15 @@
+package com.seikyuuressha.lms.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Where rate-limit bucket state lives. Selected with {@code rate-limit.backend} ({@code memory} or {@code jdbc}).
+ */
+public interface RateLimitBackend {
+
+    Bucket bucket(String key, BucketConfiguration configuration);
+
+    default void evictExpired() {
+    }
+}
@@ -0,0 +1,145 @@
+package com.seikyuuressha.lms.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded store of rate-limit buckets. Keys are spread over lock-striped LRU segments, each capped at
+ * its share of {@code rate-limit.max-buckets}; buckets idle longer than {@code rate-limit.idle-expiry-ms}
+ * are swept periodically. An evicted bucket simply starts full again on the client's next request.
+ */
+@Component
+public class RateLimitBucketStore {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final RateLimitBackend backend;
+    private final long idleExpiryMillis;
+    private final long graphQLCapacity;
+    private final long graphQLCostCapacity;
+    private final long generalCapacity;
+    private final long addressCapacity;
+
+    public RateLimitBucketStore(@Value("${rate-limit.max-buckets:100000}") int maxBuckets,
+                                @Value("${rate-limit.idle-expiry-ms:600000}") long idleExpiryMillis,
+                                @Value("${rate-limit.graphql.capacity:60}") long graphQLCapacity,
+                                @Value("${rate-limit.graphql.cost-capacity:600}") long graphQLCostCapacity,
+                                @Value("${rate-limit.general.capacity:200}") long generalCapacity,
+                                @Value("${rate-limit.address.capacity:2000}") long addressCapacity,
+                                RateLimitBackend backend,
+                                MeterRegistry meterRegistry) {
+        int segmentCapacity = Math.max(1, maxBuckets / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.idleExpiryMillis = idleExpiryMillis;
+        this.graphQLCapacity = graphQLCapacity;
+        this.graphQLCostCapacity = graphQLCostCapacity;
+        this.generalCapacity = generalCapacity;
+        this.addressCapacity = addressCapacity;
+        this.backend = backend;
+        Gauge.builder("ratelimit.buckets.active", this, RateLimitBucketStore::size)
+                .description("Rate-limit buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    /** Per-minute GraphQL request budget for a client; RateLimitFilter takes one token per request. */
+    public Bucket graphQLBucket(String clientKey) {
+        return resolve(clientKey + ":graphql", perMinute(graphQLCapacity));
+    }
+
+    /** Per-minute GraphQL field-cost budget for a client, charged by GraphQLCostLimiter for each operation. */
+    public Bucket graphQLCostBucket(String clientKey) {
+        return resolve(clientKey + ":graphql-cost", perMinute(graphQLCostCapacity));
+    }
+
+    public Bucket generalBucket(String clientKey) {
+        return resolve(clientKey + ":general", perMinute(generalCapacity));
+    }
+
+    /** Per-minute budget of one client address across all users behind it, checked before authentication. */
+    public Bucket addressBucket(String clientIp) {
+        return resolve("address:" + clientIp, perMinute(addressCapacity));
+    }
+
+    public Bucket resolve(String key, BucketConfiguration configuration) {
+        Segment segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null || now - entry.lastAccess > idleExpiryMillis) {
+                entry = new Entry(backend.bucket(key, configuration));
+                segment.put(key, entry);
+            }
+            entry.lastAccess = now;
+            return entry.bucket;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleExpiryMillis;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> entry.lastAccess < cutoff);
+            }
+        }
+        backend.evictExpired();
+    }
+
+    private static BucketConfiguration perMinute(long capacity) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.greedy(capacity, Duration.ofMinutes(1))))
+                .build();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static final class Entry {
+        final Bucket bucket;
+        long lastAccess;
+
+        Entry(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
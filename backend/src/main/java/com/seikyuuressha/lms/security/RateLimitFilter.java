@@ -1,39 +1,33 @@
 package com.seikyuuressha.lms.security;
 
-import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    public static final String CLIENT_KEY_ATTRIBUTE = RateLimitFilter.class.getName() + ".clientKey";
+    public static final String CLIENT_IP_ATTRIBUTE = RateLimitFilter.class.getName() + ".clientIp";
 
-    private Bucket createGraphQLBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(60, Refill.greedy(60, Duration.ofMinutes(1))))
-                .build();
-    }
-
-    private Bucket createGeneralBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(200, Refill.greedy(200, Duration.ofMinutes(1))))
-                .build();
-    }
+    private final RateLimitBucketStore bucketStore;
+    private final ClientAddressResolver clientAddressResolver;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -42,30 +36,37 @@ public class RateLimitFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
 
-        String clientIp = getClientIP(request);
+        Object resolvedIp = request.getAttribute(CLIENT_IP_ATTRIBUTE);
+        String clientIp = resolvedIp != null ? (String) resolvedIp : clientAddressResolver.resolve(request);
+        String client = getClientKey(clientIp);
         String path = request.getRequestURI();
 
         boolean isGraphQL = path.contains("/graphql");
 
-        String bucketKey = clientIp + (isGraphQL ? ":graphql" : ":general");
-        Bucket bucket = buckets.computeIfAbsent(bucketKey, 
-            k -> isGraphQL ? createGraphQLBucket() : createGeneralBucket());
+        request.setAttribute(CLIENT_KEY_ATTRIBUTE, client);
+        request.setAttribute(CLIENT_IP_ATTRIBUTE, clientIp);
+        Bucket bucket = isGraphQL ? bucketStore.graphQLBucket(client) : bucketStore.generalBucket(client);
 
         if (bucket.tryConsume(1)) {
             filterChain.doFilter(request, response);
         } else {
-            log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, path);
-            response.setStatus(429);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"errors\":[{\"message\":\"Too many requests. Please try again later.\"}]}");
+            meterRegistry.counter("ratelimit.rejections", "type", isGraphQL ? "graphql" : "general").increment();
+            log.warn("Rate limit exceeded for {} on path: {}", client, path);
+            writeTooManyRequests(response);
         }
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+    static void writeTooManyRequests(HttpServletResponse response) throws IOException {
+        response.setStatus(429);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"errors\":[{\"message\":\"Too many requests. Please try again later.\"}]}");
+    }
+
+    private String getClientKey(String clientIp) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UUID userId) {
+            return "user:" + userId;
         }
-        return request.getRemoteAddr();
+        return "ip:" + clientIp;
     }
 }
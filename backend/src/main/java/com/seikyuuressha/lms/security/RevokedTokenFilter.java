@@ -0,0 +1,198 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.repository.InvalidatedTokenRepository;
+import com.seikyuuressha.lms.repository.InvalidatedTokenRepository.RevokedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of revoked refresh-token ids kept in front of the InvalidatedTokens table, so the common
+ * "not revoked" answer never needs a query and only possible positives are confirmed in SQL.
+ * <p>
+ * Ids are grouped into one filter per expiry window ({@code security.revoked-tokens.window-ms}); a token is
+ * only checked against the window its own expiry falls in, and a window's filter is dropped once every
+ * token in it has expired. Revocations made by other instances are picked up every
+ * {@code security.revoked-tokens.sync-interval-ms} by reading rows past the last seen {@code seq}, which the
+ * database assigns, so clock skew between instances cannot hide a row. Each sync re-reads from the cursor of
+ * the sync before it, so a row whose insert committed after a later one was read is still picked up.
+ * <p>
+ * Until the startup rebuild finishes, and whenever the last successful sync is older than
+ * {@code security.revoked-tokens.max-staleness-ms}, every check answers "maybe", which falls back to the
+ * table. A refresh token revoked elsewhere and not yet synced is still caught when it is consumed, because
+ * consuming it inserts its id and that insert fails on the existing row.
+ */
+@Slf4j
+@Component
+public class RevokedTokenFilter {
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMillis;
+    private final int expectedPerWindow;
+    private final double falsePositiveRate;
+    private final long maxStalenessMillis;
+
+    private final Map<Long, BloomFilter> windows = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile long lastSyncMillis;
+    private long cursor;
+    private long previousCursor;
+
+    public RevokedTokenFilter(InvalidatedTokenRepository invalidatedTokenRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${security.revoked-tokens.window-ms:86400000}") long windowMillis,
+                              @Value("${security.revoked-tokens.expected-per-window:100000}") int expectedPerWindow,
+                              @Value("${security.revoked-tokens.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${security.revoked-tokens.max-staleness-ms:15000}") long maxStalenessMillis) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.windowMillis = windowMillis;
+        this.expectedPerWindow = expectedPerWindow;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    public boolean mightBeRevoked(String tokenId, long expiresAtMillis) {
+        if (!ready || System.currentTimeMillis() - lastSyncMillis > maxStalenessMillis) {
+            return true;
+        }
+        BloomFilter filter = windows.get(windowOf(expiresAtMillis));
+        return filter != null && filter.mightContain(tokenId);
+    }
+
+    public void add(String tokenId, OffsetDateTime expiryTime) {
+        long expiresAtMillis = expiryTime.toInstant().toEpochMilli();
+        windows.computeIfAbsent(windowOf(expiresAtMillis), w -> new BloomFilter(expectedPerWindow, falsePositiveRate))
+                .add(tokenId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        int count = load(repository -> repository.streamUnexpired(OffsetDateTime.now()));
+        previousCursor = cursor;
+        lastSyncMillis = startedAt;
+        ready = true;
+        log.info("Revoked token filter rebuilt. Tokens: {}, windows: {}", count, windows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${security.revoked-tokens.sync-interval-ms:5000}")
+    public void sync() {
+        if (!ready) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        long after = previousCursor;
+        long seen = cursor;
+        load(repository -> repository.streamInvalidatedAfter(after, OffsetDateTime.now()));
+        previousCursor = seen;
+        lastSyncMillis = startedAt;
+
+        long currentWindow = windowOf(System.currentTimeMillis());
+        windows.keySet().removeIf(window -> window < currentWindow);
+    }
+
+    int windowCount() {
+        return windows.size();
+    }
+
+    private int load(Function<InvalidatedTokenRepository, Stream<RevokedToken>> query) {
+        Integer count = transactionTemplate.execute(status -> {
+            int loaded = 0;
+            try (Stream<RevokedToken> tokens = query.apply(invalidatedTokenRepository)) {
+                for (RevokedToken token : (Iterable<RevokedToken>) tokens::iterator) {
+                    add(token.getTokenId(), token.getExpiryTime());
+                    if (token.getSeq() != null) {
+                        cursor = Math.max(cursor, token.getSeq());
+                    }
+                    loaded++;
+                }
+            }
+            return loaded;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private long windowOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, windowMillis);
+    }
+
+    /**
+     * Lock-free Bloom filter; bits are set with CAS so concurrent adds never lose each other.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.seikyuuressha.lms.security.config;
 
 import com.seikyuuressha.lms.configuration.PepperBCryptEncoder;
+import com.seikyuuressha.lms.security.AddressRateLimitFilter;
 import com.seikyuuressha.lms.security.JwtAuthenticationFilter;
+import com.seikyuuressha.lms.security.PasswordHashingExecutor;
 import com.seikyuuressha.lms.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +20,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -38,27 +41,36 @@ public class SecurityConfig {
 
         private final JwtAuthenticationFilter jwtAuthenticationFilter;
         private final RateLimitFilter rateLimitFilter;
+        private final AddressRateLimitFilter addressRateLimitFilter;
         private final UserDetailsService userDetailsService;
+        private final UserDetailsPasswordService userDetailsPasswordService;
+        private final PasswordHashingExecutor passwordHashingExecutor;
 
         private final String[] PUBLIC_ENDPOINTS = {
                         "/graphql",
                         "/graphiql/**",
                         "/actuator/**",
-                        "/api/auth/**"
+                        "/api/auth/**",
+                        "/storage/**",
+                        "/api/videos/stream/**"
         };
 
         @Value("${app.cors.allowed-origins}")
         private List<String> allowedEndpoints;
 
+        @Value("${security.bcrypt.strength:12}")
+        private int bcryptStrength;
+
         @Bean
         public PasswordEncoder passwordEncoder() {
-                return new PepperBCryptEncoder(12);
+                return new PepperBCryptEncoder(bcryptStrength, passwordHashingExecutor);
         }
 
         @Bean
         public AuthenticationProvider authenticationProvider() {
                 DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(passwordEncoder());
                 authProvider.setUserDetailsService(userDetailsService);
+                authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
                 return authProvider;
         }
 
@@ -78,8 +90,9 @@ public class SecurityConfig {
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authenticationProvider(authenticationProvider())
-                                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                .addFilterBefore(addressRateLimitFilter, JwtAuthenticationFilter.class)
+                                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                                 .headers(header -> header
                                                 .contentTypeOptions(Customizer.withDefaults())
                                                 .frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin)
@@ -111,7 +124,7 @@ public class SecurityConfig {
                 config.setAllowCredentials(true);
                 config.setAllowedOrigins(allowedEndpoints);
                 config.addAllowedHeader("*");
-                config.setExposedHeaders(List.of("Authorization"));
+                config.setExposedHeaders(List.of("Authorization", "ETag", "Content-Range", "Accept-Ranges"));
                 UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
                 source.registerCorsConfiguration("/**", config);
                 return source;
@@ -7,6 +7,7 @@ import com.seikyuuressha.lms.repository.CategoryRepository;
 import com.seikyuuressha.lms.service.admin.CourseApprovalService;
 import com.seikyuuressha.lms.service.admin.StatisticsService;
 import com.seikyuuressha.lms.service.admin.UserManagementService;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,7 @@ public class AdminService {
     private final StatisticsService statisticsService;
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CourseCatalogService courseCatalogService;
 
     public List<UserResponse> getAllUsers(Integer page, Integer limit, String roleName) {
         return userManagementService.getAllUsers(page, limit, roleName);
@@ -128,6 +130,7 @@ public class AdminService {
         }
 
         category = categoryRepository.save(category);
+        courseCatalogService.categoryChanged(categoryId);
         log.info("Category updated. CategoryId: {}", categoryId);
         return categoryMapper.toCategoryResponse(category);
     }
@@ -13,14 +13,20 @@ import com.seikyuuressha.lms.mapper.UserMapper;
 import com.seikyuuressha.lms.repository.RoleRepository;
 import com.seikyuuressha.lms.repository.UserRepository;
 import com.seikyuuressha.lms.security.JwtUtil;
+import com.seikyuuressha.lms.security.LoginFailureTracker;
+import com.seikyuuressha.lms.security.RateLimitFilter;
+import com.seikyuuressha.lms.security.RevokedTokenFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -41,6 +47,8 @@ public class AuthService {
     private final UserMapper userMapper;
     private final PasswordResetService passwordResetService;
     private final com.seikyuuressha.lms.repository.InvalidatedTokenRepository invalidatedTokenRepository;
+    private final RevokedTokenFilter revokedTokenFilter;
+    private final LoginFailureTracker loginFailureTracker;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
@@ -80,8 +88,17 @@ public class AuthService {
 
     @Transactional
     public AuthResponse login(LoginRequest request) {
-        Users user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
+        String clientIp = currentClientIp();
+        if (loginFailureTracker.isIpBlocked(clientIp)) {
+            throw new RuntimeException("Too many failed login attempts. Please try again later.");
+        }
+
+        Optional<Users> found = userRepository.findByEmail(request.getEmail());
+        if (found.isEmpty()) {
+            loginFailureTracker.recordUnknownEmail(request.getEmail(), clientIp);
+            throw new RuntimeException("Invalid credentials");
+        }
+        Users user = found.get();
 
         if (user.getBlockUntil() != null && user.getBlockUntil().isAfter(OffsetDateTime.now())) {
             long minutesRemaining = java.time.Duration.between(OffsetDateTime.now(), user.getBlockUntil()).toMinutes();
@@ -96,6 +113,7 @@ public class AuthService {
                     )
             );
 
+            loginFailureTracker.recordSuccess(request.getEmail());
             if (user.getFailedLoginAttempts() > 0) {
                 user.setFailedLoginAttempts(0);
                 user.setBlockUntil(null);
@@ -103,13 +121,7 @@ public class AuthService {
             }
 
         } catch (org.springframework.security.authentication.BadCredentialsException e) {
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-
-            if (user.getFailedLoginAttempts() >= 5) {
-                user.setBlockUntil(OffsetDateTime.now().plusMinutes(15));
-            }
-            userRepository.save(user);
-
+            loginFailureTracker.recordFailure(request.getEmail(), clientIp);
             throw new RuntimeException("Invalid credentials");
         }
 
@@ -201,11 +213,14 @@ public class AuthService {
     @Transactional
     public AuthResponse refreshAccessToken(String refreshToken) {
         try {
-            String tokenId = jwtUtil.extractTokenId(refreshToken);
-            String email = jwtUtil.extractUsername(refreshToken);
-            Date expiration = jwtUtil.extractExpiration(refreshToken);
-
-            if (tokenId != null && invalidatedTokenRepository.existsByTokenId(tokenId)) {
+            JwtUtil.TokenClaims claims = jwtUtil.parseToken(refreshToken);
+            String tokenId = claims.tokenId();
+            String email = claims.subject();
+            Date expiration = claims.expiration();
+
+            if (tokenId != null
+                    && revokedTokenFilter.mightBeRevoked(tokenId, expiration.getTime())
+                    && invalidatedTokenRepository.existsByTokenId(tokenId)) {
                 throw new RuntimeException("Refresh token has been revoked");
             }
 
@@ -222,8 +237,14 @@ public class AuthService {
                                 .tokenId(tokenId)
                                 .expiryTime(OffsetDateTime.ofInstant(expiration.toInstant(), ZoneOffset.UTC))
                                 .invalidatedAt(OffsetDateTime.now())
+                                .inserting(true)
                                 .build();
-                invalidatedTokenRepository.save(invalidated);
+                try {
+                    invalidatedTokenRepository.saveAndFlush(invalidated);
+                } catch (DataIntegrityViolationException e) {
+                    throw new RuntimeException("Refresh token has been revoked");
+                }
+                revokedTokenFilter.add(tokenId, invalidated.getExpiryTime());
             }
 
             String newAccessToken = jwtUtil.generateToken(user);
@@ -244,8 +265,9 @@ public class AuthService {
     @Transactional
     public boolean logout(String refreshToken) {
         try {
-            String tokenId = jwtUtil.extractTokenId(refreshToken);
-            Date expiration = jwtUtil.extractExpiration(refreshToken);
+            JwtUtil.TokenClaims claims = jwtUtil.parseToken(refreshToken);
+            String tokenId = claims.tokenId();
+            Date expiration = claims.expiration();
 
             if (tokenId != null) {
                 com.seikyuuressha.lms.entity.InvalidatedToken invalidated =
@@ -255,6 +277,7 @@ public class AuthService {
                                 .invalidatedAt(OffsetDateTime.now())
                                 .build();
                 invalidatedTokenRepository.save(invalidated);
+                revokedTokenFilter.add(tokenId, invalidated.getExpiryTime());
             }
             return true;
         } catch (Exception e) {
@@ -263,6 +286,14 @@ public class AuthService {
     }
 
     
+    private String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (String) attributes.getAttribute(RateLimitFilter.CLIENT_IP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
     private GoogleIdTokenVerifier getGoogleVerifier() {
         if (googleVerifier == null) {
             synchronized (this) {
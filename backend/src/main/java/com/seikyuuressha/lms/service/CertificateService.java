@@ -1,43 +1,20 @@
 package com.seikyuuressha.lms.service;
 
-import com.itextpdf.io.font.constants.StandardFonts;
-import com.itextpdf.kernel.colors.DeviceRgb;
-import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
-import com.itextpdf.kernel.geom.PageSize;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.borders.Border;
-import com.itextpdf.layout.element.Div;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.properties.HorizontalAlignment;
-import com.itextpdf.layout.properties.TextAlignment;
-import com.itextpdf.layout.properties.UnitValue;
-import com.itextpdf.layout.element.Cell;
-import com.itextpdf.layout.element.Table;
 import com.seikyuuressha.lms.dto.response.CertificateResponse;
 import com.seikyuuressha.lms.entity.*;
 import com.seikyuuressha.lms.mapper.CertificateMapper;
 import com.seikyuuressha.lms.repository.*;
+import com.seikyuuressha.lms.service.certificate.CertificateJobRunner;
+import com.seikyuuressha.lms.service.common.CourseCompletionCalculator;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
-import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -52,14 +29,11 @@ public class CertificateService {
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final ProgressRepository progressRepository;
-    private final LessonRepository lessonRepository;
     private final CertificateMapper certificateMapper;
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
+    private final PresignedUrlCache presignedUrlCache;
     private final SecurityContextService securityContextService;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private final CourseCompletionCalculator courseCompletionCalculator;
+    private final CertificateJobRunner certificateJobRunner;
 
     @Transactional
     public CertificateResponse generateCertificate(UUID courseId) {
@@ -73,27 +47,16 @@ public class CertificateService {
         Enrollment enrollment = enrollmentRepository.findByUserAndCourse(user, course)
                 .orElseThrow(() -> new RuntimeException("Not enrolled in this course"));
 
-        List<Lesson> allLessons = lessonRepository.findByCourseId(courseId);
-        int totalLessons = allLessons.size();
-        
-        long completedLessons = allLessons.stream()
-                .filter(lesson -> {
-                    Progress progress = progressRepository
-                            .findByUser_UserIdAndLesson_LessonId(userId, lesson.getLessonId())
-                            .orElse(null);
-                    return progress != null && progress.getProgressPercent() >= 80;
-                })
-                .count();
-
-        double progressPercent = totalLessons > 0 
-                ? (double) completedLessons / totalLessons * 100 
-                : 0.0;
+        double progressPercent = courseCompletionCalculator
+                .liveCompletion(userId, courseId)
+                .getProgressPercent();
 
         if (progressPercent < 90.0) {
             throw new RuntimeException("Course not completed yet. Required: 90% progress. Current: " + Math.round(progressPercent) + "%");
         }
 
-        if (certificateRepository.findByUserAndCourse(user, course).isPresent()) {
+        Certificate existing = certificateRepository.findByUserAndCourse(user, course).orElse(null);
+        if (existing != null && existing.getStatus() != Certificate.Status.FAILED) {
             throw new RuntimeException("Certificate already generated for this course");
         }
 
@@ -104,42 +67,27 @@ public class CertificateService {
                         .average()
                         .orElse(0.0);
 
-        String certificateCode = generateCertificateCode();
-
-        String s3Key = "certificates/" + certificateCode + ".pdf";
-        
-        try {
-            byte[] pdfBytes = createCertificatePDF(user, course, certificateCode, finalScore);
-            
-            s3Client.putObject(
-                    PutObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(s3Key)
-                            .contentType("application/pdf")
-                            .build(),
-                    RequestBody.fromBytes(pdfBytes)
-            );
-            
-            log.info("Certificate PDF uploaded to S3: {}", s3Key);
-        } catch (Exception e) {
-            log.error("Failed to generate/upload certificate PDF", e);
-            throw new RuntimeException("Failed to generate certificate PDF: " + e.getMessage());
+        Certificate certificate;
+        if (existing != null) {
+            certificate = existing;
+            certificate.setStatus(Certificate.Status.PENDING);
+            certificate.setFinalScore(finalScore);
+            certificate.setIssuedAt(OffsetDateTime.now());
+        } else {
+            certificate = Certificate.builder()
+                    .user(user)
+                    .course(course)
+                    .certificateCode(generateCertificateCode())
+                    .status(Certificate.Status.PENDING)
+                    .finalScore(finalScore)
+                    .isValid(true)
+                    .build();
         }
 
-        Certificate certificate = Certificate.builder()
-                .user(user)
-                .course(course)
-                .certificateCode(certificateCode)
-                .pdfUrl(s3Key)
-                .finalScore(finalScore)
-                .isValid(true)
-                .build();
-
         certificate = certificateRepository.save(certificate);
-        
-        CertificateResponse response = certificateMapper.toCertificateResponse(certificate);
-        response.setPdfUrl(generatePresignedUrl(s3Key));
-        return response;
+        certificateJobRunner.submitAfterCommit(certificate.getCertificateId());
+
+        return certificateMapper.toCertificateResponse(certificate);
     }
 
     @Transactional(readOnly = true)
@@ -152,7 +100,7 @@ public class CertificateService {
         return certificates.stream()
                 .map(cert -> {
                     CertificateResponse response = certificateMapper.toCertificateResponse(cert);
-                    if (cert.getPdfUrl() != null) {
+                    if (cert.getStatus() == Certificate.Status.READY && cert.getPdfUrl() != null) {
                         response.setPdfUrl(generatePresignedUrl(cert.getPdfUrl()));
                     }
                     return response;
@@ -177,204 +125,14 @@ public class CertificateService {
         }
 
         CertificateResponse response = certificateMapper.toCertificateResponse(certificate);
-        if (certificate.getPdfUrl() != null) {
+        if (certificate.getStatus() == Certificate.Status.READY && certificate.getPdfUrl() != null) {
             response.setPdfUrl(generatePresignedUrl(certificate.getPdfUrl()));
         }
         return response;
     }
 
     private String generatePresignedUrl(String s3Key) {
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofHours(1))
-                .getObjectRequest(GetObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Key)
-                        .build())
-                .build();
-
-        return s3Presigner.presignGetObject(presignRequest).url().toString();
-    }
-
-    private byte[] createCertificatePDF(Users user, Course course,
-                                        String certificateCode, Double finalScore) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdfDoc = new PdfDocument(writer);
-
-        pdfDoc.setDefaultPageSize(PageSize.A4.rotate());
-        Document document = new Document(pdfDoc);
-        document.setMargins(0, 0, 0, 0);
-
-        float width = pdfDoc.getDefaultPageSize().getWidth();
-        float height = pdfDoc.getDefaultPageSize().getHeight();
-
-        DeviceRgb bgDark = new DeviceRgb(20, 10, 40);
-        DeviceRgb bgLight = new DeviceRgb(45, 27, 105);
-        DeviceRgb goldColor = new DeviceRgb(255, 215, 0);
-        DeviceRgb whiteColor = new DeviceRgb(255, 255, 255);
-        DeviceRgb grayColor = new DeviceRgb(200, 200, 200);
-
-        PdfFont titleFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-        PdfFont textFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-        PdfFont nameFont = PdfFontFactory.createFont(StandardFonts.TIMES_BOLDITALIC);
-
-        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
-
-        canvas.saveState();
-        canvas.setFillColor(bgDark);
-        canvas.rectangle(0, 0, width, height);
-        canvas.fill();
-
-        canvas.setFillColor(bgLight);
-        canvas.moveTo(0, height);
-        canvas.lineTo(width / 2, height);
-        canvas.lineTo(0, 0);
-        canvas.fill();
-        canvas.restoreState();
-
-        float margin = 30;
-        canvas.saveState();
-        canvas.setStrokeColor(goldColor);
-        canvas.setLineWidth(2);
-        canvas.roundRectangle(margin, margin, width - (margin * 2), height - (margin * 2), 10);
-        canvas.stroke();
-
-        canvas.setLineWidth(0.5f);
-        canvas.roundRectangle(margin + 5, margin + 5, width - (margin * 2) - 10, height - (margin * 2) - 10, 8);
-        canvas.stroke();
-        canvas.restoreState();
-
-        drawGoldBadge(canvas, height - 120, goldColor, bgDark);
-
-        Div contentDiv = new Div()
-                .setMargins(40, 60, 40, 60)
-                .setWidth(UnitValue.createPercentValue(100));
-
-        Paragraph brandName = new Paragraph("LMS PLATFORM")
-                .setFont(titleFont).setFontSize(12).setFontColor(grayColor)
-                .setTextAlignment(TextAlignment.CENTER).setCharacterSpacing(2);
-        contentDiv.add(brandName);
-
-        Paragraph certTitle = new Paragraph("CERTIFICATE")
-                .setFont(PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD)).setFontSize(50).setFontColor(goldColor)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(20);
-        contentDiv.add(certTitle);
-
-        Paragraph subTitle = new Paragraph("OF COMPLETION")
-                .setFont(textFont).setFontSize(18).setFontColor(whiteColor)
-                .setTextAlignment(TextAlignment.CENTER).setCharacterSpacing(5)
-                .setMarginTop(-10);
-        contentDiv.add(subTitle);
-
-        contentDiv.add(new Paragraph(" ")
-                .setBorderBottom(new com.itextpdf.layout.borders.SolidBorder(goldColor, 1))
-                .setWidth(200)
-                .setHorizontalAlignment(HorizontalAlignment.CENTER)
-                .setMarginTop(10)
-                .setMarginBottom(10));
-
-        Paragraph introText = new Paragraph("This is to certify that")
-                .setFont(PdfFontFactory.createFont(StandardFonts.HELVETICA_OBLIQUE)).setFontSize(14).setFontColor(grayColor)
-                .setTextAlignment(TextAlignment.CENTER);
-        contentDiv.add(introText);
-
-        Paragraph studentNamePara = new Paragraph(user.getFullName().toUpperCase())
-                .setFont(nameFont).setFontSize(32).setFontColor(whiteColor)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(10).setMarginBottom(10);
-        contentDiv.add(studentNamePara);
-
-        Paragraph bodyText = new Paragraph("Has successfully completed the curriculum and requirements for the course:")
-                .setFont(textFont).setFontSize(14).setFontColor(grayColor)
-                .setTextAlignment(TextAlignment.CENTER);
-        contentDiv.add(bodyText);
-
-        Paragraph courseTitlePara = new Paragraph(course.getTitle())
-                .setFont(titleFont).setFontSize(24).setFontColor(goldColor)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(5);
-        contentDiv.add(courseTitlePara);
-
-        Paragraph scorePara = new Paragraph(String.format("Final Grade: %.1f/100", finalScore))
-                .setFont(textFont).setFontSize(12).setFontColor(grayColor)
-                .setTextAlignment(TextAlignment.CENTER).setMarginTop(5);
-        contentDiv.add(scorePara);
-
-        Table footerTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}));
-        footerTable.setWidth(UnitValue.createPercentValue(80));
-        footerTable.setHorizontalAlignment(HorizontalAlignment.CENTER);
-        footerTable.setMarginTop(40);
-
-        String dateStr = OffsetDateTime.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"));
-        Cell dateCell = new Cell().add(new Paragraph(dateStr).setFont(titleFont).setFontSize(14).setFontColor(whiteColor).setTextAlignment(TextAlignment.CENTER))
-                .add(new Paragraph("______________________").setFontColor(goldColor).setTextAlignment(TextAlignment.CENTER))
-                .add(new Paragraph("Date Issued").setFont(textFont).setFontSize(10).setFontColor(grayColor).setTextAlignment(TextAlignment.CENTER))
-                .setBorder(Border.NO_BORDER);
-
-        Cell signCell = new Cell().add(new Paragraph("Do Hieu").setFont(PdfFontFactory.createFont(StandardFonts.TIMES_BOLDITALIC)).setFontSize(18).setFontColor(whiteColor).setTextAlignment(TextAlignment.CENTER))
-                .add(new Paragraph("______________________").setFontColor(goldColor).setTextAlignment(TextAlignment.CENTER))
-                .add(new Paragraph("Instructor Signature").setFont(textFont).setFontSize(10).setFontColor(grayColor).setTextAlignment(TextAlignment.CENTER))
-                .setBorder(Border.NO_BORDER);
-
-        footerTable.addCell(dateCell);
-        footerTable.addCell(signCell);
-        contentDiv.add(footerTable);
-
-        Paragraph certIdPara = new Paragraph("Certificate ID: " + certificateCode)
-                .setFont(textFont).setFontSize(8).setFontColor(new DeviceRgb(100, 100, 100));
-        contentDiv.add(certIdPara);
-
-        document.add(contentDiv);
-        document.close();
-
-        return baos.toByteArray();
-    }
-
-    private void drawGoldBadge(PdfCanvas canvas, float y, DeviceRgb gold, DeviceRgb dark) {
-        canvas.saveState();
-
-        canvas.setFillColor(gold);
-        canvas.moveTo((float) 100 - 15, y - 40);
-        canvas.lineTo((float) 100 - 25, y - 80);
-        canvas.lineTo((float) 100 - 5, y - 70);
-        canvas.lineTo((float) 100 + 15, y - 80);
-        canvas.lineTo((float) 100 + 5, y - 40);
-        canvas.fill();
-
-        float radius = 40;
-        int rays = 24;
-        double step = 2 * Math.PI / rays;
-        canvas.setFillColor(gold);
-
-        double startAngle = 0;
-        canvas.moveTo((float) 100 + Math.cos(startAngle) * (radius + 5), y + Math.sin(startAngle) * (radius + 5));
-
-        for (int i = 0; i < rays; i++) {
-            double angle = i * step;
-            double nextAngle = (i + 1) * step;
-            double midAngle = (angle + nextAngle) / 2;
-
-            canvas.lineTo((float) 100 + Math.cos(midAngle) * (radius + 8), y + Math.sin(midAngle) * (radius + 8));
-            canvas.lineTo((float) 100 + Math.cos(nextAngle) * (radius), y + Math.sin(nextAngle) * (radius));
-        }
-        canvas.fill();
-
-        canvas.setFillColor(gold);
-        canvas.circle((float) 100, y, radius);
-        canvas.fill();
-
-        canvas.setStrokeColor(dark);
-        canvas.setLineWidth(1);
-        canvas.circle((float) 100, y, radius - 5);
-        canvas.stroke();
-
-        canvas.setFillColor(dark);
-        canvas.rectangle((float) 100 - 12, y - 10, 24, 20);
-        canvas.fill();
-
-        canvas.restoreState();
+        return presignedUrlCache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, s3Key, Duration.ofHours(1));
     }
 
     private String generateCertificateCode() {
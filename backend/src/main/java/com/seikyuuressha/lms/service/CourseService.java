@@ -1,9 +1,12 @@
 package com.seikyuuressha.lms.service;
 
+import com.seikyuuressha.lms.dto.request.CourseCatalogFilter;
+import com.seikyuuressha.lms.dto.request.CourseSort;
 import com.seikyuuressha.lms.dto.response.*;
 import com.seikyuuressha.lms.entity.*;
 import com.seikyuuressha.lms.repository.CourseRepository;
-import com.seikyuuressha.lms.repository.CourseInstructorRepository;
+import com.seikyuuressha.lms.repository.ModuleRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import com.seikyuuressha.lms.service.common.CourseResponseMapper;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
 import lombok.RequiredArgsConstructor;
@@ -11,32 +14,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
 
     private final CourseRepository courseRepository;
-    private final CourseInstructorRepository courseInstructorRepository;
+    private final ModuleRepository moduleRepository;
     private final CourseResponseMapper courseResponseMapper;
     private final SecurityContextService securityContextService;
+    private final CourseCatalogService courseCatalogService;
 
-    @Transactional(readOnly = true)
     public List<CourseResponse> getAllPublishedCourses(UUID categoryId) {
-        List<Course> courses = categoryId == null 
-                ? courseRepository.findByIsPublishedTrue()
-                : courseRepository.findPublishedCourses(categoryId);
+        return courseCatalogService.getPublishedCourses(categoryId);
+    }
+
+    public CourseConnection getCourseCatalog(Integer first, String after, CourseSort sort, CourseCatalogFilter filter) {
+        return courseCatalogService.getCatalogPage(first, after, sort, filter);
+    }
 
-        return courses.stream()
-                .map(courseResponseMapper::toCourseResponseWithoutModules)
-                .collect(Collectors.toList());
+    public List<CourseResponse> searchCourses(String query, Integer first) {
+        return courseCatalogService.searchCourses(query, first);
     }
 
     @Transactional(readOnly = true)
     public CourseResponse getCourseById(UUID courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+        Course course = loadCourseTree(courseRepository.findWithModulesById(courseId));
 
         checkCourseAccess(course);
 
@@ -48,8 +51,7 @@ public class CourseService {
 
     @Transactional(readOnly = true)
     public CourseResponse getCourseBySlug(String slug) {
-        Course course = courseRepository.findBySlug(slug)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+        Course course = loadCourseTree(courseRepository.findWithModulesBySlug(slug));
 
         checkCourseAccess(course);
 
@@ -59,6 +61,29 @@ public class CourseService {
         );
     }
 
+    /**
+     * Course trees for courses the user is enrolled in, loaded with a fixed number of statements however many
+     * there are. Enrollment already grants access, so unpublished courses are included.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, CourseResponse> getEnrolledCourses(UUID userId, Collection<UUID> courseIds) {
+        if (courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Course> courses = courseRepository.findWithModulesByIdIn(courseIds);
+        moduleRepository.fetchLessonsByCourseIds(courseIds);
+        courseRepository.fetchCourseInstructorsByIdIn(courseIds);
+        return courseResponseMapper.toCourseResponsesForEnrolledStudent(courses, userId);
+    }
+
+    
+    private Course loadCourseTree(Optional<Course> root) {
+        Course course = root.orElseThrow(() -> new RuntimeException("Course not found"));
+        moduleRepository.fetchLessonsByCourseId(course.getCourseId());
+        courseRepository.fetchCourseInstructors(course.getCourseId());
+        return course;
+    }
+
     
     private void checkCourseAccess(Course course) {
         if (!course.isPublished()) {
@@ -73,9 +98,8 @@ public class CourseService {
             
             boolean isOwner = course.getInstructor().getUserId().equals(currentUserId);
             
-            boolean isCoInstructor = courseInstructorRepository
-                    .findByCourseIdAndUserId(course.getCourseId(), currentUserId)
-                    .isPresent();
+            boolean isCoInstructor = course.getCourseInstructors().stream()
+                    .anyMatch(ci -> ci.getUserId().equals(currentUserId));
             
             if (!isOwner && !isCoInstructor) {
                 throw new RuntimeException("Course is not published");
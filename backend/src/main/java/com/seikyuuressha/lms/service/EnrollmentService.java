@@ -4,22 +4,20 @@ import com.seikyuuressha.lms.dto.response.CourseResponse;
 import com.seikyuuressha.lms.dto.response.EnrollmentResponse;
 import com.seikyuuressha.lms.entity.Course;
 import com.seikyuuressha.lms.entity.Enrollment;
-import com.seikyuuressha.lms.entity.Lesson;
 import com.seikyuuressha.lms.entity.Payment;
-import com.seikyuuressha.lms.entity.Progress;
 import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.repository.CourseRepository;
 import com.seikyuuressha.lms.repository.EnrollmentRepository;
-import com.seikyuuressha.lms.repository.LessonRepository;
 import com.seikyuuressha.lms.repository.PaymentRepository;
-import com.seikyuuressha.lms.repository.ProgressRepository;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,8 +29,6 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final CourseService courseService;
-    private final ProgressRepository progressRepository;
-    private final LessonRepository lessonRepository;
     private final PaymentRepository paymentRepository;
     private final SecurityContextService securityContextService;
 
@@ -57,10 +53,11 @@ public class EnrollmentService {
                 .course(course)
                 .enrolledAt(OffsetDateTime.now())
                 .progressPercent(0.0)
+                .completedLessons(0)
                 .build();
 
         enrollmentRepository.save(enrollment);
-        return mapToEnrollmentResponse(enrollment);
+        return mapToEnrollmentResponse(enrollment, courseService.getCourseById(courseId));
     }
 
     @Transactional(readOnly = true)
@@ -68,14 +65,27 @@ public class EnrollmentService {
         UUID userId = securityContextService.getCurrentUserId();
 
         List<Enrollment> enrollments = enrollmentRepository.findByUser_UserId(userId);
+        if (enrollments.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        return enrollments.stream()
+        Map<UUID, Payment> payments = paymentRepository.findByEnrollment_EnrollmentIdIn(enrollments.stream()
+                        .map(Enrollment::getEnrollmentId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(p -> p.getEnrollment().getEnrollmentId(), p -> p, (a, b) -> b));
+        List<Enrollment> paid = enrollments.stream()
                 .filter(enrollment -> {
-                    Optional<Payment> payment = paymentRepository
-                            .findByEnrollment_EnrollmentId(enrollment.getEnrollmentId());
-                    return payment.isEmpty() || "SUCCESS".equals(payment.get().getPaymentStatus());
+                    Payment payment = payments.get(enrollment.getEnrollmentId());
+                    return payment == null || "SUCCESS".equals(payment.getPaymentStatus());
                 })
-                .map(this::mapToEnrollmentResponse)
+                .collect(Collectors.toList());
+
+        Map<UUID, CourseResponse> courses = courseService.getEnrolledCourses(userId, paid.stream()
+                .map(enrollment -> enrollment.getCourse().getCourseId())
+                .collect(Collectors.toSet()));
+        return paid.stream()
+                .map(enrollment -> mapToEnrollmentResponse(enrollment,
+                        courses.get(enrollment.getCourse().getCourseId())))
                 .collect(Collectors.toList());
     }
 
@@ -102,37 +112,12 @@ public class EnrollmentService {
         return paymentOpt.isEmpty() || "SUCCESS".equals(paymentOpt.get().getPaymentStatus());
     }
 
-    private EnrollmentResponse mapToEnrollmentResponse(Enrollment enrollment) {
-        CourseResponse courseResponse =
-                courseService.getCourseById(enrollment.getCourse().getCourseId());
-
-        UUID courseId = enrollment.getCourse().getCourseId();
-        UUID userId = enrollment.getUser().getUserId();
-        
-        List<Lesson> allLessons = lessonRepository.findByCourseId(courseId);
-        int totalLessons = allLessons.size();
-        
-        long completedLessons = 0;
-        if (totalLessons > 0) {
-            completedLessons = allLessons.stream()
-                .filter(lesson -> {
-                    Progress progress = progressRepository
-                        .findByUser_UserIdAndLesson_LessonId(userId, lesson.getLessonId())
-                        .orElse(null);
-                    return progress != null && progress.getProgressPercent() >= 80;
-                })
-                .count();
-        }
-        
-        double calculatedProgress = totalLessons > 0 
-            ? (double) completedLessons / totalLessons * 100 
-            : 0.0;
-
+    private EnrollmentResponse mapToEnrollmentResponse(Enrollment enrollment, CourseResponse courseResponse) {
         return EnrollmentResponse.builder()
                 .enrollmentId(enrollment.getEnrollmentId())
                 .course(courseResponse)
                 .enrolledAt(enrollment.getEnrolledAt())
-                .progressPercent(calculatedProgress)
+                .progressPercent(enrollment.getProgressPercent())
                 .build();
     }
 }
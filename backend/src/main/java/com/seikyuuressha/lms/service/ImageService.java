@@ -3,14 +3,11 @@ package com.seikyuuressha.lms.service;
 import com.seikyuuressha.lms.dto.response.PresignedUrlResponse;
 import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.time.Duration;
 import java.util.UUID;
@@ -21,17 +18,11 @@ import java.util.UUID;
 public class ImageService {
 
     private final SecurityContextService securityContextService;
-    private final S3Presigner s3Presigner;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private final ObjectStorage objectStorage;
 
     @Value("${aws.s3.presigned-url-expiration:3600}")
     private Long presignedUrlExpiration;
 
-    @Value("${aws.s3.region}")
-    private String region;
-
     
     public PresignedUrlResponse generateImageUploadUrl(String fileName, String contentType) {
         Users currentUser = securityContextService.getCurrentUser();
@@ -42,25 +33,12 @@ public class ImageService {
                 UUID.randomUUID(), 
                 fileExtension);
 
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(s3Key)
-                .build();
-
-        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofSeconds(presignedUrlExpiration))
-                .putObjectRequest(putObjectRequest)
-                .build();
-
-        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
-
-        String publicUrl = String.format("https://%s.s3.%s.amazonaws.com/%s", 
-                bucketName, region, s3Key);
+        String uploadUrl = objectStorage.presignPut(s3Key, Duration.ofSeconds(presignedUrlExpiration), null);
 
         return PresignedUrlResponse.builder()
-                .uploadUrl(presignedRequest.url().toString())
+                .uploadUrl(uploadUrl)
                 .s3Key(s3Key)
-                .publicUrl(publicUrl)
+                .publicUrl(objectStorage.publicUrl(s3Key))
                 .expiresIn(presignedUrlExpiration)
                 .build();
     }
@@ -6,8 +6,12 @@ import com.seikyuuressha.lms.entity.*;
 import com.seikyuuressha.lms.entity.Module;
 import com.seikyuuressha.lms.mapper.UserMapper;
 import com.seikyuuressha.lms.repository.*;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import com.seikyuuressha.lms.service.common.CourseResponseMapper;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.video.MultipartUploadManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,6 +35,13 @@ public class InstructorService {
     private final SecurityContextService securityContextService;
     private final CourseResponseMapper courseResponseMapper;
     private final UserMapper userMapper;
+    private final ProgressIngestionBuffer progressIngestionBuffer;
+    private final CourseCatalogService courseCatalogService;
+    private final VideoRepository videoRepository;
+    private final LessonResourceRepository lessonResourceRepository;
+    private final CertificateRepository certificateRepository;
+    private final ObjectDeletionQueue objectDeletionQueue;
+    private final MultipartUploadManager multipartUploadManager;
 
     
     @Transactional
@@ -96,6 +107,7 @@ public class InstructorService {
 
         course.setUpdatedAt(OffsetDateTime.now());
         course = courseRepository.save(course);
+        courseCatalogService.courseChanged(courseId);
 
         return courseResponseMapper.toCourseResponseForInstructor(course);
     }
@@ -109,7 +121,14 @@ public class InstructorService {
             throw new RuntimeException("Cannot delete course with existing enrollments");
         }
 
+        videoRepository.findMultipartUploadsByCourseId(courseId).forEach(multipartUploadManager::abortForDeletion);
+        List<String> objectKeys = new ArrayList<>(videoRepository.findS3KeysByCourseId(courseId));
+        objectKeys.addAll(lessonResourceRepository.findS3KeysByCourseId(courseId));
+        objectKeys.addAll(certificateRepository.findPdfKeysByCourseId(courseId));
+        objectDeletionQueue.enqueue(objectKeys);
+
         courseRepository.delete(course);
+        courseCatalogService.courseChanged(courseId);
         log.info("Course deleted. CourseId: {}", courseId);
         return true;
     }
@@ -134,6 +153,7 @@ public class InstructorService {
         course.setUpdatedAt(OffsetDateTime.now());
         course = courseRepository.save(course);
 
+        courseCatalogService.courseChanged(courseId);
         log.info("Course published. CourseId: {}", courseId);
         return courseResponseMapper.toCourseResponseForInstructor(course);
     }
@@ -147,6 +167,7 @@ public class InstructorService {
         course.setUpdatedAt(OffsetDateTime.now());
         course = courseRepository.save(course);
 
+        courseCatalogService.courseChanged(courseId);
         log.info("Course unpublished. CourseId: {}", courseId);
         return courseResponseMapper.toCourseResponseForInstructor(course);
     }
@@ -218,6 +239,7 @@ public class InstructorService {
                 .build();
 
         courseInstructorRepository.save(courseInstructor);
+        courseCatalogService.courseChanged(courseId);
         log.info("Co-instructor added. CourseId: {}, CoInstructor: {}", courseId, email);
 
         return mapToCoInstructorResponse(courseInstructor, coInstructor);
@@ -241,6 +263,7 @@ public class InstructorService {
                 .orElseThrow(() -> new RuntimeException("Giảng viên không tồn tại trong khóa học này"));
 
         courseInstructorRepository.delete(ci);
+        courseCatalogService.courseChanged(courseId);
         log.info("Co-instructor removed. CourseId: {}, UserId: {}", courseId, userId);
 
         return true;
@@ -265,6 +288,7 @@ public class InstructorService {
         Enrollment enrollment = enrollmentRepository.findByUser_UserIdAndCourse_CourseId(userId, courseId)
                 .orElseThrow(() -> new RuntimeException("Student is not enrolled in this course"));
         
+        progressIngestionBuffer.discardUserCourse(userId, courseId);
         progressRepository.deleteByUser_UserIdAndLesson_Module_Course_CourseId(userId, courseId);
         enrollmentRepository.delete(enrollment);
         
@@ -5,20 +5,14 @@ import com.seikyuuressha.lms.entity.LessonResource;
 import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.repository.LessonRepository;
 import com.seikyuuressha.lms.repository.LessonResourceRepository;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.time.Duration;
 import java.util.List;
@@ -33,12 +27,10 @@ public class LessonResourceService {
 
     private final LessonResourceRepository lessonResourceRepository;
     private final LessonRepository lessonRepository;
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
+    private final ObjectStorage objectStorage;
     private final SecurityContextService securityContextService;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ObjectDeletionQueue objectDeletionQueue;
 
     @Transactional
     public Map<String, String> generateUploadUrl(UUID lessonId, String fileName, String contentType) {
@@ -52,21 +44,10 @@ public class LessonResourceService {
 
         String s3Key = "resources/" + lessonId + "/" + UUID.randomUUID() + "_" + fileName;
 
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(s3Key)
-                .contentType(contentType)
-                .build();
-
-        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(15))
-                .putObjectRequest(putObjectRequest)
-                .build();
-
-        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+        String uploadUrl = objectStorage.presignPut(s3Key, Duration.ofMinutes(15), contentType);
         
         return Map.of(
-                "uploadUrl", presignedRequest.url().toString(),
+                "uploadUrl", uploadUrl,
                 "s3Key", s3Key
         );
     }
@@ -121,15 +102,7 @@ public class LessonResourceService {
             throw new RuntimeException("Only the instructor can delete this resource");
         }
 
-        try {
-            s3Client.deleteObject(DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(resource.getS3Key())
-                    .build());
-        } catch (Exception e) {
-            log.warn("Failed to delete S3 object: {}", e.getMessage());
-        }
-
+        objectDeletionQueue.enqueue(resource.getS3Key());
         lessonResourceRepository.delete(resource);
         log.info("Resource deleted: {}", resourceId);
         return true;
@@ -138,15 +111,7 @@ public class LessonResourceService {
     private String generateDownloadUrl(String s3Key) {
         if (s3Key == null) return null;
         
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofHours(1))
-                .getObjectRequest(GetObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Key)
-                        .build())
-                .build();
-
-        return s3Presigner.presignGetObject(presignRequest).url().toString();
+        return presignedUrlCache.getObjectUrl(PresignedUrlCache.SCOPE_LESSON_RESOURCE, s3Key, Duration.ofHours(1));
     }
 
 }
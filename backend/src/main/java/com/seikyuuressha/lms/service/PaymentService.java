@@ -78,6 +78,7 @@ public class PaymentService {
                     .user(user)
                     .course(course)
                     .progressPercent(0.0)
+                    .completedLessons(0)
                     .build();
             enrollment = enrollmentRepository.save(enrollment);
         }
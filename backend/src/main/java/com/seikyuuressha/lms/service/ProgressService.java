@@ -4,20 +4,21 @@ import com.seikyuuressha.lms.dto.request.UpdateProgressRequest;
 import com.seikyuuressha.lms.dto.response.ProgressResponse;
 import com.seikyuuressha.lms.entity.Lesson;
 import com.seikyuuressha.lms.entity.Progress;
-import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.repository.EnrollmentRepository;
 import com.seikyuuressha.lms.repository.LessonRepository;
 import com.seikyuuressha.lms.repository.ProgressRepository;
 import com.seikyuuressha.lms.mapper.ProgressMapper;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,40 +29,42 @@ public class ProgressService {
     private final EnrollmentRepository enrollmentRepository;
     private final ProgressMapper progressMapper;
     private final SecurityContextService securityContextService;
+    private final ProgressIngestionBuffer progressIngestionBuffer;
 
-    @Transactional
     public ProgressResponse updateProgress(UUID lessonId, UpdateProgressRequest request) {
-        Users user = securityContextService.getCurrentUser();
+        UUID userId = securityContextService.getCurrentUserId();
+
+        return progressIngestionBuffer
+                .merge(userId, lessonId, request.getWatchedSeconds(), request.getProgressPercent())
+                .orElseGet(() -> progressIngestionBuffer.track(
+                        loadProgressSeed(userId, lessonId),
+                        request.getWatchedSeconds(),
+                        request.getProgressPercent()));
+    }
 
-        Lesson lesson = lessonRepository.findById(lessonId)
+    private ProgressIngestionBuffer.ProgressSeed loadProgressSeed(UUID userId, UUID lessonId) {
+        Lesson lesson = lessonRepository.findByIdWithCourse(lessonId)
                 .orElseThrow(() -> new RuntimeException("Lesson not found"));
 
         UUID courseId = lesson.getModule().getCourse().getCourseId();
-        if (!enrollmentRepository.existsByUser_UserIdAndCourse_CourseId(user.getUserId(), courseId)) {
+        if (!enrollmentRepository.existsByUser_UserIdAndCourse_CourseId(userId, courseId)) {
             throw new RuntimeException("Not enrolled in this course");
         }
 
         Progress progress = progressRepository
-                .findByUser_UserIdAndLesson_LessonId(user.getUserId(), lessonId)
-                .orElse(Progress.builder()
-                        .progressId(UUID.randomUUID())
-                        .user(user)
-                        .lesson(lesson)
-                        .watchedSeconds(0)
-                        .progressPercent(0.0)
-                        .lastWatchedAt(OffsetDateTime.now())
-                        .build());
-
-        if (request.getWatchedSeconds() != null && request.getWatchedSeconds() > progress.getWatchedSeconds()) {
-            progress.setWatchedSeconds(request.getWatchedSeconds());
-        }
-        if (request.getProgressPercent() != null && request.getProgressPercent() > progress.getProgressPercent()) {
-            progress.setProgressPercent(request.getProgressPercent());
-        }
-        progress.setLastWatchedAt(OffsetDateTime.now());
+                .findByUser_UserIdAndLesson_LessonId(userId, lessonId)
+                .orElse(null);
 
-        progressRepository.save(progress);
-        return progressMapper.toProgressResponse(progress);
+        return ProgressIngestionBuffer.ProgressSeed.builder()
+                .userId(userId)
+                .lessonId(lessonId)
+                .courseId(courseId)
+                .lessonTitle(lesson.getTitle())
+                .progressId(progress != null ? progress.getProgressId() : UUID.randomUUID())
+                .persisted(progress != null)
+                .watchedSeconds(progress != null ? progress.getWatchedSeconds() : 0)
+                .progressPercent(progress != null ? progress.getProgressPercent() : 0.0)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -72,19 +75,26 @@ public class ProgressService {
                 ? progressRepository.findByUser_UserIdAndLesson_Module_Course_CourseId(userId, courseId)
                 : progressRepository.findByUser_UserId(userId);
 
-        return progresses.stream()
-                .map(progressMapper::toProgressResponse)
-                .collect(Collectors.toList());
+        Map<UUID, ProgressResponse> byLesson = new LinkedHashMap<>();
+        for (Progress progress : progresses) {
+            ProgressResponse response = progressMapper.toProgressResponse(progress);
+            byLesson.put(response.getLessonId(), response);
+        }
+        for (ProgressResponse buffered : progressIngestionBuffer.findByUser(userId, courseId)) {
+            byLesson.put(buffered.getLessonId(), buffered);
+        }
+
+        return new ArrayList<>(byLesson.values());
     }
 
     @Transactional(readOnly = true)
     public ProgressResponse getLessonProgress(UUID lessonId) {
         UUID userId = securityContextService.getCurrentUserId();
 
-        Progress progress = progressRepository
-                .findByUser_UserIdAndLesson_LessonId(userId, lessonId)
-                .orElse(null);
-
-        return progress != null ? progressMapper.toProgressResponse(progress) : null;
+        return progressIngestionBuffer.find(userId, lessonId)
+                .orElseGet(() -> progressRepository
+                        .findByUser_UserIdAndLesson_LessonId(userId, lessonId)
+                        .map(progressMapper::toProgressResponse)
+                        .orElse(null));
     }
 }
@@ -10,6 +10,7 @@ import com.seikyuuressha.lms.mapper.ReviewMapper;
 import com.seikyuuressha.lms.repository.CourseRepository;
 import com.seikyuuressha.lms.repository.ReviewRepository;
 import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ public class ReviewService {
     private final UserRepository userRepository;
     private final ReviewMapper reviewMapper;
     private final SecurityContextService securityContextService;
+    private final CourseCatalogService courseCatalogService;
 
     @Transactional
     public ReviewResponse createReview(CreateReviewRequest request) {
@@ -54,6 +56,7 @@ public class ReviewService {
                 .build();
 
         review = reviewRepository.save(review);
+        courseCatalogService.courseChanged(course.getCourseId());
         return reviewMapper.toReviewResponse(review);
     }
 
@@ -76,6 +79,7 @@ public class ReviewService {
         review.setUpdatedAt(OffsetDateTime.now());
 
         review = reviewRepository.save(review);
+        courseCatalogService.courseChanged(review.getCourse().getCourseId());
         return reviewMapper.toReviewResponse(review);
     }
 
@@ -91,6 +95,7 @@ public class ReviewService {
 
         review.setIsActive(false);
         reviewRepository.save(review);
+        courseCatalogService.courseChanged(review.getCourse().getCourseId());
         return true;
     }
 
@@ -5,6 +5,7 @@ import com.seikyuuressha.lms.dto.response.UserResponse;
 import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.mapper.UserMapper;
 import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final SecurityContextService securityContextService;
+    private final CourseCatalogService courseCatalogService;
 
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser() {
@@ -48,6 +50,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        courseCatalogService.instructorChanged(user.getUserId());
         return userMapper.toUserResponse(user);
     }
 }
@@ -1,26 +1,32 @@
 package com.seikyuuressha.lms.service;
 
+import com.seikyuuressha.lms.dto.request.UploadedPartInput;
 import com.seikyuuressha.lms.dto.request.VideoUploadRequest;
 import com.seikyuuressha.lms.dto.response.PresignedUrlResponse;
+import com.seikyuuressha.lms.dto.response.UploadPartUrlResponse;
 import com.seikyuuressha.lms.dto.response.VideoResponse;
+import com.seikyuuressha.lms.dto.response.VideoUploadSessionResponse;
 import com.seikyuuressha.lms.entity.Lesson;
 import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.entity.Video;
 import com.seikyuuressha.lms.mapper.VideoMapper;
 import com.seikyuuressha.lms.repository.CourseInstructorRepository;
+import com.seikyuuressha.lms.repository.EnrollmentRepository;
 import com.seikyuuressha.lms.repository.LessonRepository;
 import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
+import com.seikyuuressha.lms.service.common.CourseVideoIndex;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import com.seikyuuressha.lms.service.video.MultipartUploadManager;
+import com.seikyuuressha.lms.service.video.VideoStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
@@ -36,13 +42,16 @@ public class VideoService {
     private final VideoRepository videoRepository;
     private final LessonRepository lessonRepository;
     private final CourseInstructorRepository courseInstructorRepository;
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectStorage objectStorage;
     private final SecurityContextService securityContextService;
     private final VideoMapper videoMapper;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private final CourseVideoIndex courseVideoIndex;
+    private final CourseCatalogService courseCatalogService;
+    private final PresignedUrlCache presignedUrlCache;
+    private final MultipartUploadManager multipartUploadManager;
+    private final VideoStreamService videoStreamService;
+    private final ObjectDeletionQueue objectDeletionQueue;
 
     @Value("${aws.s3.presigned-url-expiration:3600}")
     private Long presignedUrlExpiration;
@@ -50,69 +59,54 @@ public class VideoService {
     
     @Transactional
     public PresignedUrlResponse generateUploadUrl(VideoUploadRequest request) {
-        Users currentUser = securityContextService.getCurrentUser();
-        
-        Lesson lesson = lessonRepository.findById(request.getLessonId())
-                .orElseThrow(() -> new RuntimeException("Lesson not found"));
-
-        UUID courseId = lesson.getModule().getCourse().getCourseId();
-        UUID userId = currentUser.getUserId();
-        boolean isPrimaryInstructor = lesson.getModule().getCourse().getInstructor().getUserId().equals(userId);
-        boolean isCoInstructor = courseInstructorRepository.existsByCourseIdAndUserId(courseId, userId);
-        
-        if (!isPrimaryInstructor && !isCoInstructor) {
-            throw new RuntimeException("Only the instructor can upload videos for this lesson");
-        }
-
-        videoRepository.findByLesson_LessonId(request.getLessonId())
-                .ifPresent(existingVideo -> {
-                    try {
-                        if (existingVideo.getS3Key() != null) {
-                            s3Client.deleteObject(DeleteObjectRequest.builder()
-                                    .bucket(bucketName)
-                                    .key(existingVideo.getS3Key())
-                                    .build());
-                        }
-                    } catch (Exception e) {
-                        log.warn("Could not delete old S3 object: {}", e.getMessage());
-                    }
-
-                    videoRepository.delete(existingVideo);
-                    videoRepository.flush();
-                });
+        Video video = videoRepository.save(newVideo(request));
+        String s3Key = video.getS3Key();
 
-        String s3Key = generateS3Key(currentUser.getUserId(), lesson.getLessonId(), request.getFilename());
+        String uploadUrl = objectStorage.presignPut(s3Key, Duration.ofSeconds(presignedUrlExpiration), null);
 
-        Video video = Video.builder()
-                .lesson(lesson)
+        return PresignedUrlResponse.builder()
+                .videoId(video.getVideoId())
+                .uploadUrl(uploadUrl)
                 .s3Key(s3Key)
-                .s3Bucket(bucketName)
-                .originalFilename(request.getFilename())
-                .fileSize(request.getFileSize())
-                .mimeType(request.getContentType())
-                .processingStatus(Video.ProcessingStatus.PENDING)
+                .expiresIn(presignedUrlExpiration)
                 .build();
+    }
 
+    
+    @Transactional
+    public VideoUploadSessionResponse createUploadSession(VideoUploadRequest request) {
+        Video video = newVideo(request);
+        multipartUploadManager.start(video);
         video = videoRepository.save(video);
 
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(s3Key)
-                .build();
+        log.info("Multipart upload started. VideoId: {}, S3Key: {}", video.getVideoId(), video.getS3Key());
+        return multipartUploadManager.describe(video);
+    }
 
-        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofSeconds(presignedUrlExpiration))
-                .putObjectRequest(putObjectRequest)
-                .build();
+    @Transactional(readOnly = true)
+    public VideoUploadSessionResponse getUploadSession(UUID videoId) {
+        return multipartUploadManager.describe(findVideoForInstructor(videoId));
+    }
 
-        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+    @Transactional(readOnly = true)
+    public List<UploadPartUrlResponse> generateUploadPartUrls(UUID videoId, List<Integer> partNumbers) {
+        return multipartUploadManager.presignParts(findVideoForInstructor(videoId), partNumbers);
+    }
 
-        return PresignedUrlResponse.builder()
-                .videoId(video.getVideoId())
-                .uploadUrl(presignedRequest.url().toString())
-                .s3Key(s3Key)
-                .expiresIn(presignedUrlExpiration)
-                .build();
+    @Transactional
+    public VideoUploadSessionResponse recordUploadedParts(UUID videoId, List<UploadedPartInput> parts) {
+        Video video = findVideoForInstructor(videoId);
+        multipartUploadManager.recordParts(video, parts);
+        return multipartUploadManager.describe(video);
+    }
+
+    @Transactional
+    public Boolean abortUploadSession(UUID videoId) {
+        Video video = findVideoForInstructor(videoId);
+        multipartUploadManager.abort(video);
+        video.setProcessingStatus(Video.ProcessingStatus.FAILED);
+        videoRepository.save(video);
+        return true;
     }
 
     
@@ -126,38 +120,37 @@ public class VideoService {
             throw new RuntimeException("Unauthorized");
         }
 
-        try {
-            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(video.getS3Key())
-                    .build();
+        if (video.getMultipartUploadId() != null) {
+            multipartUploadManager.complete(video);
+        }
 
-            HeadObjectResponse response = s3Client.headObject(headObjectRequest);
-            
-            if (video.getFileSize() == null) {
-                video.setFileSize(response.contentLength());
-            }
+        ObjectStorage.StoredObject stored = objectStorage.head(video.getS3Key()).orElse(null);
+        if (stored == null) {
+            video.setProcessingStatus(Video.ProcessingStatus.FAILED);
+            videoRepository.save(video);
+            throw new RuntimeException("Video file not found in storage");
+        }
 
-            if (durationSeconds != null && durationSeconds > 0) {
-                video.setDurationSeconds(durationSeconds);
-                
-                Lesson lesson = video.getLesson();
-                lesson.setDurationSeconds(durationSeconds);
-                lessonRepository.save(lesson);
-                
-                log.info("Set video duration: {} seconds for VideoId: {}", durationSeconds, video.getVideoId());
-            }
+        if (video.getFileSize() == null) {
+            video.setFileSize(stored.size());
+        }
 
-            video.setProcessingStatus(Video.ProcessingStatus.COMPLETED);
-            video = videoRepository.save(video);
+        if (durationSeconds != null && durationSeconds > 0) {
+            video.setDurationSeconds(durationSeconds);
+            
+            Lesson lesson = video.getLesson();
+            lesson.setDurationSeconds(durationSeconds);
+            lessonRepository.save(lesson);
+            courseCatalogService.courseChanged(lesson.getModule().getCourse().getCourseId());
+            
+            log.info("Set video duration: {} seconds for VideoId: {}", durationSeconds, video.getVideoId());
+        }
 
-            log.info("Video uploaded and ready for streaming. VideoId: {}, S3Key: {}", video.getVideoId(), video.getS3Key());
+        video.setProcessingStatus(Video.ProcessingStatus.COMPLETED);
+        video = videoRepository.save(video);
+        courseVideoIndex.invalidate(video.getLesson().getModule().getCourse().getCourseId());
 
-        } catch (S3Exception e) {
-            video.setProcessingStatus(Video.ProcessingStatus.FAILED);
-            videoRepository.save(video);
-            throw new RuntimeException("Video file not found in S3: " + e.getMessage());
-        }
+        log.info("Video uploaded and ready for streaming. VideoId: {}, S3Key: {}", video.getVideoId(), video.getS3Key());
 
         return mapToVideoResponse(video);
     }
@@ -167,33 +160,34 @@ public class VideoService {
     public String getVideoStreamUrl(UUID lessonId) {
         Video video = videoRepository.findByLesson_LessonId(lessonId)
                 .orElseThrow(() -> new RuntimeException("Video not found for this lesson"));
+        return streamUrlFor(video);
+    }
 
+    /** Stream URL for the current user, who must be enrolled in the video's course or teach it. */
+    private String streamUrlFor(Video video) {
         if (video.getProcessingStatus() != Video.ProcessingStatus.COMPLETED) {
             throw new RuntimeException("Video is not ready for streaming. Status: " + video.getProcessingStatus());
         }
 
+        UUID userId = securityContextService.getCurrentUserId();
+        Lesson lesson = video.getLesson();
+        if (!securityContextService.isAdmin()
+                && !isCourseInstructor(lesson, userId)
+                && !enrollmentRepository.existsByUser_UserIdAndCourse_CourseId(
+                        userId, lesson.getModule().getCourse().getCourseId())) {
+            throw new RuntimeException("Not enrolled in this course");
+        }
+
+        if (videoStreamService.isProxyEnabled()) {
+            return videoStreamService.streamUrl(lesson.getLessonId(), userId, Duration.ofSeconds(presignedUrlExpiration));
+        }
         return generatePresignedGetUrl(video.getS3Key());
     }
 
     
     private String generatePresignedGetUrl(String s3Key) {
-        software.amazon.awssdk.services.s3.model.GetObjectRequest getObjectRequest = 
-            software.amazon.awssdk.services.s3.model.GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(s3Key)
-                .responseCacheControl("public, max-age=86400")
-                .build();
-
-        software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest presignRequest = 
-            software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofSeconds(presignedUrlExpiration))
-                .getObjectRequest(getObjectRequest)
-                .build();
-
-        software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest presignedRequest = 
-            s3Presigner.presignGetObject(presignRequest);
-
-        return presignedRequest.url().toString();
+        return presignedUrlCache.getObjectUrl(PresignedUrlCache.SCOPE_VIDEO_STREAM, s3Key,
+                Duration.ofSeconds(presignedUrlExpiration), "public, max-age=86400");
     }
 
     
@@ -227,21 +221,65 @@ public class VideoService {
             throw new RuntimeException("Only the instructor can delete this video");
         }
 
-        try {
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(video.getS3Key())
-                    .build();
+        multipartUploadManager.abortForDeletion(video);
+        objectDeletionQueue.enqueue(video.getS3Key());
+        videoStreamService.invalidate(video.getLesson().getLessonId());
 
-            s3Client.deleteObject(deleteObjectRequest);
+        videoRepository.delete(video);
+        courseVideoIndex.invalidate(video.getLesson().getModule().getCourse().getCourseId());
+        return true;
+    }
 
-            log.info("Video deleted from S3. VideoId: {}", videoId);
-        } catch (S3Exception e) {
-            log.error("Failed to delete video from S3: {}", e.getMessage());
+    private Video newVideo(VideoUploadRequest request) {
+        Users currentUser = securityContextService.getCurrentUser();
+        
+        Lesson lesson = lessonRepository.findById(request.getLessonId())
+                .orElseThrow(() -> new RuntimeException("Lesson not found"));
+
+        UUID courseId = lesson.getModule().getCourse().getCourseId();
+        if (!isCourseInstructor(lesson, currentUser.getUserId())) {
+            throw new RuntimeException("Only the instructor can upload videos for this lesson");
         }
 
-        videoRepository.delete(video);
-        return true;
+        videoRepository.findByLesson_LessonId(request.getLessonId())
+                .ifPresent(existingVideo -> {
+                    multipartUploadManager.abortForDeletion(existingVideo);
+                    objectDeletionQueue.enqueue(existingVideo.getS3Key());
+                    videoStreamService.invalidate(lesson.getLessonId());
+
+                    videoRepository.delete(existingVideo);
+                    videoRepository.flush();
+                    courseVideoIndex.invalidate(courseId);
+                });
+
+        String s3Key = generateS3Key(currentUser.getUserId(), lesson.getLessonId(), request.getFilename());
+
+        return Video.builder()
+                .lesson(lesson)
+                .s3Key(s3Key)
+                .s3Bucket(objectStorage.location())
+                .originalFilename(request.getFilename())
+                .fileSize(request.getFileSize())
+                .mimeType(request.getContentType())
+                .processingStatus(Video.ProcessingStatus.PENDING)
+                .build();
+    }
+
+    private Video findVideoForInstructor(UUID videoId) {
+        Video video = videoRepository.findById(videoId)
+                .orElseThrow(() -> new RuntimeException("Video not found"));
+
+        Users currentUser = securityContextService.getCurrentUser();
+        if (!isCourseInstructor(video.getLesson(), currentUser.getUserId())) {
+            throw new RuntimeException("Unauthorized");
+        }
+        return video;
+    }
+
+    private boolean isCourseInstructor(Lesson lesson, UUID userId) {
+        UUID courseId = lesson.getModule().getCourse().getCourseId();
+        return lesson.getModule().getCourse().getInstructor().getUserId().equals(userId)
+                || courseInstructorRepository.existsByCourseIdAndUserId(courseId, userId);
     }
 
     private String generateS3Key(UUID instructorId, UUID lessonId, String filename) {
@@ -256,7 +294,7 @@ public class VideoService {
         
         if (video.getProcessingStatus() == Video.ProcessingStatus.COMPLETED) {
             try {
-                response.setStreamUrl(getVideoStreamUrl(video.getLesson().getLessonId()));
+                response.setStreamUrl(streamUrlFor(video));
             } catch (Exception e) {
                 log.warn("Failed to generate stream URL: {}", e.getMessage());
             }
@@ -3,7 +3,13 @@ package com.seikyuuressha.lms.service.admin;
 import com.seikyuuressha.lms.dto.response.CourseResponse;
 import com.seikyuuressha.lms.entity.Course;
 import com.seikyuuressha.lms.mapper.CourseMapper;
+import com.seikyuuressha.lms.repository.CertificateRepository;
 import com.seikyuuressha.lms.repository.CourseRepository;
+import com.seikyuuressha.lms.repository.LessonResourceRepository;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.video.MultipartUploadManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,6 +32,12 @@ public class CourseApprovalService {
 
     private final CourseRepository courseRepository;
     private final CourseMapper courseMapper;
+    private final CourseCatalogService courseCatalogService;
+    private final VideoRepository videoRepository;
+    private final LessonResourceRepository lessonResourceRepository;
+    private final CertificateRepository certificateRepository;
+    private final ObjectDeletionQueue objectDeletionQueue;
+    private final MultipartUploadManager multipartUploadManager;
 
     
     @Transactional(readOnly = true)
@@ -56,6 +69,7 @@ public class CourseApprovalService {
         course.setUpdatedAt(OffsetDateTime.now());
         course = courseRepository.save(course);
 
+        courseCatalogService.courseChanged(courseId);
         log.info("Course approved by admin. CourseId: {}", courseId);
         return courseMapper.toCourseResponse(course);
     }
@@ -70,6 +84,7 @@ public class CourseApprovalService {
         course.setUpdatedAt(OffsetDateTime.now());
         course = courseRepository.save(course);
 
+        courseCatalogService.courseChanged(courseId);
         log.info("Course rejected by admin. CourseId: {}, Reason: {}", courseId, reason);
         return courseMapper.toCourseResponse(course);
     }
@@ -80,7 +95,14 @@ public class CourseApprovalService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
+        videoRepository.findMultipartUploadsByCourseId(courseId).forEach(multipartUploadManager::abortForDeletion);
+        List<String> objectKeys = new ArrayList<>(videoRepository.findS3KeysByCourseId(courseId));
+        objectKeys.addAll(lessonResourceRepository.findS3KeysByCourseId(courseId));
+        objectKeys.addAll(certificateRepository.findPdfKeysByCourseId(courseId));
+        objectDeletionQueue.enqueue(objectKeys);
+
         courseRepository.delete(course);
+        courseCatalogService.courseChanged(courseId);
         log.info("Course deleted by admin. CourseId: {}", courseId);
         return true;
     }
@@ -8,6 +8,8 @@ import com.seikyuuressha.lms.repository.CourseRepository;
 import com.seikyuuressha.lms.repository.EnrollmentRepository;
 import com.seikyuuressha.lms.repository.RoleRepository;
 import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.security.PrincipalCache;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -33,6 +35,8 @@ public class UserManagementService {
     private final CourseRepository courseRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CourseCatalogService courseCatalogService;
+    private final PrincipalCache principalCache;
 
     
     @Transactional(readOnly = true)
@@ -65,6 +69,7 @@ public class UserManagementService {
 
         user.setRole(role);
         user = userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("User role updated. UserId: {}, NewRole: {}", userId, role.getRoleName());
         return userMapper.toUserResponse(user);
@@ -82,6 +87,7 @@ public class UserManagementService {
 
         user.setActive(false);
         userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("User locked. UserId: {}, Reason: {}", userId, reason);
         return true;
@@ -95,6 +101,7 @@ public class UserManagementService {
 
         user.setActive(true);
         userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("User unlocked. UserId: {}", userId);
         return true;
@@ -121,6 +128,7 @@ public class UserManagementService {
             userRepository.delete(user);
             log.info("User hard deleted. UserId: {}", userId);
         }
+        principalCache.invalidate(userId);
 
         return true;
     }
@@ -177,6 +185,8 @@ public class UserManagementService {
         }
 
         user = userRepository.save(user);
+        principalCache.invalidate(userId);
+        courseCatalogService.instructorChanged(userId);
         log.info("User updated by admin. UserId: {}", userId);
         return userMapper.toUserResponse(user);
     }
@@ -22,10 +22,9 @@ public class RevenueService {
     private final PaymentRepository paymentRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
-    private final ProgressRepository progressRepository;
-    private final LessonRepository lessonRepository;
     private final CourseInstructorRepository courseInstructorRepository;
     private final SecurityContextService securityContextService;
+    private final LessonRepository lessonRepository;
 
     private static final String[] MONTH_NAMES = {"", "Thg 1", "Thg 2", "Thg 3", "Thg 4", "Thg 5", "Thg 6", 
                                                   "Thg 7", "Thg 8", "Thg 9", "Thg 10", "Thg 11", "Thg 12"};
@@ -61,38 +60,21 @@ public class RevenueService {
     public List<Map<String, Object>> getStudentProgress(UUID courseId) {
         Course course = getCourseByIdAndVerifyOwnership(courseId);
 
-        List<Enrollment> enrollments = enrollmentRepository.findByCourse_CourseId(courseId);
-        List<Lesson> allLessons = lessonRepository.findByCourseId(courseId);
-        int totalLessons = allLessons.size();
+        int totalLessons = (int) lessonRepository.countByCourseId(courseId);
 
-        return enrollments.stream()
-                .map(enrollment -> buildStudentProgressData(enrollment, allLessons, totalLessons))
+        return enrollmentRepository.findByCourse_CourseId(courseId).stream()
+                .map(enrollment -> buildStudentProgressData(enrollment, totalLessons))
                 .collect(java.util.stream.Collectors.toList());
     }
 
-    private Map<String, Object> buildStudentProgressData(Enrollment enrollment, List<Lesson> allLessons, int totalLessons) {
+    private Map<String, Object> buildStudentProgressData(Enrollment enrollment, int totalLessons) {
         Map<String, Object> studentData = new HashMap<>();
         studentData.put("userId", enrollment.getUser().getUserId());
         studentData.put("fullName", enrollment.getUser().getFullName());
         studentData.put("email", enrollment.getUser().getEmail());
         studentData.put("enrolledAt", enrollment.getEnrolledAt());
-
-        UUID userId = enrollment.getUser().getUserId();
-        long completedLessons = allLessons.stream()
-                .filter(lesson -> {
-                    Progress progress = progressRepository
-                            .findByUser_UserIdAndLesson_LessonId(userId, lesson.getLessonId())
-                            .orElse(null);
-                    return progress != null && progress.getProgressPercent() >= 80;
-                })
-                .count();
-
-        double progressPercent = totalLessons > 0
-                ? (double) completedLessons / totalLessons * 100
-                : 0.0;
-
-        studentData.put("progressPercent", progressPercent);
-        studentData.put("completedLessons", completedLessons);
+        studentData.put("progressPercent", enrollment.getProgressPercent());
+        studentData.put("completedLessons", enrollment.getCompletedLessons());
         studentData.put("totalLessons", totalLessons);
 
         return studentData;
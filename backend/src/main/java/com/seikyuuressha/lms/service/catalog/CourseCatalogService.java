@@ -0,0 +1,471 @@
+package com.seikyuuressha.lms.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.seikyuuressha.lms.dto.request.CourseCatalogFilter;
+import com.seikyuuressha.lms.dto.request.CourseSort;
+import com.seikyuuressha.lms.dto.response.*;
+import com.seikyuuressha.lms.entity.Course;
+import com.seikyuuressha.lms.entity.CourseCatalog;
+import com.seikyuuressha.lms.repository.CourseCatalogRepository;
+import com.seikyuuressha.lms.repository.CourseRepository;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class CourseCatalogService {
+
+    private static final int REFRESH_CHUNK_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final ObjectMapper JSON = JsonMapper.builder().findAndAddModules().build();
+    private static final TypeReference<List<CoInstructorResponse>> CO_INSTRUCTORS = new TypeReference<>() {
+    };
+
+    private final CourseCatalogRepository courseCatalogRepository;
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ReviewRepository reviewRepository;
+    private final CourseSearchIndex courseSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Set<UUID> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    @Value("${catalog.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    public CourseCatalogService(CourseCatalogRepository courseCatalogRepository,
+                                CourseRepository courseRepository,
+                                LessonRepository lessonRepository,
+                                ReviewRepository reviewRepository,
+                                CourseSearchIndex courseSearchIndex,
+                                PlatformTransactionManager transactionManager) {
+        this.courseCatalogRepository = courseCatalogRepository;
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.reviewRepository = reviewRepository;
+        this.courseSearchIndex = courseSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // One worker drains the pending set; a second submission while one is queued is redundant and dropped.
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "course-catalog-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CourseResponse> getPublishedCourses(UUID categoryId) {
+        List<CourseCatalog> entries = categoryId == null
+                ? courseCatalogRepository.findAll()
+                : courseCatalogRepository.findByCategoryId(categoryId);
+
+        return entries.stream()
+                .map(this::toCourseResponse)
+                .collect(Collectors.toList());
+    }
+
+
+    @Transactional(readOnly = true)
+    public CourseConnection getCatalogPage(Integer first, String after, CourseSort sort, CourseCatalogFilter filter) {
+        int pageSize = Math.min(first != null && first > 0 ? first : DEFAULT_PAGE_SIZE, maxPageSize);
+        CourseSort order = sort != null ? sort : CourseSort.NEWEST;
+        CourseCatalogFilter criteria = filter != null ? filter : new CourseCatalogFilter();
+
+        List<CourseCatalog> rows = findPage(order, criteria, after, PageRequest.of(0, pageSize + 1));
+        boolean hasNextPage = rows.size() > pageSize;
+        if (hasNextPage) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<CourseEdge> edges = rows.stream()
+                .map(row -> CourseEdge.builder()
+                        .cursor(encodeCursor(order, row))
+                        .node(toCourseResponse(row))
+                        .build())
+                .collect(Collectors.toList());
+
+        return CourseConnection.builder()
+                .edges(edges)
+                .pageInfo(PageInfo.builder()
+                        .hasNextPage(hasNextPage)
+                        .endCursor(edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor())
+                        .build())
+                .build();
+    }
+
+
+    public List<CourseResponse> searchCourses(String query, Integer first) {
+        int limit = Math.min(first != null && first > 0 ? first : DEFAULT_PAGE_SIZE, maxPageSize);
+        return courseSearchIndex.search(query, limit);
+    }
+
+
+    public void courseChanged(UUID courseId) {
+        refreshAfterCommit(List.of(courseId));
+    }
+
+
+    public void instructorChanged(UUID instructorId) {
+        List<UUID> courseIds = courseRepository.findCourseIdsByInstructorId(instructorId);
+        if (!courseIds.isEmpty()) {
+            refreshAfterCommit(courseIds);
+        }
+    }
+
+
+    public void categoryChanged(UUID categoryId) {
+        List<UUID> courseIds = courseRepository.findCourseIdsByCategoryId(categoryId);
+        if (!courseIds.isEmpty()) {
+            refreshAfterCommit(courseIds);
+        }
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+
+    public void rebuild() {
+        List<UUID> published = courseRepository.findPublishedCourseIds();
+        Set<UUID> stale = new HashSet<>(courseCatalogRepository.findAllCourseIds());
+        stale.removeAll(published);
+
+        Set<UUID> courseIds = new LinkedHashSet<>(published);
+        courseIds.addAll(stale);
+        refresh(courseIds);
+        log.info("Course catalog rebuilt. Published courses: {}", published.size());
+    }
+
+
+    @Scheduled(fixedDelayString = "${catalog.retry-interval-ms:30000}")
+    public void retryPendingRefreshes() {
+        if (pendingRefreshes.isEmpty()) {
+            return;
+        }
+        List<UUID> courseIds = new ArrayList<>(pendingRefreshes);
+        pendingRefreshes.removeAll(courseIds);
+        refresh(courseIds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    /**
+     * Queues the courses and hands the refresh to the catalog worker, so the committing request does not wait
+     * for it and mutations of unrelated courses do not queue up behind each other on the refresh lock.
+     */
+    private void refreshAfterCommit(Collection<UUID> courseIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRefresh(courseIds);
+                }
+            });
+        } else {
+            scheduleRefresh(courseIds);
+        }
+    }
+
+    private void scheduleRefresh(Collection<UUID> courseIds) {
+        pendingRefreshes.addAll(courseIds);
+        refreshExecutor.execute(this::retryPendingRefreshes);
+    }
+
+    private void refresh(Collection<UUID> courseIds) {
+        List<UUID> ids = new ArrayList<>(courseIds);
+        refreshLock.lock();
+        try {
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+                try {
+                    SearchIndexUpdate update = transactionTemplate.execute(status -> refreshChunk(chunk));
+                    update.applyTo(courseSearchIndex);
+                } catch (Exception e) {
+                    log.warn("Course catalog refresh failed for {} courses, will retry: {}", chunk.size(), e.getMessage());
+                    pendingRefreshes.addAll(chunk);
+                }
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Re-indexes every catalog row, so a replica's search index converges on changes made by other instances.
+     * Runs under the refresh lock so it cannot interleave with a local refresh of the same course.
+     */
+    @Scheduled(initialDelayString = "${catalog.search-rebuild-interval-ms:300000}",
+               fixedDelayString = "${catalog.search-rebuild-interval-ms:300000}")
+    public void rebuildSearchIndex() {
+        refreshLock.lock();
+        try {
+            List<UUID> ids = courseCatalogRepository.findAllCourseIds();
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+                List<CourseResponse> courses = courseCatalogRepository.findAllById(chunk).stream()
+                        .map(this::toCourseResponse)
+                        .collect(Collectors.toList());
+                new SearchIndexUpdate(List.of(), courses, lessonTitles(chunk)).applyTo(courseSearchIndex);
+            }
+            courseSearchIndex.retainOnly(new HashSet<>(ids));
+        } catch (Exception e) {
+            log.warn("Course search index rebuild failed: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /** Search index changes of a refreshed chunk, applied only once its transaction has committed. */
+    record SearchIndexUpdate(List<UUID> removed, List<CourseResponse> indexed, Map<UUID, List<String>> lessonTitles) {
+
+        void applyTo(CourseSearchIndex index) {
+            removed.forEach(index::remove);
+            for (CourseResponse course : indexed) {
+                index.index(course, lessonTitles.getOrDefault(course.getCourseId(), List.of()));
+            }
+        }
+    }
+
+    SearchIndexUpdate refreshChunk(List<UUID> courseIds) {
+        Map<UUID, Course> published = courseRepository.findWithInstructorAndCategoryByIdIn(courseIds).stream()
+                .filter(Course::isPublished)
+                .collect(Collectors.toMap(Course::getCourseId, c -> c));
+
+        Map<UUID, CourseCatalog> existing = courseCatalogRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(CourseCatalog::getCourseId, e -> e));
+
+        List<UUID> removed = existing.keySet().stream()
+                .filter(id -> !published.containsKey(id))
+                .collect(Collectors.toList());
+        if (!removed.isEmpty()) {
+            courseCatalogRepository.deleteAllByIdInBatch(removed);
+        }
+        List<UUID> unpublished = courseIds.stream()
+                .filter(id -> !published.containsKey(id))
+                .collect(Collectors.toList());
+        if (published.isEmpty()) {
+            return new SearchIndexUpdate(unpublished, List.of(), Map.of());
+        }
+
+        courseRepository.fetchCourseInstructorsByIdIn(published.keySet());
+
+        Map<UUID, Object[]> lessonSummaries = new HashMap<>();
+        for (Object[] row : lessonRepository.summarizeByCourseIds(published.keySet())) {
+            lessonSummaries.put((UUID) row[0], row);
+        }
+        Map<UUID, Object[]> reviewSummaries = new HashMap<>();
+        for (Object[] row : reviewRepository.summarizeByCourseIds(published.keySet())) {
+            reviewSummaries.put((UUID) row[0], row);
+        }
+
+        List<CourseCatalog> entries = new ArrayList<>(published.size());
+        for (Course course : published.values()) {
+            CourseCatalog entry = existing.get(course.getCourseId());
+            if (entry == null) {
+                entry = CourseCatalog.builder().courseId(course.getCourseId()).build();
+            }
+            Object[] lessons = lessonSummaries.get(course.getCourseId());
+            Object[] reviews = reviewSummaries.get(course.getCourseId());
+
+            entry.setTitle(course.getTitle());
+            entry.setSlug(course.getSlug());
+            entry.setDescription(course.getDescription());
+            entry.setThumbnailUrl(course.getThumbnailUrl());
+            entry.setLevel(course.getLevel());
+            entry.setPrice(course.getPrice() != null ? course.getPrice() : BigDecimal.ZERO);
+            entry.setCategoryId(course.getCategory() != null ? course.getCategory().getCategoryId() : null);
+            entry.setCategoryName(course.getCategory() != null ? course.getCategory().getName() : null);
+            entry.setInstructorId(course.getInstructor() != null ? course.getInstructor().getUserId() : null);
+            entry.setInstructorName(course.getInstructor() != null ? course.getInstructor().getFullName() : null);
+            entry.setInstructorEmail(course.getInstructor() != null ? course.getInstructor().getEmail() : null);
+            entry.setInstructorAvatarUrl(course.getInstructor() != null ? course.getInstructor().getAvatarUrl() : null);
+            entry.setInstructorBio(course.getInstructor() != null ? course.getInstructor().getBio() : null);
+            entry.setCoInstructors(writeCoInstructors(course));
+            entry.setTotalLessons(lessons != null ? ((Number) lessons[1]).intValue() : 0);
+            entry.setTotalDuration(lessons != null ? ((Number) lessons[2]).intValue() : 0);
+            entry.setAverageRating(reviews != null ? ((Number) reviews[1]).doubleValue() : 0.0);
+            entry.setReviewCount(reviews != null ? ((Number) reviews[2]).intValue() : 0);
+            entry.setCreatedAt(course.getCreatedAt());
+            entry.setUpdatedAt(course.getUpdatedAt());
+            entries.add(entry);
+        }
+        courseCatalogRepository.saveAll(entries);
+
+        List<CourseResponse> indexed = entries.stream()
+                .map(this::toCourseResponse)
+                .collect(Collectors.toList());
+        return new SearchIndexUpdate(unpublished, indexed, lessonTitles(published.keySet()));
+    }
+
+    private Map<UUID, List<String>> lessonTitles(Collection<UUID> courseIds) {
+        Map<UUID, List<String>> lessonTitles = new HashMap<>();
+        for (Object[] row : lessonRepository.findTitlesByCourseIds(courseIds)) {
+            lessonTitles.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return lessonTitles;
+    }
+
+    private List<CourseCatalog> findPage(CourseSort sort, CourseCatalogFilter f, String after, Pageable page) {
+        UUID categoryId = f.getCategoryId();
+        String level = f.getLevel();
+        BigDecimal minPrice = f.getMinPrice();
+        BigDecimal maxPrice = f.getMaxPrice();
+
+        if (after == null || after.isBlank()) {
+            return switch (sort) {
+                case NEWEST -> courseCatalogRepository.findNewest(categoryId, level, minPrice, maxPrice, page);
+                case PRICE_ASC -> courseCatalogRepository.findCheapest(categoryId, level, minPrice, maxPrice, page);
+                case PRICE_DESC -> courseCatalogRepository.findMostExpensive(categoryId, level, minPrice, maxPrice, page);
+                case RATING -> courseCatalogRepository.findTopRated(categoryId, level, minPrice, maxPrice, page);
+            };
+        }
+
+        String[] cursor = decodeCursor(sort, after);
+        UUID courseId = UUID.fromString(cursor[2]);
+        return switch (sort) {
+            case NEWEST -> courseCatalogRepository.findNewestAfter(categoryId, level, minPrice, maxPrice,
+                    OffsetDateTime.parse(cursor[1]), courseId, page);
+            case PRICE_ASC -> courseCatalogRepository.findCheapestAfter(categoryId, level, minPrice, maxPrice,
+                    new BigDecimal(cursor[1]), courseId, page);
+            case PRICE_DESC -> courseCatalogRepository.findMostExpensiveAfter(categoryId, level, minPrice, maxPrice,
+                    new BigDecimal(cursor[1]), courseId, page);
+            case RATING -> courseCatalogRepository.findTopRatedAfter(categoryId, level, minPrice, maxPrice,
+                    Double.valueOf(cursor[1]), courseId, page);
+        };
+    }
+
+    private String encodeCursor(CourseSort sort, CourseCatalog row) {
+        String key = switch (sort) {
+            case NEWEST -> row.getCreatedAt().toString();
+            case PRICE_ASC, PRICE_DESC -> row.getPrice().toPlainString();
+            case RATING -> row.getAverageRating().toString();
+        };
+        String raw = sort.name() + "|" + key + "|" + row.getCourseId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(CourseSort sort, String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException();
+            }
+            switch (sort) {
+                case NEWEST -> OffsetDateTime.parse(parts[1]);
+                case PRICE_ASC, PRICE_DESC -> new BigDecimal(parts[1]);
+                case RATING -> Double.valueOf(parts[1]);
+            }
+            UUID.fromString(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private CourseResponse toCourseResponse(CourseCatalog entry) {
+        InstructorResponse instructor = entry.getInstructorId() != null
+                ? InstructorResponse.builder()
+                        .userId(entry.getInstructorId())
+                        .fullName(entry.getInstructorName())
+                        .email(entry.getInstructorEmail())
+                        .avatarUrl(entry.getInstructorAvatarUrl())
+                        .bio(entry.getInstructorBio())
+                        .build()
+                : null;
+
+        return CourseResponse.builder()
+                .courseId(entry.getCourseId())
+                .title(entry.getTitle())
+                .slug(entry.getSlug())
+                .description(entry.getDescription())
+                .thumbnailUrl(entry.getThumbnailUrl())
+                .level(entry.getLevel())
+                .price(entry.getPrice())
+                .categoryName(entry.getCategoryName())
+                .instructor(instructor)
+                .coInstructors(readCoInstructors(entry))
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .isPublished(true)
+                .totalLessons(entry.getTotalLessons())
+                .totalDuration(entry.getTotalDuration())
+                .averageRating(entry.getReviewCount() > 0 ? entry.getAverageRating() : null)
+                .build();
+    }
+
+    private String writeCoInstructors(Course course) {
+        List<CoInstructorResponse> coInstructors = course.getCourseInstructors() == null ? List.of()
+                : course.getCourseInstructors().stream()
+                        .map(ci -> CoInstructorResponse.builder()
+                                .userId(ci.getUserId())
+                                .fullName(ci.getUser() != null ? ci.getUser().getFullName() : "")
+                                .email(ci.getUser() != null ? ci.getUser().getEmail() : "")
+                                .avatarUrl(ci.getUser() != null ? ci.getUser().getAvatarUrl() : null)
+                                .role(ci.getUserRole().name())
+                                .addedAt(ci.getAddedAt())
+                                .build())
+                        .collect(Collectors.toList());
+        try {
+            return JSON.writeValueAsString(coInstructors);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize co-instructors of course " + course.getCourseId(), e);
+        }
+    }
+
+    private List<CoInstructorResponse> readCoInstructors(CourseCatalog entry) {
+        if (entry.getCoInstructors() == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return JSON.readValue(entry.getCoInstructors(), CO_INSTRUCTORS);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable co-instructors in catalog entry {}: {}", entry.getCourseId(), e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.seikyuuressha.lms.service.catalog;
+
+import com.seikyuuressha.lms.dto.response.CourseResponse;
+import com.seikyuuressha.lms.dto.response.InstructorResponse;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the published catalog, ranked with BM25.
+ * Documents are fed by {@link CourseCatalogService} once a catalog refresh has committed, and the
+ * whole index is periodically rebuilt from the catalog table, so searches never reach the database.
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double INSTRUCTOR_WEIGHT = 2.0;
+    private static final double CATEGORY_WEIGHT = 1.5;
+    private static final double BODY_WEIGHT = 1.0;
+    private static final double PREFIX_PENALTY = 0.7;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<UUID, Double>> postings = new TreeMap<>();
+    private final Map<UUID, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    private record Document(CourseResponse course, Map<String, Double> terms, double length) {
+    }
+
+    public void index(CourseResponse course, Collection<String> lessonTitles) {
+        Map<String, Double> terms = new HashMap<>();
+        addTerms(terms, course.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, course.getCategoryName(), CATEGORY_WEIGHT);
+        addTerms(terms, course.getDescription(), BODY_WEIGHT);
+        InstructorResponse instructor = course.getInstructor();
+        if (instructor != null) {
+            addTerms(terms, instructor.getFullName(), INSTRUCTOR_WEIGHT);
+        }
+        for (String lessonTitle : lessonTitles) {
+            addTerms(terms, lessonTitle, BODY_WEIGHT);
+        }
+        double length = terms.values().stream().mapToDouble(Double::doubleValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(course.getCourseId());
+            documents.put(course.getCourseId(), new Document(course, terms, length));
+            totalLength += length;
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(course.getCourseId(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops every document whose course is not in {@code courseIds}. */
+    public void retainOnly(Set<UUID> courseIds) {
+        lock.writeLock().lock();
+        try {
+            List<UUID> stale = documents.keySet().stream()
+                    .filter(courseId -> !courseIds.contains(courseId))
+                    .toList();
+            stale.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CourseResponse> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = totalLength / documents.size();
+            Map<UUID, Double> scores = new HashMap<>();
+
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean last = i == tokens.size() - 1;
+                Map<UUID, Double> tokenScores = new HashMap<>();
+
+                scoreTerm(token, 1.0, averageLength, tokenScores);
+                if (last && token.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        scoreTerm(term, PREFIX_PENALTY, averageLength, tokenScores);
+                    }
+                }
+                tokenScores.forEach((courseId, score) -> scores.merge(courseId, score, Double::sum));
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(e -> documents.get(e.getKey()).course())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases and strips diacritics so "Lập trình" and "lap trinh" produce the same terms.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void scoreTerm(String term, double boost, double averageLength, Map<UUID, Double> tokenScores) {
+        Map<UUID, Double> postingList = postings.get(term);
+        if (postingList == null) {
+            return;
+        }
+        int n = documents.size();
+        int df = postingList.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+
+        postingList.forEach((courseId, tf) -> {
+            double norm = 1 - B + B * documents.get(courseId).length() / averageLength;
+            double score = boost * idf * tf * (K1 + 1) / (tf + K1 * norm);
+            tokenScores.merge(courseId, score, Math::max);
+        });
+    }
+
+    private void removeLocked(UUID courseId) {
+        Document previous = documents.remove(courseId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms().keySet()) {
+            Map<UUID, Double> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(courseId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Double> terms, String text, double weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Double::sum);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.seikyuuressha.lms.service.certificate;
+
+import com.seikyuuressha.lms.entity.Certificate;
+import com.seikyuuressha.lms.repository.CertificateRepository;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders and uploads certificate PDFs off the request thread. CertificateService persists a PENDING
+ * certificate and submits it after commit; a worker from a bounded pool renders the PDF, uploads it and
+ * moves the row to READY or FAILED. Nothing holds a transaction during rendering or the upload.
+ * <p>
+ * A job that could not be queued, or was lost with a restart, stays PENDING and is picked up again once it
+ * is older than {@code certificate.jobs.stale-after-ms}. Each replica claims a stale row with a conditional
+ * update before resubmitting it, so only one of them renders it.
+ */
+@Slf4j
+@Component
+public class CertificateJobRunner {
+
+    private final CertificateRepository certificateRepository;
+    private final CertificatePdfRenderer certificatePdfRenderer;
+    private final ObjectStorage objectStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${certificate.jobs.stale-after-ms:300000}")
+    private long staleAfterMillis;
+
+    public CertificateJobRunner(CertificateRepository certificateRepository,
+                                CertificatePdfRenderer certificatePdfRenderer,
+                                ObjectStorage objectStorage,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${certificate.jobs.threads:2}") int threads,
+                                @Value("${certificate.jobs.queue-capacity:100}") int queueCapacity) {
+        this.certificateRepository = certificateRepository;
+        this.certificatePdfRenderer = certificatePdfRenderer;
+        this.objectStorage = objectStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "certificate-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private record Job(String certificateCode, String studentName, String courseTitle, Double finalScore) {
+    }
+
+    public void submitAfterCommit(UUID certificateId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(certificateId);
+                }
+            });
+        } else {
+            submit(certificateId);
+        }
+    }
+
+    public boolean submit(UUID certificateId) {
+        if (!inFlight.add(certificateId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(certificateId);
+                } finally {
+                    inFlight.remove(certificateId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(certificateId);
+            log.warn("Certificate job queue full, {} stays pending", certificateId);
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${certificate.jobs.recovery-interval-ms:60000}")
+    public void resubmitStale() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime before = now.minusNanos(staleAfterMillis * 1_000_000);
+        for (UUID certificateId : certificateRepository.findIdsByStatusIssuedBefore(Certificate.Status.PENDING, before)) {
+            Integer claimed = transactionTemplate.execute(status ->
+                    certificateRepository.claimStale(certificateId, before, now));
+            if (claimed != null && claimed == 1) {
+                submit(certificateId);
+            }
+        }
+    }
+
+    void process(UUID certificateId) {
+        Job job = transactionTemplate.execute(status -> certificateRepository.findByIdWithUserAndCourse(certificateId)
+                .filter(c -> c.getStatus() == Certificate.Status.PENDING)
+                .map(c -> new Job(c.getCertificateCode(), c.getUser().getFullName(), c.getCourse().getTitle(),
+                        c.getFinalScore()))
+                .orElse(null));
+        if (job == null) {
+            return;
+        }
+
+        String s3Key = "certificates/" + job.certificateCode() + ".pdf";
+        try {
+            byte[] pdfBytes = certificatePdfRenderer.render(job.studentName(), job.courseTitle(),
+                    job.certificateCode(), job.finalScore());
+            objectStorage.put(s3Key, pdfBytes, "application/pdf");
+            complete(certificateId, Certificate.Status.READY, s3Key);
+            log.info("Certificate PDF uploaded: {}", s3Key);
+        } catch (Exception e) {
+            log.error("Failed to generate/upload certificate PDF for {}", certificateId, e);
+            complete(certificateId, Certificate.Status.FAILED, null);
+        }
+    }
+
+    private void complete(UUID certificateId, Certificate.Status status, String pdfUrl) {
+        transactionTemplate.executeWithoutResult(s -> certificateRepository.completePending(certificateId, status, pdfUrl));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,249 @@
+package com.seikyuuressha.lms.service.certificate;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders certificate PDFs. Everything that does not depend on the certificate (background, borders,
+ * badge) is drawn once into a content stream at startup and stamped onto each page as a form XObject,
+ * and font programs are parsed once and shared, so a render only lays out the variable text.
+ */
+@Component
+public class CertificatePdfRenderer {
+
+    private static final PageSize PAGE_SIZE = PageSize.A4.rotate();
+    private static final DeviceRgb BG_DARK = new DeviceRgb(20, 10, 40);
+    private static final DeviceRgb BG_LIGHT = new DeviceRgb(45, 27, 105);
+    private static final DeviceRgb GOLD = new DeviceRgb(255, 215, 0);
+    private static final DeviceRgb WHITE = new DeviceRgb(255, 255, 255);
+    private static final DeviceRgb GRAY = new DeviceRgb(200, 200, 200);
+    private static final DeviceRgb DARK_GRAY = new DeviceRgb(100, 100, 100);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+
+    private final FontProgram helveticaBold;
+    private final FontProgram helvetica;
+    private final FontProgram helveticaOblique;
+    private final FontProgram timesBoldItalic;
+    private final byte[] backgroundContent;
+
+    public CertificatePdfRenderer() throws IOException {
+        this.helveticaBold = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        this.helvetica = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        this.helveticaOblique = FontProgramFactory.createFont(StandardFonts.HELVETICA_OBLIQUE);
+        this.timesBoldItalic = FontProgramFactory.createFont(StandardFonts.TIMES_BOLDITALIC);
+        this.backgroundContent = drawBackground();
+    }
+
+    public byte[] render(String studentName, String courseTitle, String certificateCode, Double finalScore) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        PdfWriter writer = new PdfWriter(baos);
+        PdfDocument pdfDoc = new PdfDocument(writer);
+
+        pdfDoc.setDefaultPageSize(PAGE_SIZE);
+        Document document = new Document(pdfDoc);
+        document.setMargins(0, 0, 0, 0);
+
+        PdfFont titleFont = PdfFontFactory.createFont(helveticaBold);
+        PdfFont textFont = PdfFontFactory.createFont(helvetica);
+        PdfFont italicFont = PdfFontFactory.createFont(helveticaOblique);
+        PdfFont nameFont = PdfFontFactory.createFont(timesBoldItalic);
+        document.setFont(textFont);
+
+        PdfFormXObject background = new PdfFormXObject(new Rectangle(PAGE_SIZE.getWidth(), PAGE_SIZE.getHeight()));
+        background.getPdfObject().setData(backgroundContent);
+        new PdfCanvas(pdfDoc.addNewPage()).addXObjectAt(background, 0, 0);
+
+        Div contentDiv = new Div()
+                .setMargins(40, 60, 40, 60)
+                .setWidth(UnitValue.createPercentValue(100));
+
+        Paragraph brandName = new Paragraph("LMS PLATFORM")
+                .setFont(titleFont).setFontSize(12).setFontColor(GRAY)
+                .setTextAlignment(TextAlignment.CENTER).setCharacterSpacing(2);
+        contentDiv.add(brandName);
+
+        Paragraph certTitle = new Paragraph("CERTIFICATE")
+                .setFont(titleFont).setFontSize(50).setFontColor(GOLD)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(20);
+        contentDiv.add(certTitle);
+
+        Paragraph subTitle = new Paragraph("OF COMPLETION")
+                .setFont(textFont).setFontSize(18).setFontColor(WHITE)
+                .setTextAlignment(TextAlignment.CENTER).setCharacterSpacing(5)
+                .setMarginTop(-10);
+        contentDiv.add(subTitle);
+
+        contentDiv.add(new Paragraph(" ")
+                .setBorderBottom(new com.itextpdf.layout.borders.SolidBorder(GOLD, 1))
+                .setWidth(200)
+                .setHorizontalAlignment(HorizontalAlignment.CENTER)
+                .setMarginTop(10)
+                .setMarginBottom(10));
+
+        Paragraph introText = new Paragraph("This is to certify that")
+                .setFont(italicFont).setFontSize(14).setFontColor(GRAY)
+                .setTextAlignment(TextAlignment.CENTER);
+        contentDiv.add(introText);
+
+        Paragraph studentNamePara = new Paragraph(studentName.toUpperCase())
+                .setFont(nameFont).setFontSize(32).setFontColor(WHITE)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(10).setMarginBottom(10);
+        contentDiv.add(studentNamePara);
+
+        Paragraph bodyText = new Paragraph("Has successfully completed the curriculum and requirements for the course:")
+                .setFont(textFont).setFontSize(14).setFontColor(GRAY)
+                .setTextAlignment(TextAlignment.CENTER);
+        contentDiv.add(bodyText);
+
+        Paragraph courseTitlePara = new Paragraph(courseTitle)
+                .setFont(titleFont).setFontSize(24).setFontColor(GOLD)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(5);
+        contentDiv.add(courseTitlePara);
+
+        Paragraph scorePara = new Paragraph(String.format("Final Grade: %.1f/100", finalScore))
+                .setFont(textFont).setFontSize(12).setFontColor(GRAY)
+                .setTextAlignment(TextAlignment.CENTER).setMarginTop(5);
+        contentDiv.add(scorePara);
+
+        Table footerTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}));
+        footerTable.setWidth(UnitValue.createPercentValue(80));
+        footerTable.setHorizontalAlignment(HorizontalAlignment.CENTER);
+        footerTable.setMarginTop(40);
+
+        String dateStr = OffsetDateTime.now().format(DATE_FORMAT);
+        Cell dateCell = new Cell().add(new Paragraph(dateStr).setFont(titleFont).setFontSize(14).setFontColor(WHITE).setTextAlignment(TextAlignment.CENTER))
+                .add(new Paragraph("______________________").setFontColor(GOLD).setTextAlignment(TextAlignment.CENTER))
+                .add(new Paragraph("Date Issued").setFont(textFont).setFontSize(10).setFontColor(GRAY).setTextAlignment(TextAlignment.CENTER))
+                .setBorder(Border.NO_BORDER);
+
+        Cell signCell = new Cell().add(new Paragraph("Do Hieu").setFont(nameFont).setFontSize(18).setFontColor(WHITE).setTextAlignment(TextAlignment.CENTER))
+                .add(new Paragraph("______________________").setFontColor(GOLD).setTextAlignment(TextAlignment.CENTER))
+                .add(new Paragraph("Instructor Signature").setFont(textFont).setFontSize(10).setFontColor(GRAY).setTextAlignment(TextAlignment.CENTER))
+                .setBorder(Border.NO_BORDER);
+
+        footerTable.addCell(dateCell);
+        footerTable.addCell(signCell);
+        contentDiv.add(footerTable);
+
+        Paragraph certIdPara = new Paragraph("Certificate ID: " + certificateCode)
+                .setFont(textFont).setFontSize(8).setFontColor(DARK_GRAY);
+        contentDiv.add(certIdPara);
+
+        document.add(contentDiv);
+        document.close();
+
+        return baos.toByteArray();
+    }
+
+    private static byte[] drawBackground() {
+        try (PdfDocument scratch = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()))) {
+            PdfStream content = new PdfStream();
+            PdfCanvas canvas = new PdfCanvas(content, new PdfResources(), scratch);
+            float width = PAGE_SIZE.getWidth();
+            float height = PAGE_SIZE.getHeight();
+
+            canvas.saveState();
+            canvas.setFillColor(BG_DARK);
+            canvas.rectangle(0, 0, width, height);
+            canvas.fill();
+
+            canvas.setFillColor(BG_LIGHT);
+            canvas.moveTo(0, height);
+            canvas.lineTo(width / 2, height);
+            canvas.lineTo(0, 0);
+            canvas.fill();
+            canvas.restoreState();
+
+            float margin = 30;
+            canvas.saveState();
+            canvas.setStrokeColor(GOLD);
+            canvas.setLineWidth(2);
+            canvas.roundRectangle(margin, margin, width - (margin * 2), height - (margin * 2), 10);
+            canvas.stroke();
+
+            canvas.setLineWidth(0.5f);
+            canvas.roundRectangle(margin + 5, margin + 5, width - (margin * 2) - 10, height - (margin * 2) - 10, 8);
+            canvas.stroke();
+            canvas.restoreState();
+
+            drawGoldBadge(canvas, height - 120, GOLD, BG_DARK);
+            return content.getBytes();
+        }
+    }
+
+    private static void drawGoldBadge(PdfCanvas canvas, float y, DeviceRgb gold, DeviceRgb dark) {
+        canvas.saveState();
+
+        canvas.setFillColor(gold);
+        canvas.moveTo((float) 100 - 15, y - 40);
+        canvas.lineTo((float) 100 - 25, y - 80);
+        canvas.lineTo((float) 100 - 5, y - 70);
+        canvas.lineTo((float) 100 + 15, y - 80);
+        canvas.lineTo((float) 100 + 5, y - 40);
+        canvas.fill();
+
+        float radius = 40;
+        int rays = 24;
+        double step = 2 * Math.PI / rays;
+        canvas.setFillColor(gold);
+
+        double startAngle = 0;
+        canvas.moveTo((float) 100 + Math.cos(startAngle) * (radius + 5), y + Math.sin(startAngle) * (radius + 5));
+
+        for (int i = 0; i < rays; i++) {
+            double angle = i * step;
+            double nextAngle = (i + 1) * step;
+            double midAngle = (angle + nextAngle) / 2;
+
+            canvas.lineTo((float) 100 + Math.cos(midAngle) * (radius + 8), y + Math.sin(midAngle) * (radius + 8));
+            canvas.lineTo((float) 100 + Math.cos(nextAngle) * (radius), y + Math.sin(nextAngle) * (radius));
+        }
+        canvas.fill();
+
+        canvas.setFillColor(gold);
+        canvas.circle((float) 100, y, radius);
+        canvas.fill();
+
+        canvas.setStrokeColor(dark);
+        canvas.setLineWidth(1);
+        canvas.circle((float) 100, y, radius - 5);
+        canvas.stroke();
+
+        canvas.setFillColor(dark);
+        canvas.rectangle((float) 100 - 12, y - 10, 24, 20);
+        canvas.fill();
+
+        canvas.restoreState();
+    }
+}
@@ -0,0 +1,44 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.ProgressRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Counts a student's completed lessons in a course from the Progress rows themselves. Listings read the
+ * completedLessons/progressPercent columns that EnrollmentProgressUpdater keeps on Enrollment; this live count
+ * is for decisions that must not lag behind them, such as issuing a certificate.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseCompletionCalculator {
+
+    public static final double LESSON_COMPLETED_THRESHOLD = 80.0;
+
+    private final ProgressRepository progressRepository;
+    private final LessonRepository lessonRepository;
+
+    @Getter
+    @AllArgsConstructor
+    public static class CourseCompletion {
+        private final long completedLessons;
+        private final long totalLessons;
+
+        public double getProgressPercent() {
+            return totalLessons > 0 ? (double) completedLessons / totalLessons * 100 : 0.0;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CourseCompletion liveCompletion(UUID userId, UUID courseId) {
+        return new CourseCompletion(
+                progressRepository.countCompletedLessons(userId, courseId, LESSON_COMPLETED_THRESHOLD),
+                lessonRepository.countByCourseId(courseId));
+    }
+}
@@ -6,8 +6,7 @@ import com.seikyuuressha.lms.entity.Module;
 import com.seikyuuressha.lms.mapper.UserMapper;
 import com.seikyuuressha.lms.repository.EnrollmentRepository;
 import com.seikyuuressha.lms.repository.ProgressRepository;
-import com.seikyuuressha.lms.repository.CourseInstructorRepository;
-import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,8 +20,8 @@ public class CourseResponseMapper {
     private final UserMapper userMapper;
     private final EnrollmentRepository enrollmentRepository;
     private final ProgressRepository progressRepository;
-    private final CourseInstructorRepository courseInstructorRepository;
-    private final VideoRepository videoRepository;
+    private final CourseVideoIndex courseVideoIndex;
+    private final ProgressIngestionBuffer progressIngestionBuffer;
 
     
     public Integer calculateTotalLessons(Course course) {
@@ -49,30 +48,57 @@ public class CourseResponseMapper {
         
         boolean isInstructor = userId != null && (
                 course.getInstructor().getUserId().equals(userId) ||
-                courseInstructorRepository.existsByCourseIdAndUserId(course.getCourseId(), userId)
+                (course.getCourseInstructors() != null && course.getCourseInstructors().stream()
+                        .anyMatch(ci -> ci.getUserId().equals(userId)))
         );
         
         boolean canSeeVideo = isEnrolled || isInstructor;
-        Map<UUID, Double> progressMap = getProgressMap(userId, course);
-
-        List<ModuleResponse> modules = course.getModules() != null
-                ? course.getModules().stream()
-                        .sorted(Comparator.comparingInt(Module::getSortOrder))
-                        .map(m -> toModuleResponse(m, canSeeVideo, progressMap))
-                        .collect(Collectors.toList())
-                : Collections.emptyList();
+        Set<UUID> lessonsWithVideo = canSeeVideo
+                ? courseVideoIndex.lessonsWithVideo(course.getCourseId())
+                : Collections.emptySet();
+        Map<UUID, Double> progressMap = getProgressMap(userId, List.of(course.getCourseId()));
 
         return buildCourseResponse(course)
-                .modules(modules)
+                .modules(toModuleResponses(course, lessonsWithVideo, progressMap))
                 .build();
     }
 
     
+    public Map<UUID, CourseResponse> toCourseResponsesForEnrolledStudent(Collection<Course> courses, UUID userId) {
+        Map<UUID, Double> progressMap = getProgressMap(userId,
+                courses.stream().map(Course::getCourseId).collect(Collectors.toList()));
+
+        Map<UUID, Set<UUID>> lessonsWithVideoByCourse = courseVideoIndex.lessonsWithVideo(
+                courses.stream().map(Course::getCourseId).collect(Collectors.toList()));
+
+        Map<UUID, CourseResponse> responses = new HashMap<>();
+        for (Course course : courses) {
+            Set<UUID> lessonsWithVideo = lessonsWithVideoByCourse.get(course.getCourseId());
+            responses.put(course.getCourseId(), buildCourseResponse(course)
+                    .modules(toModuleResponses(course, lessonsWithVideo, progressMap))
+                    .build());
+        }
+        return responses;
+    }
+
+    private List<ModuleResponse> toModuleResponses(Course course, Set<UUID> lessonsWithVideo,
+                                                   Map<UUID, Double> progressMap) {
+        if (course.getModules() == null) {
+            return Collections.emptyList();
+        }
+        return course.getModules().stream()
+                .sorted(Comparator.comparingInt(Module::getSortOrder))
+                .map(m -> toModuleResponse(m, lessonsWithVideo, progressMap))
+                .collect(Collectors.toList());
+    }
+
+    
     public CourseResponse toCourseResponseForInstructor(Course course) {
+        Set<UUID> lessonsWithVideo = courseVideoIndex.lessonsWithVideo(course.getCourseId());
         List<ModuleResponse> modules = course.getModules() != null
                 ? course.getModules().stream()
                         .sorted(Comparator.comparingInt(Module::getSortOrder))
-                        .map(this::toModuleResponseSimple)
+                        .map(m -> toModuleResponseSimple(m, lessonsWithVideo))
                         .collect(Collectors.toList())
                 : Collections.emptyList();
 
@@ -107,11 +133,11 @@ public class CourseResponseMapper {
     }
 
     
-    public ModuleResponse toModuleResponse(Module module, boolean canSeeVideo, Map<UUID, Double> progressMap) {
+    public ModuleResponse toModuleResponse(Module module, Set<UUID> lessonsWithVideo, Map<UUID, Double> progressMap) {
         List<LessonResponse> lessons = module.getLessons() != null
                 ? module.getLessons().stream()
                         .sorted(Comparator.comparingInt(Lesson::getSortOrder))
-                        .map(l -> toLessonResponse(l, canSeeVideo, progressMap))
+                        .map(l -> toLessonResponse(l, lessonsWithVideo, progressMap))
                         .collect(Collectors.toList())
                 : Collections.emptyList();
 
@@ -124,11 +150,11 @@ public class CourseResponseMapper {
     }
 
     
-    public ModuleResponse toModuleResponseSimple(Module module) {
+    public ModuleResponse toModuleResponseSimple(Module module, Set<UUID> lessonsWithVideo) {
         List<LessonResponse> lessons = module.getLessons() != null
                 ? module.getLessons().stream()
                         .sorted(Comparator.comparingInt(Lesson::getSortOrder))
-                        .map(this::toLessonResponseSimple)
+                        .map(l -> toLessonResponseSimple(l, lessonsWithVideo))
                         .collect(Collectors.toList())
                 : Collections.emptyList();
 
@@ -141,14 +167,10 @@ public class CourseResponseMapper {
     }
 
     
-    public LessonResponse toLessonResponse(Lesson lesson, boolean canSeeVideo, Map<UUID, Double> progressMap) {
-        String videoUrl = null;
-        if (canSeeVideo) {
-            boolean hasVideo = videoRepository.existsByLesson_LessonId(lesson.getLessonId());
-            if (hasVideo) {
-                videoUrl = "stream:" + lesson.getLessonId();
-            }
-        }
+    public LessonResponse toLessonResponse(Lesson lesson, Set<UUID> lessonsWithVideo, Map<UUID, Double> progressMap) {
+        String videoUrl = lessonsWithVideo.contains(lesson.getLessonId())
+                ? "stream:" + lesson.getLessonId()
+                : null;
 
         Double progress = progressMap.getOrDefault(lesson.getLessonId(), 0.0);
 
@@ -164,9 +186,10 @@ public class CourseResponseMapper {
     }
 
     
-    public LessonResponse toLessonResponseSimple(Lesson lesson) {
-        boolean hasVideo = videoRepository.existsByLesson_LessonId(lesson.getLessonId());
-        String videoUrl = hasVideo ? "stream:" + lesson.getLessonId() : null;
+    public LessonResponse toLessonResponseSimple(Lesson lesson, Set<UUID> lessonsWithVideo) {
+        String videoUrl = lessonsWithVideo.contains(lesson.getLessonId())
+                ? "stream:" + lesson.getLessonId()
+                : null;
 
         return LessonResponse.builder()
                 .lessonId(lesson.getLessonId())
@@ -196,15 +219,23 @@ public class CourseResponseMapper {
     }
 
     
-    private Map<UUID, Double> getProgressMap(UUID userId, Course course) {
-        if (userId == null) return Collections.emptyMap();
+    private Map<UUID, Double> getProgressMap(UUID userId, Collection<UUID> courseIds) {
+        if (userId == null || courseIds.isEmpty()) return Collections.emptyMap();
         
-        List<Progress> progressList = progressRepository.findByUser_UserIdAndLesson_Module_Course_CourseId(userId, course.getCourseId());
-        return progressList.stream()
+        List<Progress> progressList = progressRepository
+                .findByUser_UserIdAndLesson_Module_Course_CourseIdIn(userId, courseIds);
+        Map<UUID, Double> progressMap = progressList.stream()
                 .collect(Collectors.toMap(
                         p -> p.getLesson().getLessonId(),
                         Progress::getProgressPercent,
                         (a, b) -> b
                 ));
+        // Buffered updates have not reached the database yet and only ever move progress forward.
+        for (UUID courseId : courseIds) {
+            for (ProgressResponse buffered : progressIngestionBuffer.findByUser(userId, courseId)) {
+                progressMap.merge(buffered.getLessonId(), buffered.getProgressPercent(), Math::max);
+            }
+        }
+        return progressMap;
     }
 }
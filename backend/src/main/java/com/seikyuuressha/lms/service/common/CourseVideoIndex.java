@@ -0,0 +1,116 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.entity.Video;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lessons of a course that have a completed video. Local invalidation covers writes made by this instance;
+ * the TTL bounds how long another replica's upload or deletion can stay invisible here.
+ * <p>
+ * Every invalidation bumps a generation counter for the course, once immediately and again after the writing
+ * transaction completes. A load only stays cached if the generation it started under is unchanged once it has
+ * been stored, so a reader that queried before the writer committed cannot leave the old set behind. Counters
+ * are striped by course id to stay bounded; two courses sharing a stripe only cost each other a cache put.
+ */
+@Component
+public class CourseVideoIndex {
+
+    private final VideoRepository videoRepository;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BoundedCache<UUID, Set<UUID>> lessonsWithVideoByCourse;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public CourseVideoIndex(VideoRepository videoRepository,
+                            @Value("${video.index.max-courses:10000}") int maxCourses,
+                            @Value("${video.index.ttl-ms:300000}") long ttlMillis) {
+        this.videoRepository = videoRepository;
+        this.lessonsWithVideoByCourse = new BoundedCache<>(maxCourses, Duration.ofMillis(ttlMillis));
+    }
+
+    public Set<UUID> lessonsWithVideo(UUID courseId) {
+        Set<UUID> cached = lessonsWithVideoByCourse.get(courseId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(courseId);
+        Set<UUID> lessonIds = Set.copyOf(videoRepository.findLessonIdsByCourseIdAndStatus(
+                courseId, Video.ProcessingStatus.COMPLETED));
+        cacheIfCurrent(courseId, lessonIds, generation);
+        return lessonIds;
+    }
+
+    /** Same as {@link #lessonsWithVideo(UUID)} for several courses, loading every uncached one in one query. */
+    public Map<UUID, Set<UUID>> lessonsWithVideo(Collection<UUID> courseIds) {
+        Map<UUID, Set<UUID>> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID courseId : courseIds) {
+            Set<UUID> cached = lessonsWithVideoByCourse.get(courseId);
+            if (cached != null) {
+                result.put(courseId, cached);
+            } else {
+                missing.add(courseId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<UUID, Long> startedAt = new HashMap<>();
+        missing.forEach(courseId -> startedAt.put(courseId, generation(courseId)));
+        Map<UUID, Set<UUID>> loaded = new HashMap<>();
+        missing.forEach(courseId -> loaded.put(courseId, new HashSet<>()));
+        for (Object[] row : videoRepository.findLessonIdsByCourseIdsAndStatus(
+                missing, Video.ProcessingStatus.COMPLETED)) {
+            loaded.get((UUID) row[0]).add((UUID) row[1]);
+        }
+        loaded.forEach((courseId, lessonIds) -> {
+            Set<UUID> frozen = Set.copyOf(lessonIds);
+            cacheIfCurrent(courseId, frozen, startedAt.get(courseId));
+            result.put(courseId, frozen);
+        });
+        return result;
+    }
+
+    public void invalidate(UUID courseId) {
+        evict(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(courseId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID courseId) {
+        generations.incrementAndGet(stripe(courseId));
+        lessonsWithVideoByCourse.remove(courseId);
+    }
+
+    /** Stores a loaded set, then drops it again if an invalidation raced with the load. */
+    private void cacheIfCurrent(UUID courseId, Set<UUID> lessonIds, long generation) {
+        lessonsWithVideoByCourse.put(courseId, lessonIds);
+        if (generation(courseId) != generation) {
+            lessonsWithVideoByCourse.remove(courseId);
+        }
+    }
+
+    private long generation(UUID courseId) {
+        return generations.get(stripe(courseId));
+    }
+
+    private static int stripe(UUID courseId) {
+        return (courseId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -0,0 +1,76 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import com.seikyuuressha.lms.util.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reuses presigned GET URLs instead of signing a new one every time a response is mapped.
+ * Entries are keyed by object key and scope (the purpose, which fixes the request options such as
+ * response headers) and are only handed out during the first half of their signature validity, so a
+ * cached URL always has at least half its lifetime left when a client receives it.
+ */
+@Component
+public class PresignedUrlCache {
+
+    public static final String SCOPE_VIDEO_STREAM = "video-stream";
+    public static final String SCOPE_CERTIFICATE = "certificate";
+    public static final String SCOPE_LESSON_RESOURCE = "lesson-resource";
+
+    private final ObjectStorage objectStorage;
+    private final BoundedCache<CacheKey, String> urls;
+    private final Set<String> scopes = ConcurrentHashMap.newKeySet();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PresignedUrlCache(ObjectStorage objectStorage,
+                             @Value("${aws.s3.presigned-url-cache.max-size:50000}") int maxSize,
+                             MeterRegistry meterRegistry) {
+        this.objectStorage = objectStorage;
+        this.urls = new BoundedCache<>(maxSize, Duration.ZERO);
+        this.hits = meterRegistry.counter("presigned.url.cache", "result", "hit");
+        this.misses = meterRegistry.counter("presigned.url.cache", "result", "miss");
+        Gauge.builder("presigned.url.cache.size", urls, BoundedCache::size).register(meterRegistry);
+    }
+
+    private record CacheKey(String key, String scope) {
+    }
+
+    public String getObjectUrl(String scope, String key, Duration validity) {
+        return getObjectUrl(scope, key, validity, null);
+    }
+
+    public String getObjectUrl(String scope, String key, Duration validity, String responseCacheControl) {
+        CacheKey cacheKey = new CacheKey(key, scope);
+        String cached = urls.get(cacheKey);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long now = System.currentTimeMillis();
+        String url = objectStorage.presignGet(key, validity, responseCacheControl);
+        scopes.add(scope);
+        urls.put(cacheKey, url, now + validity.toMillis() / 2);
+        return url;
+    }
+
+    public void invalidate(String key) {
+        for (String scope : scopes) {
+            urls.remove(new CacheKey(key, scope));
+        }
+    }
+
+    public int size() {
+        return urls.size();
+    }
+}
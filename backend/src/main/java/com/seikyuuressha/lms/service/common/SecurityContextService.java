@@ -4,8 +4,11 @@ import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.UUID;
 
@@ -13,8 +16,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SecurityContextService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityContextService.class.getName() + ".currentUser";
+    private static final String CURRENT_IDENTITY_ATTRIBUTE = SecurityContextService.class.getName() + ".currentIdentity";
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final UserRepository userRepository;
 
+    public record CurrentIdentity(UUID userId, String roleName, boolean active) {
+    }
+
     
     public UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -44,46 +54,97 @@ public class SecurityContextService {
     
     public Users getCurrentUser() {
         UUID userId = getCurrentUserId();
-        return userRepository.findById(userId)
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Users cached
+                && userId.equals(cached.getUserId())) {
+            return cached;
+        }
+
+        Users user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * Caller identity memoized per request; the role is read from the granted authorities when present.
+     */
+    public CurrentIdentity getCurrentIdentity() {
+        UUID userId = getOptionalCurrentUserId();
+        if (userId == null) {
+            return null;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_IDENTITY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentIdentity cached
+                && userId.equals(cached.userId())) {
+            return cached;
+        }
+
+        String roleName = getGrantedRole();
+        CurrentIdentity identity;
+        if (roleName != null) {
+            identity = new CurrentIdentity(userId, roleName, true);
+        } else {
+            Users user = getCurrentUser();
+            identity = new CurrentIdentity(userId, user.getRole().getRoleName(), user.isActive());
+        }
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_IDENTITY_ATTRIBUTE, identity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return identity;
     }
 
     
     public Users getCurrentInstructor() {
-        Users user = getCurrentUser();
-
-        if (!"INSTRUCTOR".equals(user.getRole().getRoleName()) &&
-            !"ADMIN".equals(user.getRole().getRoleName())) {
+        if (!isInstructor()) {
             throw new RuntimeException("User is not an instructor");
         }
-
-        return user;
+        return getCurrentUser();
     }
 
     
     public boolean isAdmin() {
-        Users user = getCurrentUser();
-        return "ADMIN".equals(user.getRole().getRoleName());
+        return "ADMIN".equals(getCurrentRole());
     }
 
     
     public boolean isInstructor() {
-        Users user = getCurrentUser();
-        String role = user.getRole().getRoleName();
+        String role = getCurrentRole();
         return "INSTRUCTOR".equals(role) || "ADMIN".equals(role);
     }
 
     
     public boolean hasRole(String roleName) {
         try {
-            UUID userId = getOptionalCurrentUserId();
-            if (userId == null) {
-                return false;
-            }
-            Users user = userRepository.findById(userId).orElse(null);
-            return user != null && roleName.equals(user.getRole().getRoleName());
+            CurrentIdentity identity = getCurrentIdentity();
+            return identity != null && roleName.equals(identity.roleName());
         } catch (Exception e) {
             return false;
         }
     }
+
+    private String getCurrentRole() {
+        getCurrentUserId();
+        return getCurrentIdentity().roleName();
+    }
+
+    private String getGrantedRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return name.substring(ROLE_PREFIX.length());
+            }
+        }
+        return null;
+    }
 }
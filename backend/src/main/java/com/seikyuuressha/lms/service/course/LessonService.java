@@ -9,11 +9,17 @@ import com.seikyuuressha.lms.entity.Users;
 import com.seikyuuressha.lms.mapper.LessonMapper;
 import com.seikyuuressha.lms.repository.CourseInstructorRepository;
 import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.LessonResourceRepository;
 import com.seikyuuressha.lms.repository.ModuleRepository;
 import com.seikyuuressha.lms.repository.ProgressRepository;
 import com.seikyuuressha.lms.repository.QuizRepository;
 import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
 import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.progress.EnrollmentProgressUpdater;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.video.MultipartUploadManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,10 +37,16 @@ public class LessonService {
     private final ModuleRepository moduleRepository;
     private final ProgressRepository progressRepository;
     private final VideoRepository videoRepository;
+    private final LessonResourceRepository lessonResourceRepository;
     private final QuizRepository quizRepository;
     private final CourseInstructorRepository courseInstructorRepository;
     private final SecurityContextService securityContextService;
     private final LessonMapper lessonMapper;
+    private final ProgressIngestionBuffer progressIngestionBuffer;
+    private final EnrollmentProgressUpdater enrollmentProgressUpdater;
+    private final CourseCatalogService courseCatalogService;
+    private final ObjectDeletionQueue objectDeletionQueue;
+    private final MultipartUploadManager multipartUploadManager;
 
     
     @Transactional
@@ -54,6 +66,8 @@ public class LessonService {
 
         lesson = lessonRepository.save(lesson);
         log.info("Lesson created. LessonId: {}, ModuleId: {}", lesson.getLessonId(), module.getModuleId());
+        enrollmentProgressUpdater.scheduleRecompute(module.getCourse().getCourseId());
+        courseCatalogService.courseChanged(module.getCourse().getCourseId());
 
         return lessonMapper.toLessonResponseSimple(lesson);
     }
@@ -77,6 +91,9 @@ public class LessonService {
         }
 
         lesson = lessonRepository.save(lesson);
+        if (request.getDurationSeconds() != null || request.getTitle() != null) {
+            courseCatalogService.courseChanged(lesson.getModule().getCourse().getCourseId());
+        }
         return lessonMapper.toLessonResponseSimple(lesson);
     }
 
@@ -85,7 +102,7 @@ public class LessonService {
     public Boolean deleteLesson(UUID lessonId) {
         Lesson lesson = getLessonByIdAndVerifyOwnership(lessonId);
 
-        if (progressRepository.existsByLesson_LessonId(lessonId)) {
+        if (progressRepository.existsByLesson_LessonId(lessonId) || progressIngestionBuffer.hasLesson(lessonId)) {
             throw new RuntimeException("Cannot delete lesson with student progress");
         }
 
@@ -97,13 +114,19 @@ public class LessonService {
         quizRepository.deleteByLesson_LessonId(lessonId);
         log.info("Deleted quiz cascade for lesson. LessonId: {}", lessonId);
 
+        List<String> objectKeys = new ArrayList<>(lessonResourceRepository.findS3KeysByLessonId(lessonId));
         videoRepository.findByLesson_LessonId(lessonId).ifPresent(video -> {
+            multipartUploadManager.abortForDeletion(video);
+            objectKeys.add(video.getS3Key());
             videoRepository.delete(video);
             log.info("Deleted video for lesson. VideoId: {}", video.getVideoId());
         });
+        objectDeletionQueue.enqueue(objectKeys);
 
         lessonRepository.delete(lesson);
         log.info("Lesson deleted. LessonId: {}", lessonId);
+        enrollmentProgressUpdater.scheduleRecompute(lesson.getModule().getCourse().getCourseId());
+        courseCatalogService.courseChanged(lesson.getModule().getCourse().getCourseId());
         return true;
     }
 
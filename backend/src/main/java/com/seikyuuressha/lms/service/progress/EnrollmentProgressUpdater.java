@@ -0,0 +1,109 @@
+package com.seikyuuressha.lms.service.progress;
+
+import com.seikyuuressha.lms.repository.EnrollmentRepository;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.seikyuuressha.lms.service.common.CourseCompletionCalculator.LESSON_COMPLETED_THRESHOLD;
+
+@Component
+@Slf4j
+public class EnrollmentProgressUpdater {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final LessonRepository lessonRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<UUID> pendingRecomputes = ConcurrentHashMap.newKeySet();
+
+    public EnrollmentProgressUpdater(EnrollmentRepository enrollmentRepository,
+                                     LessonRepository lessonRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.lessonRepository = lessonRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public record UserCourse(UUID userId, UUID courseId) {
+    }
+
+    public static boolean crossesThreshold(double previousPercent, double newPercent) {
+        return previousPercent < LESSON_COMPLETED_THRESHOLD && newPercent >= LESSON_COMPLETED_THRESHOLD;
+    }
+
+
+    public void addCompletedLessons(Map<UserCourse, Integer> completedByUserCourse) {
+        if (completedByUserCourse.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> courseIds = new HashSet<>();
+        completedByUserCourse.keySet().forEach(k -> courseIds.add(k.courseId()));
+        Map<UUID, Long> totals = new HashMap<>();
+        for (Object[] row : lessonRepository.countByCourseIds(courseIds)) {
+            totals.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+
+        completedByUserCourse.forEach((key, delta) -> {
+            long total = totals.getOrDefault(key.courseId(), 0L);
+            if (total > 0) {
+                enrollmentRepository.addCompletedLessons(key.userId(), key.courseId(), delta, total);
+            }
+        });
+    }
+
+
+    public void scheduleRecompute(UUID courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingRecomputes.add(courseId);
+                }
+            });
+        } else {
+            pendingRecomputes.add(courseId);
+        }
+    }
+
+
+    @Scheduled(fixedDelayString = "${progress.recompute.interval-ms:10000}")
+    public void runPendingRecomputes() {
+        for (UUID courseId : new ArrayList<>(pendingRecomputes)) {
+            pendingRecomputes.remove(courseId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> recomputeCourse(courseId));
+            } catch (Exception e) {
+                log.warn("Enrollment progress recompute failed for course {}, will retry: {}", courseId, e.getMessage());
+                pendingRecomputes.add(courseId);
+            }
+        }
+    }
+
+
+    @PreDestroy
+    public void drain() {
+        runPendingRecomputes();
+    }
+
+    void recomputeCourse(UUID courseId) {
+        long total = lessonRepository.countByCourseId(courseId);
+        if (total == 0) {
+            enrollmentRepository.resetProgress(courseId);
+        } else {
+            enrollmentRepository.recountCompletedLessons(courseId, LESSON_COMPLETED_THRESHOLD);
+            enrollmentRepository.recalculateProgressPercent(courseId, total);
+        }
+        log.info("Recomputed enrollment progress. CourseId: {}, TotalLessons: {}", courseId, total);
+    }
+}
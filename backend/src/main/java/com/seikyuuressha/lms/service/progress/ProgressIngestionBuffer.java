@@ -0,0 +1,383 @@
+package com.seikyuuressha.lms.service.progress;
+
+import com.seikyuuressha.lms.dto.response.ProgressResponse;
+import com.seikyuuressha.lms.entity.Progress;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.ProgressRepository;
+import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.service.progress.EnrollmentProgressUpdater.UserCourse;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ProgressIngestionBuffer {
+
+    private final ProgressRepository progressRepository;
+    private final UserRepository userRepository;
+    private final LessonRepository lessonRepository;
+    private final EnrollmentProgressUpdater enrollmentProgressUpdater;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Key, BufferedProgress> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<BufferedProgress>> entriesByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<BufferedProgress>> entriesByLesson = new ConcurrentHashMap<>();
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${progress.buffer.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${progress.buffer.idle-timeout-ms:120000}")
+    private long idleTimeoutMs;
+
+    public ProgressIngestionBuffer(ProgressRepository progressRepository,
+                                   UserRepository userRepository,
+                                   LessonRepository lessonRepository,
+                                   EnrollmentProgressUpdater enrollmentProgressUpdater,
+                                   PlatformTransactionManager transactionManager) {
+        this.progressRepository = progressRepository;
+        this.userRepository = userRepository;
+        this.lessonRepository = lessonRepository;
+        this.enrollmentProgressUpdater = enrollmentProgressUpdater;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record Key(UUID userId, UUID lessonId) {
+    }
+
+    @Getter
+    @Builder
+    public static class ProgressSeed {
+        private final UUID userId;
+        private final UUID lessonId;
+        private final UUID courseId;
+        private final String lessonTitle;
+        private final UUID progressId;
+        private final boolean persisted;
+        private final int watchedSeconds;
+        private final double progressPercent;
+    }
+
+
+    public Optional<ProgressResponse> merge(UUID userId, UUID lessonId, Integer watchedSeconds, Double progressPercent) {
+        BufferedProgress entry = entries.get(new Key(userId, lessonId));
+        ProgressResponse response = entry != null ? apply(entry, watchedSeconds, progressPercent) : null;
+        if (response == null) {
+            // Not buffered, or evicted while we were applying: the caller re-seeds from the database.
+            return Optional.empty();
+        }
+        flushIfFull();
+        return Optional.of(response);
+    }
+
+
+    public ProgressResponse track(ProgressSeed seed, Integer watchedSeconds, Double progressPercent) {
+        Key key = new Key(seed.getUserId(), seed.getLessonId());
+        ProgressResponse response;
+        do {
+            BufferedProgress entry = entries.computeIfAbsent(key, k -> index(new BufferedProgress(seed)));
+            response = apply(entry, watchedSeconds, progressPercent);
+        } while (response == null);
+        flushIfFull();
+        return response;
+    }
+
+
+    public Optional<ProgressResponse> find(UUID userId, UUID lessonId) {
+        BufferedProgress entry = entries.get(new Key(userId, lessonId));
+        return entry != null ? Optional.of(entry.toResponse()) : Optional.empty();
+    }
+
+
+    public List<ProgressResponse> findByUser(UUID userId, UUID courseId) {
+        return entriesByUser.getOrDefault(userId, Collections.emptySet()).stream()
+                .filter(e -> courseId == null || e.courseId.equals(courseId))
+                .map(BufferedProgress::toResponse)
+                .collect(Collectors.toList());
+    }
+
+
+    public void discardUserCourse(UUID userId, UUID courseId) {
+        for (BufferedProgress entry : entriesByUser.getOrDefault(userId, Collections.emptySet())) {
+            if (entry.courseId.equals(courseId)) {
+                discard(entry);
+            }
+        }
+    }
+
+
+    public boolean hasLesson(UUID lessonId) {
+        return entriesByLesson.containsKey(lessonId);
+    }
+
+
+    @Scheduled(fixedDelayString = "${progress.buffer.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushDirtyEntries();
+            evictIdleEntries();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+
+    @PreDestroy
+    public void drain() {
+        log.info("Draining progress buffer. Pending entries: {}", dirtyCount.get());
+        flush();
+    }
+
+    /** Returns null when the entry was removed from the buffer before the lock was taken. */
+    private ProgressResponse apply(BufferedProgress entry, Integer watchedSeconds, Double progressPercent) {
+        synchronized (entry) {
+            if (entry.dead) {
+                return null;
+            }
+            if (watchedSeconds != null && watchedSeconds > entry.watchedSeconds) {
+                entry.watchedSeconds = watchedSeconds;
+            }
+            if (progressPercent != null && progressPercent > entry.progressPercent) {
+                entry.progressPercent = progressPercent;
+            }
+            entry.lastWatchedAt = OffsetDateTime.now();
+            entry.lastTouchedNanos = System.nanoTime();
+            if (!entry.dirty) {
+                entry.dirty = true;
+                dirtyCount.incrementAndGet();
+            }
+            return entry.toResponse();
+        }
+    }
+
+    private void discard(BufferedProgress entry) {
+        synchronized (entry) {
+            if (entry.dirty) {
+                entry.dirty = false;
+                dirtyCount.decrementAndGet();
+            }
+            remove(entry);
+        }
+    }
+
+    /**
+     * Called with the entry's monitor held, so a concurrent {@link #apply} either lands before the removal or sees
+     * the entry dead and retries against the map.
+     */
+    private void remove(BufferedProgress entry) {
+        if (entry.dead) {
+            return;
+        }
+        entry.dead = true;
+        entries.remove(new Key(entry.userId, entry.lessonId), entry);
+        unindex(entriesByUser, entry.userId, entry);
+        unindex(entriesByLesson, entry.lessonId, entry);
+    }
+
+    private BufferedProgress index(BufferedProgress entry) {
+        index(entriesByUser, entry.userId, entry);
+        index(entriesByLesson, entry.lessonId, entry);
+        return entry;
+    }
+
+    private static void index(Map<UUID, Set<BufferedProgress>> index, UUID id, BufferedProgress entry) {
+        index.compute(id, (k, indexed) -> {
+            Set<BufferedProgress> set = indexed != null ? indexed : ConcurrentHashMap.newKeySet();
+            set.add(entry);
+            return set;
+        });
+    }
+
+    private static void unindex(Map<UUID, Set<BufferedProgress>> index, UUID id, BufferedProgress entry) {
+        index.computeIfPresent(id, (k, indexed) -> {
+            indexed.remove(entry);
+            return indexed.isEmpty() ? null : indexed;
+        });
+    }
+
+    private void flushIfFull() {
+        if (dirtyCount.get() >= maxBatchSize && flushLock.tryLock()) {
+            try {
+                flushDirtyEntries();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void flushDirtyEntries() {
+        List<Snapshot> pending = new ArrayList<>();
+        for (BufferedProgress entry : entries.values()) {
+            Snapshot snapshot = entry.takeSnapshot();
+            if (snapshot != null) {
+                pending.add(snapshot);
+                if (pending.size() >= maxBatchSize) {
+                    writeBatch(pending);
+                    pending = new ArrayList<>();
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            writeBatch(pending);
+        }
+    }
+
+    private void writeBatch(List<Snapshot> batch) {
+        dirtyCount.addAndGet(-batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(batch));
+            batch.forEach(s -> s.entry.persisted = true);
+            log.debug("Flushed {} buffered progress updates", batch.size());
+        } catch (Exception e) {
+            log.warn("Batched progress flush failed, retrying {} entries one by one: {}", batch.size(), e.getMessage());
+            for (Snapshot snapshot : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> upsertByKey(snapshot));
+                    snapshot.entry.persisted = true;
+                } catch (Exception ex) {
+                    log.error("Dropping progress update for user {} lesson {}: {}",
+                            snapshot.entry.userId, snapshot.entry.lessonId, ex.getMessage());
+                    discard(snapshot.entry);
+                }
+            }
+        }
+    }
+
+    private void upsert(List<Snapshot> batch) {
+        Map<UUID, Progress> existing = progressRepository.findAllById(batch.stream()
+                        .filter(s -> s.entry.persisted)
+                        .map(s -> s.entry.progressId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Progress::getProgressId, Function.identity()));
+
+        Map<UserCourse, Integer> completed = new HashMap<>();
+        List<Progress> toSave = new ArrayList<>(batch.size());
+        for (Snapshot snapshot : batch) {
+            Progress progress = existing.get(snapshot.entry.progressId);
+            toSave.add(progress != null ? mergeInto(progress, snapshot, completed) : newProgress(snapshot, completed));
+        }
+        progressRepository.saveAll(toSave);
+        enrollmentProgressUpdater.addCompletedLessons(completed);
+    }
+
+    private void upsertByKey(Snapshot snapshot) {
+        Map<UserCourse, Integer> completed = new HashMap<>();
+        Progress progress = progressRepository
+                .findByUser_UserIdAndLesson_LessonId(snapshot.entry.userId, snapshot.entry.lessonId)
+                .map(p -> mergeInto(p, snapshot, completed))
+                .orElseGet(() -> newProgress(snapshot, completed));
+        progressRepository.save(progress);
+        enrollmentProgressUpdater.addCompletedLessons(completed);
+    }
+
+    private Progress mergeInto(Progress progress, Snapshot snapshot, Map<UserCourse, Integer> completed) {
+        if (snapshot.watchedSeconds > progress.getWatchedSeconds()) {
+            progress.setWatchedSeconds(snapshot.watchedSeconds);
+        }
+        if (snapshot.progressPercent > progress.getProgressPercent()) {
+            countCompletion(progress.getProgressPercent(), snapshot, completed);
+            progress.setProgressPercent(snapshot.progressPercent);
+        }
+        progress.setLastWatchedAt(snapshot.lastWatchedAt);
+        return progress;
+    }
+
+    private Progress newProgress(Snapshot snapshot, Map<UserCourse, Integer> completed) {
+        countCompletion(0.0, snapshot, completed);
+        return Progress.builder()
+                .progressId(snapshot.entry.progressId)
+                .user(userRepository.getReferenceById(snapshot.entry.userId))
+                .lesson(lessonRepository.getReferenceById(snapshot.entry.lessonId))
+                .watchedSeconds(snapshot.watchedSeconds)
+                .progressPercent(snapshot.progressPercent)
+                .lastWatchedAt(snapshot.lastWatchedAt)
+                .build();
+    }
+
+    private void countCompletion(double previousPercent, Snapshot snapshot, Map<UserCourse, Integer> completed) {
+        if (EnrollmentProgressUpdater.crossesThreshold(previousPercent, snapshot.progressPercent)) {
+            completed.merge(new UserCourse(snapshot.entry.userId, snapshot.entry.courseId), 1, Integer::sum);
+        }
+    }
+
+    private void evictIdleEntries() {
+        long cutoff = System.nanoTime() - Duration.ofMillis(idleTimeoutMs).toNanos();
+        for (BufferedProgress entry : entries.values()) {
+            synchronized (entry) {
+                if (!entry.dirty && entry.lastTouchedNanos - cutoff < 0) {
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    private record Snapshot(BufferedProgress entry, int watchedSeconds, double progressPercent,
+                            OffsetDateTime lastWatchedAt) {
+    }
+
+    private static class BufferedProgress {
+        final UUID userId;
+        final UUID lessonId;
+        final UUID courseId;
+        final String lessonTitle;
+        final UUID progressId;
+        volatile boolean persisted;
+        int watchedSeconds;
+        double progressPercent;
+        OffsetDateTime lastWatchedAt;
+        long lastTouchedNanos;
+        boolean dirty;
+        boolean dead;
+
+        BufferedProgress(ProgressSeed seed) {
+            this.userId = seed.getUserId();
+            this.lessonId = seed.getLessonId();
+            this.courseId = seed.getCourseId();
+            this.lessonTitle = seed.getLessonTitle();
+            this.progressId = seed.getProgressId();
+            this.persisted = seed.isPersisted();
+            this.watchedSeconds = seed.getWatchedSeconds();
+            this.progressPercent = seed.getProgressPercent();
+            this.lastWatchedAt = OffsetDateTime.now();
+            this.lastTouchedNanos = System.nanoTime();
+        }
+
+        synchronized Snapshot takeSnapshot() {
+            if (!dirty || dead) {
+                return null;
+            }
+            dirty = false;
+            return new Snapshot(this, watchedSeconds, progressPercent, lastWatchedAt);
+        }
+
+        synchronized ProgressResponse toResponse() {
+            return ProgressResponse.builder()
+                    .progressId(progressId)
+                    .lessonId(lessonId)
+                    .lessonTitle(lessonTitle)
+                    .watchedSeconds(watchedSeconds)
+                    .progressPercent(progressPercent)
+                    .lastWatchedAt(lastWatchedAt)
+                    .build();
+        }
+    }
+}
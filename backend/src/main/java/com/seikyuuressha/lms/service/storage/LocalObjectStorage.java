@@ -0,0 +1,347 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.util.UrlSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects as files under {@code storage.local.root}. Presigned URLs point at
+ * {@link com.seikyuuressha.lms.controller.LocalStorageController} and carry an HMAC over the method, key, expiry and
+ * request options, so they can be handed to browsers exactly like S3 URLs. Multipart uploads stage their parts
+ * under {@code .multipart/<uploadId>/} and are stitched together with {@link FileChannel#transferTo}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    static final String MULTIPART_DIR = ".multipart";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final String baseUrl;
+    private final UrlSigner urlSigner;
+    private final List<String> publicPrefixes;
+
+    public LocalObjectStorage(@Value("${storage.local.root:./storage}") String root,
+                              @Value("${storage.local.base-url:http://localhost:8080}") String baseUrl,
+                              @Value("${storage.local.signing-secret:}") String signingSecret,
+                              @Value("${storage.local.public-prefixes:images/}") List<String> publicPrefixes) throws IOException {
+        this.root = Files.createDirectories(Path.of(root)).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        if (signingSecret.isBlank()) {
+            log.warn("storage.local.signing-secret is not set; signed URLs will not survive a restart");
+        }
+        this.urlSigner = new UrlSigner(signingSecret);
+        this.publicPrefixes = publicPrefixes;
+    }
+
+    @Override
+    public String location() {
+        return root.toString();
+    }
+
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root) || key.startsWith(MULTIPART_DIR)) {
+            throw new RuntimeException("Invalid object key");
+        }
+        return path;
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        write(key, new ByteArrayInputStream(content));
+    }
+
+    public void write(String key, InputStream content) {
+        Path target = resolve(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+            try {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Object not found: " + key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int readRange(String key, long position, ByteBuffer target) {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            if (position >= channel.size()) {
+                return -1;
+            }
+            int total = 0;
+            while (target.hasRemaining()) {
+                int read = channel.read(target, position + total);
+                if (read == -1) {
+                    break;
+                }
+                total += read;
+            }
+            return total;
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Object not found: " + key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> head(String key) {
+        Path path = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObject(key, attributes.size(), Files.probeContentType(path),
+                    attributes.lastModifiedTime().toInstant().atOffset(ZoneOffset.UTC)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to delete {}: {}", key, e.getMessage());
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Stream<StoredObject> list(String prefix) {
+        Path multipart = root.resolve(MULTIPART_DIR);
+        try {
+            return Files.walk(root)
+                    .filter(path -> !path.startsWith(multipart) && Files.isRegularFile(path))
+                    .filter(path -> !path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .map(path -> root.relativize(path).toString().replace('\\', '/'))
+                    .filter(key -> key.startsWith(prefix))
+                    .map(this::head)
+                    .flatMap(Optional::stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String presignGet(String key, Duration validity, String responseCacheControl) {
+        long expires = expiresAt(validity);
+        String url = objectUrl(key) + "?expires=" + expires + "&signature=" + sign("GET", key, expires, responseCacheControl);
+        if (responseCacheControl != null) {
+            url += "&cacheControl=" + UriUtils.encodeQueryParam(responseCacheControl, StandardCharsets.UTF_8);
+        }
+        return url;
+    }
+
+    @Override
+    public String presignPut(String key, Duration validity, String contentType) {
+        long expires = expiresAt(validity);
+        return objectUrl(key) + "?expires=" + expires + "&signature=" + sign("PUT", key, expires, null);
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return objectUrl(key);
+    }
+
+    /**
+     * Matches the prefixes against the key as it resolves on disk, so {@code images/../certificates/...} is not
+     * served as public.
+     */
+    public boolean isPublic(String key) {
+        String normalized = root.relativize(root.resolve(key).normalize()).toString().replace(File.separatorChar, '/');
+        return publicPrefixes.stream().anyMatch(normalized::startsWith);
+    }
+
+    /**
+     * Checks a signature produced by one of the presign methods. {@code options} is the cache-control value for
+     * GETs and {@code uploadId:partNumber} for part uploads.
+     */
+    public boolean verify(String method, String key, long expires, String options, String signature) {
+        return urlSigner.verify(payload(method, key, expires, options), expires, signature);
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) {
+        resolve(key);
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(uploadDir(uploadId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return uploadId;
+    }
+
+    @Override
+    public String presignUploadPart(String key, String uploadId, int partNumber, Duration validity) {
+        long expires = expiresAt(validity);
+        return objectUrl(key) + "?uploadId=" + uploadId + "&partNumber=" + partNumber + "&expires=" + expires
+                + "&signature=" + sign("PUT", key, expires, uploadId + ":" + partNumber);
+    }
+
+    /** Stores one part of a multipart upload and returns its ETag (MD5 hex, as S3 does for single parts). */
+    public String writePart(String uploadId, int partNumber, InputStream content) {
+        Path dir = uploadDir(uploadId);
+        if (!Files.isDirectory(dir)) {
+            throw new RuntimeException("Multipart upload not found");
+        }
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            Path temp = Files.createTempFile(dir, String.valueOf(partNumber), TEMP_SUFFIX);
+            try {
+                Files.copy(new DigestInputStream(content, md5), temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, dir.resolve(String.valueOf(partNumber)),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return HexFormat.of().formatHex(md5.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        Path target = resolve(key);
+        Path dir = uploadDir(uploadId);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    for (CompletedPart part : parts) {
+                        appendPart(dir, part.partNumber(), out);
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteUploadDir(dir);
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        deleteUploadDir(uploadDir(uploadId));
+    }
+
+    private static void appendPart(Path dir, int partNumber, FileChannel out) throws IOException {
+        try (FileChannel in = FileChannel.open(dir.resolve(String.valueOf(partNumber)), StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Part " + partNumber + " was not uploaded");
+        }
+    }
+
+    private Path uploadDir(String uploadId) {
+        Path dir = root.resolve(MULTIPART_DIR).resolve(uploadId).normalize();
+        if (!dir.getParent().equals(root.resolve(MULTIPART_DIR))) {
+            throw new RuntimeException("Invalid upload id");
+        }
+        return dir;
+    }
+
+    private void deleteUploadDir(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String objectUrl(String key) {
+        return baseUrl + "/storage/" + UriUtils.encodePath(key, StandardCharsets.UTF_8);
+    }
+
+    private static long expiresAt(Duration validity) {
+        return OffsetDateTime.now().plus(validity).toEpochSecond();
+    }
+
+    private String sign(String method, String key, long expires, String options) {
+        return urlSigner.sign(payload(method, key, expires, options));
+    }
+
+    private static String payload(String method, String key, long expires, String options) {
+        return method + "\n" + key + "\n" + expires + "\n" + (options != null ? options : "");
+    }
+}
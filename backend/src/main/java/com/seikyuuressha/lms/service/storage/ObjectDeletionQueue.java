@@ -0,0 +1,150 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.entity.PendingObjectDeletion;
+import com.seikyuuressha.lms.repository.PendingObjectDeletionRepository;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Deferred removal of stored objects. Services record the keys of the rows they delete with {@link #enqueue}
+ * inside their own transaction, so a rollback keeps the objects and a commit never waits on storage calls;
+ * {@link #drain()} then removes them with batched multi-object deletes. Keys that keep failing are retried on
+ * later runs and dropped after {@code storage.deletion.max-attempts}, leaving them to the orphan sweep.
+ * Multipart uploads that could not be aborted before their video row was deleted are queued the same way with
+ * {@link #enqueueUpload} and aborted by the drain.
+ */
+@Slf4j
+@Service
+public class ObjectDeletionQueue {
+
+    private final PendingObjectDeletionRepository pendingObjectDeletionRepository;
+    private final ObjectStorage objectStorage;
+    private final PresignedUrlCache presignedUrlCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public ObjectDeletionQueue(PendingObjectDeletionRepository pendingObjectDeletionRepository,
+                               ObjectStorage objectStorage,
+                               PresignedUrlCache presignedUrlCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${storage.deletion.batch-size:1000}") int batchSize,
+                               @Value("${storage.deletion.max-attempts:10}") int maxAttempts) {
+        this.pendingObjectDeletionRepository = pendingObjectDeletionRepository;
+        this.objectStorage = objectStorage;
+        this.presignedUrlCache = presignedUrlCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, Math.min(batchSize, ObjectStorage.MAX_BATCH_DELETE));
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Transactional
+    public void enqueue(Collection<String> keys) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<PendingObjectDeletion> deletions = keys.stream()
+                .filter(key -> key != null && !key.isBlank())
+                .distinct()
+                .map(key -> PendingObjectDeletion.builder()
+                        .objectKey(key)
+                        .requestedAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        if (deletions.isEmpty()) {
+            return;
+        }
+        pendingObjectDeletionRepository.saveAll(deletions);
+        deletions.forEach(deletion -> presignedUrlCache.invalidate(deletion.getObjectKey()));
+    }
+
+    @Transactional
+    public void enqueue(String key) {
+        enqueue(Collections.singletonList(key));
+    }
+
+    @Transactional
+    public void enqueueUpload(String key, String uploadId) {
+        pendingObjectDeletionRepository.save(PendingObjectDeletion.builder()
+                .objectKey(key)
+                .uploadId(uploadId)
+                .requestedAt(OffsetDateTime.now())
+                .build());
+    }
+
+    /** Deletes queued objects a batch at a time until the queue is empty or a batch has failures. */
+    @Scheduled(fixedDelayString = "${storage.deletion.drain-interval-ms:30000}")
+    public void drain() {
+        int deleted = 0;
+        while (true) {
+            List<PendingObjectDeletion> batch = pendingObjectDeletionRepository
+                    .findByOrderByAttemptsAscRequestedAtAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Set<String> keys = batch.stream()
+                    .filter(deletion -> deletion.getUploadId() == null)
+                    .map(PendingObjectDeletion::getObjectKey)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Set<String> failed = keys.isEmpty() ? new HashSet<>() : new HashSet<>(objectStorage.deleteAll(keys));
+            Set<UUID> failedUploads = new HashSet<>();
+            for (PendingObjectDeletion deletion : batch) {
+                if (deletion.getUploadId() != null && !abortUpload(deletion)) {
+                    failedUploads.add(deletion.getDeletionId());
+                }
+            }
+
+            List<UUID> done = new ArrayList<>();
+            List<UUID> retry = new ArrayList<>();
+            for (PendingObjectDeletion deletion : batch) {
+                boolean succeeded = deletion.getUploadId() == null
+                        ? !failed.contains(deletion.getObjectKey())
+                        : !failedUploads.contains(deletion.getDeletionId());
+                if (succeeded) {
+                    done.add(deletion.getDeletionId());
+                } else if (deletion.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Giving up deleting {} after {} attempts", deletion.getObjectKey(), maxAttempts);
+                    done.add(deletion.getDeletionId());
+                } else {
+                    retry.add(deletion.getDeletionId());
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!done.isEmpty()) {
+                    pendingObjectDeletionRepository.deleteByIds(done);
+                }
+                if (!retry.isEmpty()) {
+                    pendingObjectDeletionRepository.incrementAttempts(retry);
+                }
+            });
+            deleted += keys.size() - failed.size();
+
+            if (batch.size() < batchSize || !failed.isEmpty() || !failedUploads.isEmpty()) {
+                break;
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} stored objects", deleted);
+        }
+    }
+
+    private boolean abortUpload(PendingObjectDeletion deletion) {
+        try {
+            objectStorage.abortMultipartUpload(deletion.getObjectKey(), deletion.getUploadId());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not abort multipart upload of {}: {}", deletion.getObjectKey(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.seikyuuressha.lms.service.storage;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Where uploaded videos, lesson resources, avatars and certificates live. Selected with {@code storage.backend}:
+ * {@code s3} (default) or {@code local}, which keeps objects on disk and serves them through signed URLs on
+ * this application so single-node deployments and tests need no external service.
+ * <p>
+ * Clients never stream through the application for uploads; they PUT to the URLs returned by
+ * {@link #presignPut} and {@link #presignUploadPart}.
+ */
+public interface ObjectStorage {
+
+    record StoredObject(String key, long size, String contentType, OffsetDateTime lastModified) {
+    }
+
+    record CompletedPart(int partNumber, String etag) {
+    }
+
+    /** Bucket name or root directory, recorded with uploaded videos. */
+    String location();
+
+    void put(String key, byte[] content, String contentType);
+
+    InputStream get(String key);
+
+    /**
+     * Reads up to {@code target.remaining()} bytes starting at {@code position} into {@code target}.
+     * Returns the number of bytes read, or -1 when {@code position} is at or past the end of the object.
+     */
+    int readRange(String key, long position, ByteBuffer target);
+
+    Optional<StoredObject> head(String key);
+
+    void delete(String key);
+
+    /** Maximum number of keys {@link #deleteAll} sends to the backend in one call. */
+    int MAX_BATCH_DELETE = 1000;
+
+    /**
+     * Deletes the given objects, batching up to {@link #MAX_BATCH_DELETE} keys per backend call. Missing objects
+     * count as deleted. Returns the keys that could not be deleted.
+     */
+    List<String> deleteAll(Collection<String> keys);
+
+    /** Lazily lists the objects whose key starts with {@code prefix}; close the stream when done. */
+    Stream<StoredObject> list(String prefix);
+
+    String presignGet(String key, Duration validity, String responseCacheControl);
+
+    String presignPut(String key, Duration validity, String contentType);
+
+    /** URL of an object that is readable without a signature, such as an avatar. */
+    String publicUrl(String key);
+
+    String createMultipartUpload(String key, String contentType);
+
+    String presignUploadPart(String key, String uploadId, int partNumber, Duration validity);
+
+    void completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts);
+
+    /** Aborts the upload; an upload that no longer exists is not an error. */
+    void abortMultipartUpload(String key, String uploadId);
+}
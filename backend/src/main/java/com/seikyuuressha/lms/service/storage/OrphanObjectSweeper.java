@@ -0,0 +1,97 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.repository.CertificateRepository;
+import com.seikyuuressha.lms.repository.LessonResourceRepository;
+import com.seikyuuressha.lms.repository.PendingObjectDeletionRepository;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.storage.ObjectStorage.StoredObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles storage against the database: lists the {@code videos/}, {@code resources/} and {@code certificates/}
+ * prefixes and queues every object no row refers to, such as uploads that were never confirmed or objects of
+ * courses removed by database cascades. Objects younger than {@code storage.orphan-sweep.grace-hours} are skipped
+ * because uploads and certificate renders write the object before the row that references it.
+ * Set {@code storage.orphan-sweep.cron} to {@code -} to disable the sweep.
+ */
+@Slf4j
+@Component
+public class OrphanObjectSweeper {
+
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final ObjectStorage objectStorage;
+    private final ObjectDeletionQueue objectDeletionQueue;
+    private final PendingObjectDeletionRepository pendingObjectDeletionRepository;
+    private final Map<String, Function<Collection<String>, List<String>>> referencedKeysByPrefix;
+
+    @Value("${storage.orphan-sweep.grace-hours:24}")
+    private long graceHours;
+
+    public OrphanObjectSweeper(ObjectStorage objectStorage,
+                               ObjectDeletionQueue objectDeletionQueue,
+                               PendingObjectDeletionRepository pendingObjectDeletionRepository,
+                               VideoRepository videoRepository,
+                               LessonResourceRepository lessonResourceRepository,
+                               CertificateRepository certificateRepository) {
+        this.objectStorage = objectStorage;
+        this.objectDeletionQueue = objectDeletionQueue;
+        this.pendingObjectDeletionRepository = pendingObjectDeletionRepository;
+        this.referencedKeysByPrefix = new LinkedHashMap<>();
+        this.referencedKeysByPrefix.put("videos/", videoRepository::findS3KeysIn);
+        this.referencedKeysByPrefix.put("resources/", lessonResourceRepository::findS3KeysIn);
+        this.referencedKeysByPrefix.put("certificates/", certificateRepository::findPdfKeysIn);
+    }
+
+    @Scheduled(cron = "${storage.orphan-sweep.cron:0 30 3 * * *}")
+    public void sweep() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusHours(graceHours);
+        int orphans = 0;
+        for (Map.Entry<String, Function<Collection<String>, List<String>>> entry : referencedKeysByPrefix.entrySet()) {
+            try (Stream<StoredObject> objects = objectStorage.list(entry.getKey())) {
+                List<String> page = new ArrayList<>(LOOKUP_BATCH_SIZE);
+                Iterator<StoredObject> iterator = objects.iterator();
+                while (iterator.hasNext()) {
+                    StoredObject object = iterator.next();
+                    if (object.lastModified() == null || object.lastModified().isAfter(cutoff)) {
+                        continue;
+                    }
+                    page.add(object.key());
+                    if (page.size() == LOOKUP_BATCH_SIZE) {
+                        orphans += reconcile(page, entry.getValue());
+                        page.clear();
+                    }
+                }
+                if (!page.isEmpty()) {
+                    orphans += reconcile(page, entry.getValue());
+                }
+            } catch (RuntimeException e) {
+                log.error("Orphan sweep of {} failed", entry.getKey(), e);
+            }
+        }
+        if (orphans > 0) {
+            log.info("Queued {} orphaned stored objects for deletion", orphans);
+        }
+    }
+
+    private int reconcile(List<String> keys, Function<Collection<String>, List<String>> referencedKeys) {
+        Set<String> known = new HashSet<>(referencedKeys.apply(keys));
+        known.addAll(pendingObjectDeletionRepository.findObjectKeysIn(keys));
+        List<String> orphans = keys.stream()
+                .filter(key -> !known.contains(key))
+                .collect(Collectors.toList());
+        if (!orphans.isEmpty()) {
+            objectDeletionQueue.enqueue(orphans);
+        }
+        return orphans.size();
+    }
+}
@@ -0,0 +1,251 @@
+package com.seikyuuressha.lms.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final String region;
+
+    public S3ObjectStorage(S3Client s3Client,
+                           S3Presigner s3Presigner,
+                           @Value("${aws.s3.bucket-name}") String bucketName,
+                           @Value("${aws.s3.region}") String region) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        this.region = region;
+    }
+
+    @Override
+    public String location() {
+        return bucketName;
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromBytes(content));
+    }
+
+    @Override
+    public InputStream get(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    @Override
+    public int readRange(String key, long position, ByteBuffer target) {
+        if (!target.hasRemaining()) {
+            return 0;
+        }
+        long last = position + target.remaining() - 1;
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + position + "-" + last)
+                .build())) {
+            byte[] buffer = new byte[(int) Math.min(64 * 1024, target.remaining())];
+            int total = 0;
+            int read;
+            while (target.hasRemaining()
+                    && (read = in.read(buffer, 0, Math.min(buffer.length, target.remaining()))) != -1) {
+                target.put(buffer, 0, read);
+                total += read;
+            }
+            return total;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 416) {
+                return -1;
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> head(String key) {
+        try {
+            HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return Optional.of(new StoredObject(key, response.contentLength(), response.contentType(),
+                    response.lastModified() != null ? response.lastModified().atOffset(ZoneOffset.UTC) : null));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> remaining = new ArrayList<>(keys);
+        List<String> failed = new ArrayList<>();
+        for (int from = 0; from < remaining.size(); from += MAX_BATCH_DELETE) {
+            List<String> batch = remaining.subList(from, Math.min(from + MAX_BATCH_DELETE, remaining.size()));
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .quiet(true)
+                                .objects(batch.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .collect(Collectors.toList()))
+                                .build())
+                        .build());
+                for (S3Error error : response.errors()) {
+                    log.warn("Failed to delete {}: {} {}", error.key(), error.code(), error.message());
+                    failed.add(error.key());
+                }
+            } catch (SdkException e) {
+                log.warn("Batch delete of {} objects failed: {}", batch.size(), e.getMessage());
+                failed.addAll(batch);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Stream<StoredObject> list(String prefix) {
+        return s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .build())
+                .contents().stream()
+                .map(object -> new StoredObject(object.key(), object.size(), null,
+                        OffsetDateTime.ofInstant(object.lastModified(), ZoneOffset.UTC)));
+    }
+
+    @Override
+    public String presignGet(String key, Duration validity, String responseCacheControl) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key);
+        if (responseCacheControl != null) {
+            request.responseCacheControl(responseCacheControl);
+        }
+        return s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(validity)
+                        .getObjectRequest(request.build())
+                        .build())
+                .url().toString();
+    }
+
+    @Override
+    public String presignPut(String key, Duration validity, String contentType) {
+        return s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                        .signatureDuration(validity)
+                        .putObjectRequest(PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .contentType(contentType)
+                                .build())
+                        .build())
+                .url().toString();
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) {
+        return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .uploadId();
+    }
+
+    @Override
+    public String presignUploadPart(String key, String uploadId, int partNumber, Duration validity) {
+        return s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                        .signatureDuration(validity)
+                        .uploadPartRequest(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .build())
+                        .build())
+                .url().toString();
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(parts.stream()
+                                .map(part -> software.amazon.awssdk.services.s3.model.CompletedPart.builder()
+                                        .partNumber(part.partNumber())
+                                        .eTag(part.etag())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .build());
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload {} already gone", uploadId);
+        }
+    }
+}
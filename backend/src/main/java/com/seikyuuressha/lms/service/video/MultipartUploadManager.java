@@ -0,0 +1,239 @@
+package com.seikyuuressha.lms.service.video;
+
+import com.seikyuuressha.lms.dto.request.UploadedPartInput;
+import com.seikyuuressha.lms.dto.response.UploadPartUrlResponse;
+import com.seikyuuressha.lms.dto.response.UploadedPartResponse;
+import com.seikyuuressha.lms.dto.response.VideoUploadSessionResponse;
+import com.seikyuuressha.lms.entity.Video;
+import com.seikyuuressha.lms.entity.VideoUploadPart;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.repository.VideoUploadPartRepository;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Multipart uploads for lecture videos. A session lives on the {@link Video} row (upload id and part size)
+ * while the client uploads parts in parallel through presigned URLs and reports each part's ETag back, so an
+ * interrupted upload resumes from the parts already recorded instead of starting over.
+ * <p>
+ * Sessions with no recorded activity for {@code aws.s3.multipart.abandon-after-hours} are aborted by
+ * {@link #abortAbandonedUploads()} so their parts stop accruing storage. Services deleting video rows call
+ * {@link #abortForDeletion} so the sweep is not needed for uploads it can no longer see.
+ */
+@Slf4j
+@Component
+public class MultipartUploadManager {
+
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final int MAX_PARTS = 10_000;
+
+    private final VideoRepository videoRepository;
+    private final VideoUploadPartRepository videoUploadPartRepository;
+    private final ObjectStorage objectStorage;
+    private final ObjectDeletionQueue objectDeletionQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final long partSize;
+    private final int maxUrlsPerRequest;
+
+    @Value("${aws.s3.presigned-url-expiration:3600}")
+    private long presignedUrlExpiration;
+
+    @Value("${aws.s3.multipart.abandon-after-hours:24}")
+    private long abandonAfterHours;
+
+    public MultipartUploadManager(VideoRepository videoRepository,
+                                  VideoUploadPartRepository videoUploadPartRepository,
+                                  ObjectStorage objectStorage,
+                                  ObjectDeletionQueue objectDeletionQueue,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${aws.s3.multipart.part-size-mb:16}") long partSizeMb,
+                                  @Value("${aws.s3.multipart.max-urls-per-request:100}") int maxUrlsPerRequest) {
+        this.videoRepository = videoRepository;
+        this.videoUploadPartRepository = videoUploadPartRepository;
+        this.objectStorage = objectStorage;
+        this.objectDeletionQueue = objectDeletionQueue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        this.maxUrlsPerRequest = maxUrlsPerRequest;
+    }
+
+    public void start(Video video) {
+        Long fileSize = video.getFileSize();
+        if (fileSize == null || fileSize <= 0) {
+            throw new RuntimeException("File size is required for a multipart upload");
+        }
+
+        video.setMultipartUploadId(objectStorage.createMultipartUpload(video.getS3Key(), video.getMimeType()));
+        video.setPartSize(Math.max(partSize, ceilDiv(fileSize, MAX_PARTS)));
+    }
+
+    public List<UploadPartUrlResponse> presignParts(Video video, List<Integer> partNumbers) {
+        requireSession(video);
+        if (partNumbers.isEmpty() || partNumbers.size() > maxUrlsPerRequest) {
+            throw new RuntimeException("Request between 1 and " + maxUrlsPerRequest + " part URLs at a time");
+        }
+
+        int partCount = partCount(video);
+        Duration expiration = Duration.ofSeconds(presignedUrlExpiration);
+        List<UploadPartUrlResponse> urls = new ArrayList<>(partNumbers.size());
+        for (Integer partNumber : new TreeSet<>(partNumbers)) {
+            requirePartNumber(partNumber, partCount);
+            urls.add(UploadPartUrlResponse.builder()
+                    .partNumber(partNumber)
+                    .uploadUrl(objectStorage.presignUploadPart(video.getS3Key(), video.getMultipartUploadId(),
+                            partNumber, expiration))
+                    .expiresIn(presignedUrlExpiration)
+                    .build());
+        }
+        return urls;
+    }
+
+    public void recordParts(Video video, List<UploadedPartInput> parts) {
+        requireSession(video);
+        int partCount = partCount(video);
+        OffsetDateTime now = OffsetDateTime.now();
+        for (UploadedPartInput input : parts) {
+            requirePartNumber(input.getPartNumber(), partCount);
+            if (input.getEtag() == null || input.getEtag().isBlank()) {
+                throw new RuntimeException("ETag is required for part " + input.getPartNumber());
+            }
+            VideoUploadPart part = videoUploadPartRepository
+                    .findByVideo_VideoIdAndPartNumber(video.getVideoId(), input.getPartNumber())
+                    .orElseGet(() -> VideoUploadPart.builder()
+                            .video(video)
+                            .partNumber(input.getPartNumber())
+                            .build());
+            part.setEtag(input.getEtag());
+            part.setSizeBytes(input.getSize());
+            part.setUploadedAt(now);
+            videoUploadPartRepository.save(part);
+        }
+    }
+
+    public VideoUploadSessionResponse describe(Video video) {
+        requireSession(video);
+        List<UploadedPartResponse> uploaded = videoUploadPartRepository
+                .findByVideo_VideoIdOrderByPartNumberAsc(video.getVideoId()).stream()
+                .map(part -> UploadedPartResponse.builder()
+                        .partNumber(part.getPartNumber())
+                        .etag(part.getEtag())
+                        .size(part.getSizeBytes())
+                        .build())
+                .collect(Collectors.toList());
+
+        return VideoUploadSessionResponse.builder()
+                .videoId(video.getVideoId())
+                .s3Key(video.getS3Key())
+                .partSize(video.getPartSize())
+                .partCount(partCount(video))
+                .uploadedParts(uploaded)
+                .build();
+    }
+
+    public void complete(Video video) {
+        requireSession(video);
+        List<VideoUploadPart> parts = videoUploadPartRepository.findByVideo_VideoIdOrderByPartNumberAsc(video.getVideoId());
+        Set<Integer> missing = new TreeSet<>();
+        for (int partNumber = 1; partNumber <= partCount(video); partNumber++) {
+            missing.add(partNumber);
+        }
+        parts.forEach(part -> missing.remove(part.getPartNumber()));
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Upload is missing parts: " + missing);
+        }
+
+        objectStorage.completeMultipartUpload(video.getS3Key(), video.getMultipartUploadId(), parts.stream()
+                .map(part -> new ObjectStorage.CompletedPart(part.getPartNumber(), part.getEtag()))
+                .collect(Collectors.toList()));
+
+        clearSession(video);
+    }
+
+    /**
+     * Aborts the video's upload and clears its session. When the storage call fails the session is kept, so
+     * {@link #abortAbandonedUploads()} retries it once it goes stale; returns false in that case.
+     */
+    public boolean abort(Video video) {
+        if (video.getMultipartUploadId() == null) {
+            return true;
+        }
+        try {
+            objectStorage.abortMultipartUpload(video.getS3Key(), video.getMultipartUploadId());
+        } catch (RuntimeException e) {
+            log.warn("Could not abort multipart upload for VideoId {}: {}", video.getVideoId(), e.getMessage());
+            return false;
+        }
+        clearSession(video);
+        return true;
+    }
+
+    /**
+     * Aborts the upload of a video whose row is about to be deleted. The sweeper cannot retry once the row is
+     * gone, so an upload that fails to abort is handed to the {@link ObjectDeletionQueue} instead.
+     */
+    public void abortForDeletion(Video video) {
+        String uploadId = video.getMultipartUploadId();
+        if (!abort(video)) {
+            objectDeletionQueue.enqueueUpload(video.getS3Key(), uploadId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aws.s3.multipart.sweep-interval-ms:3600000}")
+    public void abortAbandonedUploads() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusHours(abandonAfterHours);
+        List<UUID> abandoned = videoRepository.findAbandonedMultipartUploadIds(cutoff);
+        for (UUID videoId : abandoned) {
+            transactionTemplate.executeWithoutResult(status -> videoRepository.findById(videoId)
+                    .filter(video -> video.getMultipartUploadId() != null)
+                    .ifPresent(video -> {
+                        abort(video);
+                        video.setProcessingStatus(Video.ProcessingStatus.FAILED);
+                        videoRepository.save(video);
+                    }));
+        }
+        if (!abandoned.isEmpty()) {
+            log.info("Aborted {} abandoned multipart uploads", abandoned.size());
+        }
+    }
+
+    private void clearSession(Video video) {
+        videoUploadPartRepository.deleteByVideoId(video.getVideoId());
+        video.setMultipartUploadId(null);
+        video.setPartSize(null);
+    }
+
+    private static void requireSession(Video video) {
+        if (video.getMultipartUploadId() == null) {
+            throw new RuntimeException("Video has no multipart upload in progress");
+        }
+    }
+
+    private static void requirePartNumber(Integer partNumber, int partCount) {
+        if (partNumber == null || partNumber < 1 || partNumber > partCount) {
+            throw new RuntimeException("Part number must be between 1 and " + partCount);
+        }
+    }
+
+    private static int partCount(Video video) {
+        return (int) ceilDiv(video.getFileSize(), video.getPartSize());
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,263 @@
+package com.seikyuuressha.lms.service.video;
+
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Off-heap LRU cache of fixed-size video chunks for the proxied streaming endpoint. Chunk buffers are direct
+ * ByteBuffers allocated on first use up to {@code video.stream.cache-size-mb} and recycled on eviction, so the
+ * cache costs nothing until streaming is used and never churns direct memory afterwards.
+ * <p>
+ * A chunk being read by a request is pinned and cannot be evicted; concurrent misses on the same chunk wait for
+ * a single load. After serving a range the following {@code video.stream.read-ahead-chunks} chunks are loaded in
+ * the background, so a player reading sequentially finds its next range in memory.
+ */
+@Slf4j
+@Component
+public class VideoChunkCache {
+
+    private final ObjectStorage objectStorage;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final int readAheadChunks;
+    private final ThreadPoolExecutor readAheadExecutor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ChunkKey, Chunk> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+    private int allocatedBuffers;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public VideoChunkCache(ObjectStorage objectStorage,
+                           MeterRegistry meterRegistry,
+                           @Value("${video.stream.chunk-size-kb:1024}") int chunkSizeKb,
+                           @Value("${video.stream.cache-size-mb:256}") int cacheSizeMb,
+                           @Value("${video.stream.read-ahead-chunks:2}") int readAheadChunks,
+                           @Value("${video.stream.read-ahead-threads:2}") int readAheadThreads) {
+        this(objectStorage, meterRegistry, chunkSizeKb * 1024, (long) cacheSizeMb * 1024 * 1024,
+                readAheadChunks, readAheadThreads);
+    }
+
+    VideoChunkCache(ObjectStorage objectStorage, MeterRegistry meterRegistry, int chunkSize, long cacheSize,
+                    int readAheadChunks, int readAheadThreads) {
+        this.objectStorage = objectStorage;
+        this.chunkSize = chunkSize;
+        this.maxChunks = (int) (cacheSize / chunkSize);
+        this.readAheadChunks = readAheadChunks;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readAheadExecutor = new ThreadPoolExecutor(readAheadThreads, readAheadThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, readAheadThreads * readAheadChunks * 4)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "video-read-ahead-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.hits = meterRegistry.counter("video.stream.cache", "result", "hit");
+        this.misses = meterRegistry.counter("video.stream.cache", "result", "miss");
+        Gauge.builder("video.stream.cache.bytes", this, cache -> (double) cache.size() * cache.chunkSize)
+                .register(meterRegistry);
+    }
+
+    private record ChunkKey(String objectKey, long index) {
+    }
+
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        final boolean cached;
+        int pins = 1;
+
+        Chunk(ByteBuffer buffer, boolean cached) {
+            this.buffer = buffer;
+            this.cached = cached;
+        }
+    }
+
+    /**
+     * Writes bytes {@code start..end} (inclusive) of the object to {@code out} and schedules read-ahead of the
+     * chunks that follow. Returns the number of bytes written.
+     */
+    public long transfer(String objectKey, long objectSize, long start, long end, WritableByteChannel out) throws IOException {
+        long written = 0;
+        long position = start;
+        while (position <= end) {
+            long index = position / chunkSize;
+            int offset = (int) (position - index * chunkSize);
+            ChunkKey key = new ChunkKey(objectKey, index);
+            Chunk chunk = acquire(key, objectSize);
+            try {
+                ByteBuffer view = chunk.buffer.duplicate();
+                int length = (int) Math.min(view.limit() - offset, end - position + 1);
+                if (length <= 0) {
+                    break;
+                }
+                view.position(offset).limit(offset + length);
+                while (view.hasRemaining()) {
+                    out.write(view);
+                }
+                position += length;
+                written += length;
+            } finally {
+                release(key, chunk);
+            }
+        }
+        readAhead(objectKey, objectSize, end / chunkSize);
+        return written;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return chunks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Chunk acquire(ChunkKey key, long objectSize) {
+        Chunk chunk;
+        boolean load;
+        lock.lock();
+        try {
+            chunk = chunks.get(key);
+            load = chunk == null;
+            if (load) {
+                ByteBuffer buffer = takeBuffer();
+                chunk = new Chunk(buffer != null ? buffer : ByteBuffer.allocate(chunkSize), buffer != null);
+                if (chunk.cached) {
+                    chunks.put(key, chunk);
+                }
+            } else {
+                chunk.pins++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (load) {
+            misses.increment();
+            try {
+                fill(key, objectSize, chunk.buffer);
+                chunk.loaded.complete(null);
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    chunks.remove(key, chunk);
+                } finally {
+                    lock.unlock();
+                }
+                chunk.loaded.completeExceptionally(e);
+                release(key, chunk);
+                throw e;
+            }
+        } else {
+            hits.increment();
+            try {
+                chunk.loaded.join();
+            } catch (CompletionException e) {
+                release(key, chunk);
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return chunk;
+    }
+
+    private void release(ChunkKey key, Chunk chunk) {
+        if (!chunk.cached) {
+            return;
+        }
+        lock.lock();
+        try {
+            chunk.pins--;
+            if (chunk.pins == 0 && chunk.loaded.isCompletedExceptionally()) {
+                freeBuffers.push(chunk.buffer);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Called with the lock held. Returns null when every buffer is pinned and the cache is at capacity. */
+    private ByteBuffer takeBuffer() {
+        if (!freeBuffers.isEmpty()) {
+            return freeBuffers.pop();
+        }
+        if (allocatedBuffers < maxChunks) {
+            allocatedBuffers++;
+            return ByteBuffer.allocateDirect(chunkSize);
+        }
+        Iterator<Chunk> eldest = chunks.values().iterator();
+        while (eldest.hasNext()) {
+            Chunk candidate = eldest.next();
+            if (candidate.pins == 0 && candidate.loaded.isDone()) {
+                eldest.remove();
+                return candidate.buffer;
+            }
+        }
+        return null;
+    }
+
+    private void fill(ChunkKey key, long objectSize, ByteBuffer buffer) {
+        long chunkStart = key.index() * chunkSize;
+        buffer.clear();
+        buffer.limit((int) Math.min(chunkSize, objectSize - chunkStart));
+        while (buffer.hasRemaining()) {
+            int read = objectStorage.readRange(key.objectKey(), chunkStart + buffer.position(), buffer);
+            if (read <= 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private void readAhead(String objectKey, long objectSize, long lastIndex) {
+        long lastChunk = (objectSize - 1) / chunkSize;
+        for (long index = lastIndex + 1; index <= Math.min(lastChunk, lastIndex + readAheadChunks); index++) {
+            ChunkKey key = new ChunkKey(objectKey, index);
+            lock.lock();
+            try {
+                if (chunks.containsKey(key)) {
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+            readAheadExecutor.execute(() -> {
+                try {
+                    release(key, acquire(key, objectSize));
+                } catch (RuntimeException e) {
+                    log.debug("Read-ahead of {} chunk {} failed: {}", key.objectKey(), key.index(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readAheadExecutor.shutdownNow();
+    }
+}
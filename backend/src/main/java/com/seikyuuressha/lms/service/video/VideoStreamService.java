@@ -0,0 +1,101 @@
+package com.seikyuuressha.lms.service.video;
+
+import com.seikyuuressha.lms.entity.Video;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import com.seikyuuressha.lms.util.BoundedCache;
+import com.seikyuuressha.lms.util.UrlSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and checks the signed URLs of the proxied streaming endpoint ({@code video.stream.proxy.enabled}).
+ * The signature covers the lesson, the user it was issued to and an expiry, so every range request is authorised
+ * without a session and a URL is only ever handed to a user VideoService has checked; the expiry is rounded to
+ * half the validity so a user keeps the same URL for a lesson for a while and browser caches hold.
+ */
+@Slf4j
+@Service
+public class VideoStreamService {
+
+    public record StreamTarget(String objectKey, long size, String contentType) {
+    }
+
+    private static final Duration TARGET_TTL = Duration.ofMinutes(1);
+
+    private final VideoRepository videoRepository;
+    private final ObjectStorage objectStorage;
+    private final UrlSigner urlSigner;
+    private final String baseUrl;
+    private final boolean proxyEnabled;
+    private final BoundedCache<UUID, StreamTarget> targets;
+
+    public VideoStreamService(VideoRepository videoRepository,
+                              ObjectStorage objectStorage,
+                              @Value("${video.stream.proxy.enabled:false}") boolean proxyEnabled,
+                              @Value("${video.stream.base-url:http://localhost:8080}") String baseUrl,
+                              @Value("${video.stream.signing-secret:}") String signingSecret,
+                              @Value("${video.stream.target-cache-size:10000}") int maxTargets) {
+        this.videoRepository = videoRepository;
+        this.objectStorage = objectStorage;
+        this.proxyEnabled = proxyEnabled;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.urlSigner = new UrlSigner(signingSecret);
+        this.targets = new BoundedCache<>(maxTargets, TARGET_TTL);
+        if (proxyEnabled && (signingSecret == null || signingSecret.isBlank())) {
+            log.warn("video.stream.signing-secret is not set; stream URLs will not survive a restart");
+        }
+    }
+
+    public boolean isProxyEnabled() {
+        return proxyEnabled;
+    }
+
+    public String streamUrl(UUID lessonId, UUID userId, Duration validity) {
+        long window = Math.max(1, validity.getSeconds() / 2);
+        long expires = (Instant.now().getEpochSecond() + validity.getSeconds()) / window * window;
+        return baseUrl + "/api/videos/stream/" + lessonId
+                + "?user=" + userId
+                + "&expires=" + expires
+                + "&signature=" + urlSigner.sign(payload(lessonId, userId, expires));
+    }
+
+    public boolean verify(UUID lessonId, UUID userId, long expires, String signature) {
+        return urlSigner.verify(payload(lessonId, userId, expires), expires, signature);
+    }
+
+    /** The stored object behind a lesson's completed video, cached briefly since players issue many range requests. */
+    public Optional<StreamTarget> resolve(UUID lessonId) {
+        StreamTarget cached = targets.get(lessonId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<StreamTarget> target = videoRepository.findByLesson_LessonId(lessonId)
+                .filter(video -> video.getProcessingStatus() == Video.ProcessingStatus.COMPLETED)
+                .flatMap(video -> objectStorage.head(video.getS3Key())
+                        .map(stored -> new StreamTarget(video.getS3Key(), stored.size(),
+                                video.getMimeType() != null ? video.getMimeType() : stored.contentType())));
+
+        if (target.isEmpty()) {
+            targets.remove(lessonId);
+            return target;
+        }
+        targets.put(lessonId, target.get());
+        return target;
+    }
+
+    public void invalidate(UUID lessonId) {
+        targets.remove(lessonId);
+    }
+
+    private static String payload(UUID lessonId, UUID userId, long expires) {
+        return "STREAM\n" + lessonId + "\n" + userId + "\n" + expires;
+    }
+}
@@ -0,0 +1,59 @@
+package com.seikyuuressha.lms.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The part of an object a GET answers with, resolved from an optional single-range {@code Range} header.
+ * {@link #resolve} writes the status, {@code Accept-Ranges}, {@code Content-Range} and {@code Content-Length}
+ * headers shared by every endpoint that serves stored bytes.
+ */
+public record ByteRange(long start, long end) {
+
+    public long count() {
+        return end - start + 1;
+    }
+
+    /**
+     * Answers 200 for the whole object, 206 for one satisfiable range or 416 otherwise; returns null after a 416.
+     * An open-ended range such as {@code bytes=0-} is cut to {@code maxOpenEndedLength} bytes, so a player asking
+     * for "the rest of the file" gets a bounded response and asks again.
+     */
+    public static ByteRange resolve(String rangeHeader, long length, long maxOpenEndedLength,
+                                    HttpServletResponse response) throws IOException {
+        long start = 0;
+        long end = length - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() != 1) {
+                    throw new IllegalArgumentException("Only single ranges are supported");
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    throw new IllegalArgumentException("Range not satisfiable");
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return null;
+            }
+            if (rangeHeader.trim().endsWith("-") && end - start + 1 > maxOpenEndedLength) {
+                end = start + maxOpenEndedLength - 1;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        ByteRange range = new ByteRange(start, end);
+        response.setContentLengthLong(range.count());
+        return range;
+    }
+}
@@ -0,0 +1,47 @@
+package com.seikyuuressha.lms.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 signatures for URLs this application issues and later serves itself. A blank secret gets a random
+ * per-process key, so such URLs stop verifying after a restart.
+ */
+public class UrlSigner {
+
+    private final byte[] key;
+
+    public UrlSigner(String secret) {
+        if (secret == null || secret.isBlank()) {
+            this.key = new byte[32];
+            new SecureRandom().nextBytes(this.key);
+        } else {
+            this.key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Constant-time check of {@code signature} against {@code payload}, failing once {@code expires} (epoch seconds) has passed. */
+    public boolean verify(String payload, long expires, String signature) {
+        if (signature == null || expires < System.currentTimeMillis() / 1000) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
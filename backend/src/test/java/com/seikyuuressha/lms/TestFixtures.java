@@ -0,0 +1,142 @@
+package com.seikyuuressha.lms;
+
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.entity.Module;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persists the entity graph shared by the repository-backed tests: a role, users, and courses with modules and
+ * lessons. Everything is created through the test's own EntityManager, so it rolls back with the test.
+ */
+public class TestFixtures {
+
+    private final EntityManager entityManager;
+    private Roles role;
+
+    public TestFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Roles role(String roleName) {
+        Roles created = Roles.builder().roleId(UUID.randomUUID()).roleName(roleName).build();
+        entityManager.persist(created);
+        return created;
+    }
+
+    public Users user() {
+        return user("User");
+    }
+
+    public Users user(String fullName) {
+        if (role == null) {
+            role = role("ROLE_" + UUID.randomUUID());
+        }
+        return user(fullName, role);
+    }
+
+    public Users user(String fullName, Roles userRole) {
+        Users user = Users.builder()
+                .fullName(fullName)
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret")
+                .role(userRole)
+                .createdAt(OffsetDateTime.now())
+                .isActive(true)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    public Categories category() {
+        Categories category = Categories.builder().name("Category").slug("category-" + UUID.randomUUID()).build();
+        entityManager.persist(category);
+        return category;
+    }
+
+    public Course course(Users instructor) {
+        return course(instructor, null);
+    }
+
+    public Course course(Users instructor, Categories category) {
+        Course course = Course.builder()
+                .title("Course")
+                .slug("course-" + UUID.randomUUID())
+                .price(BigDecimal.ZERO)
+                .instructor(instructor)
+                .category(category)
+                .isPublished(true)
+                .build();
+        entityManager.persist(course);
+        return course;
+    }
+
+    /** A course with {@code moduleCount} modules of {@code lessonsPerModule} lessons, each lasting the given seconds. */
+    public Course course(Users instructor, Categories category, int moduleCount, int lessonsPerModule,
+                         int lessonDuration) {
+        Course course = course(instructor, category);
+        for (int i = 0; i < moduleCount; i++) {
+            lessons(module(course, i + 1), lessonsPerModule, lessonDuration);
+        }
+        return course;
+    }
+
+    public Module module(Course course, int sortOrder) {
+        Module module = Module.builder().course(course).title("Module " + sortOrder).sortOrder(sortOrder).build();
+        entityManager.persist(module);
+        return module;
+    }
+
+    public Lesson lesson(Course course) {
+        return lessons(module(course, 1), 1, 60).get(0);
+    }
+
+    public List<Lesson> lessons(Module module, int count, int duration) {
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Lesson lesson = Lesson.builder()
+                    .module(module)
+                    .title("Lesson " + i)
+                    .durationSeconds(duration)
+                    .sortOrder(i + 1)
+                    .build();
+            entityManager.persist(lesson);
+            lessons.add(lesson);
+        }
+        return lessons;
+    }
+
+    public Enrollment enrollment(Users user, Course course) {
+        Enrollment enrollment = Enrollment.builder()
+                .enrollmentId(UUID.randomUUID())
+                .user(user)
+                .course(course)
+                .progressPercent(0.0)
+                .completedLessons(0)
+                .build();
+        entityManager.persist(enrollment);
+        return enrollment;
+    }
+
+    public Progress progress(Users user, Lesson lesson, double percent) {
+        Progress progress = Progress.builder()
+                .progressId(UUID.randomUUID())
+                .user(user)
+                .lesson(lesson)
+                .watchedSeconds(0)
+                .progressPercent(percent)
+                .build();
+        entityManager.persist(progress);
+        return progress;
+    }
+
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,110 @@
+package com.seikyuuressha.lms.controller;
+
+import com.seikyuuressha.lms.service.storage.LocalObjectStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocalStorageControllerTests {
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStorage storage;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalObjectStorage(root.toString(), "http://localhost", "secret", List.of("images/"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new LocalStorageController(storage)).build();
+        storage.put("videos/v.mp4", "0123456789".getBytes(StandardCharsets.UTF_8), "video/mp4");
+    }
+
+    @Test
+    void servesWholeObjectWithSignedUrl() throws Exception {
+        mockMvc.perform(get(signedGet("videos/v.mp4", "public, max-age=60")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=60"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void servesSingleByteRange() throws Exception {
+        mockMvc.perform(get(signedGet("videos/v.mp4", null)).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get(signedGet("videos/v.mp4", null)).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get(signedGet("videos/v.mp4", null)).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void rejectsMissingOrTamperedSignature() throws Exception {
+        mockMvc.perform(get("/storage/videos/v.mp4")).andExpect(status().isForbidden());
+        mockMvc.perform(get(signedGet("videos/v.mp4", null).toString().replace("v.mp4", "w.mp4")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void publicPrefixNeedsNoSignature() throws Exception {
+        storage.put("images/avatars/a.png", new byte[]{1, 2, 3}, "image/png");
+
+        mockMvc.perform(get(URI.create(storage.publicUrl("images/avatars/a.png"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void traversalOutOfPublicPrefixNeedsSignature() throws Exception {
+        storage.put("certificates/LMS-2026-000001.pdf", new byte[]{1, 2, 3}, "application/pdf");
+
+        mockMvc.perform(get("/storage/images/../certificates/LMS-2026-000001.pdf"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(URI.create("http://localhost/storage/images/%2E%2E/certificates/LMS-2026-000001.pdf")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void signedPutStoresObjectAndPartsReturnEtag() throws Exception {
+        mockMvc.perform(put(URI.create(storage.presignPut("resources/r.txt", Duration.ofMinutes(5), null)))
+                        .content("resource"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(signedGet("resources/r.txt", null))).andExpect(content().string("resource"));
+
+        String uploadId = storage.createMultipartUpload("videos/big.mp4", "video/mp4");
+        mockMvc.perform(put(URI.create(storage.presignUploadPart("videos/big.mp4", uploadId, 1, Duration.ofMinutes(5))))
+                        .content("part"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"f4c9385f1902f7334b00b9b4ecd164de\""));
+    }
+
+    private URI signedGet(String key, String cacheControl) {
+        return URI.create(storage.presignGet(key, Duration.ofMinutes(5), cacheControl));
+    }
+}
@@ -0,0 +1,149 @@
+package com.seikyuuressha.lms.controller;
+
+import com.seikyuuressha.lms.entity.Video;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import com.seikyuuressha.lms.service.video.VideoChunkCache;
+import com.seikyuuressha.lms.service.video.VideoStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class VideoStreamControllerTests {
+
+    private static final String KEY = "videos/i/l/1.mp4";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final UUID lessonId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private VideoRepository videoRepository;
+    private ObjectStorage objectStorage;
+    private VideoStreamService videoStreamService;
+    private VideoChunkCache videoChunkCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        videoRepository = mock(VideoRepository.class);
+        objectStorage = mock(ObjectStorage.class);
+        when(videoRepository.findByLesson_LessonId(lessonId)).thenReturn(Optional.of(Video.builder()
+                .s3Key(KEY)
+                .mimeType("video/mp4")
+                .processingStatus(Video.ProcessingStatus.COMPLETED)
+                .build()));
+        when(objectStorage.head(KEY)).thenReturn(Optional.of(
+                new ObjectStorage.StoredObject(KEY, CONTENT.length, "application/octet-stream", null)));
+        when(objectStorage.readRange(eq(KEY), anyLong(), any())).thenAnswer(invocation -> {
+            long position = invocation.getArgument(1);
+            ByteBuffer target = invocation.getArgument(2);
+            int length = (int) Math.min(target.remaining(), CONTENT.length - position);
+            target.put(CONTENT, (int) position, length);
+            return length;
+        });
+
+        videoStreamService = new VideoStreamService(videoRepository, objectStorage, true,
+                "http://localhost", "secret", 100);
+        videoChunkCache = new VideoChunkCache(objectStorage, new SimpleMeterRegistry(), 4, 16, 0, 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(new VideoStreamController(videoStreamService, videoChunkCache))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        videoChunkCache.shutdown();
+    }
+
+    @Test
+    void servesWholeVideoWithSignedUrl() throws Exception {
+        mockMvc.perform(get(streamUrl()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void servesSingleByteRangeAndResolvesLessonOnce() throws Exception {
+        mockMvc.perform(get(streamUrl()).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+        mockMvc.perform(get(streamUrl()).header(HttpHeaders.RANGE, "bytes=6-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("6789"));
+
+        verify(objectStorage, times(1)).head(KEY);
+    }
+
+    @Test
+    void capsOpenEndedRangeToAFewChunks() throws Exception {
+        long size = 100_000;
+        long cap = (long) VideoStreamController.OPEN_RANGE_CHUNKS * videoChunkCache.chunkSize();
+        when(objectStorage.head(KEY)).thenReturn(Optional.of(
+                new ObjectStorage.StoredObject(KEY, size, "application/octet-stream", null)));
+        when(objectStorage.readRange(eq(KEY), anyLong(), any())).thenAnswer(invocation -> {
+            ByteBuffer target = invocation.getArgument(2);
+            int length = target.remaining();
+            target.position(target.limit());
+            return length;
+        });
+
+        mockMvc.perform(get(streamUrl()).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-" + (100 + cap - 1) + "/" + size))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, cap));
+        mockMvc.perform(get(streamUrl()).header(HttpHeaders.RANGE, "bytes=0-" + (size - 1)))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, size));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get(streamUrl()).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void rejectsTamperedOrForeignSignature() throws Exception {
+        String url = streamUrl().toString();
+        mockMvc.perform(get(URI.create(url.replace(lessonId.toString(), UUID.randomUUID().toString()))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(URI.create(url.replaceAll("expires=\\d+", "expires=9999999999"))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(URI.create(url.replace(userId.toString(), UUID.randomUUID().toString()))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unknownLessonIsNotFound() throws Exception {
+        UUID other = UUID.randomUUID();
+        when(videoRepository.findByLesson_LessonId(other)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(URI.create(videoStreamService.streamUrl(other, userId, Duration.ofHours(1)))))
+                .andExpect(status().isNotFound());
+    }
+
+    private URI streamUrl() {
+        return URI.create(videoStreamService.streamUrl(lessonId, userId, Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.seikyuuressha.lms.resolver;
+
+import com.seikyuuressha.lms.configuration.DataLoaderConfig;
+import com.seikyuuressha.lms.configuration.GraphQLConfig;
+import com.seikyuuressha.lms.dto.response.CertificateResponse;
+import com.seikyuuressha.lms.entity.Course;
+import com.seikyuuressha.lms.entity.Users;
+import com.seikyuuressha.lms.repository.CourseRepository;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.security.InMemoryRateLimitBackend;
+import com.seikyuuressha.lms.security.RateLimitBucketStore;
+import com.seikyuuressha.lms.service.CertificateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@GraphQlTest(CertificateResolver.class)
+@Import({GraphQLConfig.class, DataLoaderConfig.class, RateLimitBucketStore.class, InMemoryRateLimitBackend.class,
+        SimpleMeterRegistry.class})
+class CertificateResolverTests {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockitoBean
+    private CertificateService certificateService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private CourseRepository courseRepository;
+
+    @MockitoBean
+    private LessonRepository lessonRepository;
+
+    @Test
+    void certificateUserAndCourseAreBatchLoaded() {
+        Users student = Users.builder().userId(UUID.randomUUID()).fullName("Student").email("s@example.com").build();
+        List<Course> courses = new ArrayList<>();
+        List<CertificateResponse> certificates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Course course = Course.builder().courseId(UUID.randomUUID()).title("Course " + i).slug("course-" + i).build();
+            courses.add(course);
+            certificates.add(CertificateResponse.builder()
+                    .certificateId(UUID.randomUUID())
+                    .userId(student.getUserId())
+                    .courseId(course.getCourseId())
+                    .certificateCode("CERT-" + i)
+                    .issuedAt(OffsetDateTime.now())
+                    .isValid(true)
+                    .build());
+        }
+        when(certificateService.getMyCertificates()).thenReturn(certificates);
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(student));
+        when(courseRepository.findAllById(anyIterable())).thenReturn(courses);
+
+        graphQlTester.document("""
+                        { getMyCertificates { certificateCode user { fullName } course { title } } }
+                        """)
+                .execute()
+                .path("getMyCertificates[*].user.fullName").entityList(String.class)
+                .containsExactly("Student", "Student", "Student", "Student", "Student")
+                .path("getMyCertificates[*].course.title").entityList(String.class)
+                .containsExactly("Course 0", "Course 1", "Course 2", "Course 3", "Course 4");
+
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(courseRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, never()).findById(any());
+        verify(courseRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,41 @@
+package com.seikyuuressha.lms.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientAddressResolverTests {
+
+    @Test
+    void ignoresForwardedForFromUntrustedAddress() {
+        ClientAddressResolver resolver = new ClientAddressResolver("10.0.0.0/8");
+
+        assertThat(resolver.resolve(request("198.51.100.7", "203.0.113.9"))).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    void takesFirstUntrustedHopBehindTrustedProxies() {
+        ClientAddressResolver resolver = new ClientAddressResolver("10.0.0.0/8, 192.168.1.1");
+
+        assertThat(resolver.resolve(request("10.0.0.2", "1.2.3.4, 203.0.113.9, 192.168.1.1")))
+                .isEqualTo("203.0.113.9");
+        assertThat(resolver.resolve(request("10.0.0.2", null))).isEqualTo("10.0.0.2");
+    }
+
+    @Test
+    void trustsNoProxyByDefault() {
+        ClientAddressResolver resolver = new ClientAddressResolver("");
+
+        assertThat(resolver.resolve(request("127.0.0.1", "203.0.113.9"))).isEqualTo("127.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
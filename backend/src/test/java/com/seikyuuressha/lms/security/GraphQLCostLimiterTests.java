@@ -0,0 +1,89 @@
+package com.seikyuuressha.lms.security;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphQLCostLimiterTests {
+
+    private static final String SCHEMA = """
+            type Query {
+              me: User
+              getSystemStatistics: Statistics
+            }
+            type User { userId: ID fullName: String }
+            type Statistics { totalUsers: Int totalCourses: Int }
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitBucketStore bucketStore;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        bucketStore = new RateLimitBucketStore(1_000, 600_000, 60, 100, 200, 2_000, new InMemoryRateLimitBackend(), meterRegistry);
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse(SCHEMA), RuntimeWiring.newRuntimeWiring().build());
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new GraphQLCostLimiter(bucketStore, meterRegistry))
+                .build();
+    }
+
+    @Test
+    void chargesOneTokenPerFieldFromCostBudget() {
+        ExecutionResult result = execute("user:a", "{ me { userId fullName } }");
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(bucketStore.graphQLCostBucket("user:a").getAvailableTokens()).isEqualTo(100 - 3);
+        assertThat(bucketStore.graphQLBucket("user:a").getAvailableTokens()).isEqualTo(60);
+    }
+
+    @Test
+    void weightsExpensiveResolvers() {
+        execute("user:b", "{ getSystemStatistics { totalUsers } }");
+
+        int weight = GraphQLCostLimiter.FIELD_WEIGHTS.get("Query.getSystemStatistics");
+        assertThat(bucketStore.graphQLCostBucket("user:b").getAvailableTokens()).isEqualTo(100 - weight - 1);
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceBudgetIsSpent() {
+        execute("user:c", "{ getSystemStatistics { totalUsers } }");
+        ExecutionResult rejected = execute("user:c", "{ getSystemStatistics { totalUsers totalCourses } }");
+
+        assertThat(rejected.getErrors()).hasSize(1);
+        GraphQLError error = rejected.getErrors().get(0);
+        assertThat(error.getExtensions()).containsEntry("classification", "TOO_MANY_REQUESTS");
+        assertThat((Long) error.getExtensions().get("retryAfter")).isPositive();
+        assertThat(meterRegistry.get("ratelimit.rejections").tag("type", "graphql-cost").counter().count())
+                .isEqualTo(1.0);
+
+        assertThat(execute("user:d", "{ me { userId } }").getErrors()).isEmpty();
+    }
+
+    @Test
+    void skipsOperationsWithoutClientKey() {
+        ExecutionResult result = graphQL.execute("{ getSystemStatistics { totalUsers } }");
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(bucketStore.size()).isZero();
+    }
+
+    private ExecutionResult execute(String clientKey, String query) {
+        return graphQL.execute(ExecutionInput.newExecutionInput(query)
+                .graphQLContext(Map.of(GraphQLCostLimiter.CLIENT_KEY, clientKey))
+                .build());
+    }
+}
@@ -0,0 +1,138 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.entity.RateLimitBucket;
+import com.seikyuuressha.lms.repository.RateLimitBucketRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcRateLimitBackendTests {
+
+    private static final BucketConfiguration TEN_PER_MINUTE = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(10, Refill.greedy(10, Duration.ofMinutes(1))))
+            .build();
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void replicasShareOneLimit() {
+        String key = "user:" + UUID.randomUUID() + ":graphql";
+        Bucket first = backend(0).bucket(key, TEN_PER_MINUTE);
+        Bucket second = backend(0).bucket(key, TEN_PER_MINUTE);
+
+        int consumed = 0;
+        for (int i = 0; i < 10; i++) {
+            if ((i % 2 == 0 ? first : second).tryConsume(1)) {
+                consumed++;
+            }
+        }
+
+        assertThat(consumed).isEqualTo(10);
+        assertThat(first.tryConsume(1)).isFalse();
+        assertThat(second.tryConsume(1)).isFalse();
+        assertThat(rateLimitBucketRepository.findById(key)).isPresent();
+    }
+
+    @Test
+    void delayedSynchronizationBatchesDatabaseRoundTrips() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Bucket eager = backend(0).bucket("ip:" + UUID.randomUUID(), TEN_PER_MINUTE);
+        Bucket batched = backend(5).bucket("ip:" + UUID.randomUUID(), TEN_PER_MINUTE);
+
+        statistics.clear();
+        for (int i = 0; i < 8; i++) {
+            eager.tryConsume(1);
+        }
+        long eagerStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        for (int i = 0; i < 8; i++) {
+            batched.tryConsume(1);
+        }
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        assertThat(batchedStatements).isLessThan(eagerStatements);
+    }
+
+    @Test
+    void firstWriteIsAnInsertThatLosesToAnExistingRow() {
+        String key = "ip:" + UUID.randomUUID();
+        rateLimitBucketRepository.saveAndFlush(newRow(key));
+
+        assertThatThrownBy(() -> rateLimitBucketRepository.saveAndFlush(newRow(key)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void asyncBucketsShareStateWithSyncBuckets() throws Exception {
+        String key = "user:" + UUID.randomUUID() + ":graphql";
+        JdbcRateLimitBackend backend = backend(0);
+        AsyncBucketProxy async = ((ProxyManager<String>) ReflectionTestUtils.getField(backend, "proxyManager"))
+                .asAsync().builder().build(key, () -> CompletableFuture.completedFuture(TEN_PER_MINUTE));
+
+        assertThat(async.tryConsume(9).get()).isTrue();
+        assertThat(backend.bucket(key, TEN_PER_MINUTE).tryConsume(2)).isFalse();
+        backend.shutdown();
+    }
+
+    @Test
+    void expiredBucketsAreSwept() {
+        String key = "ip:" + UUID.randomUUID();
+        JdbcRateLimitBackend backend = new JdbcRateLimitBackend(rateLimitBucketRepository, transactionManager, 0, 60_000, -120_000);
+        backend.bucket(key, TEN_PER_MINUTE).tryConsume(1);
+        assertThat(rateLimitBucketRepository.findById(key)).isPresent();
+
+        backend.evictExpired();
+
+        assertThat(rateLimitBucketRepository.findById(key)).isEmpty();
+    }
+
+    private static RateLimitBucket newRow(String key) {
+        return RateLimitBucket.builder()
+                .bucketKey(key)
+                .state(new byte[]{1})
+                .version(0L)
+                .expiresAt(Long.MAX_VALUE)
+                .inserting(true)
+                .build();
+    }
+
+    private JdbcRateLimitBackend backend(long syncTokens) {
+        return new JdbcRateLimitBackend(rateLimitBucketRepository, transactionManager, syncTokens, 60_000, 600_000);
+    }
+}
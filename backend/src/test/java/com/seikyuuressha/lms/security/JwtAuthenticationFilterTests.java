@@ -0,0 +1,96 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.entity.Roles;
+import com.seikyuuressha.lms.entity.Users;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTests {
+
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret",
+                "testSecretKeyWhichMustBeVeryLongToSatisfyTheHmacShaKeyRequirementOtherwiseItWillFail");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 3_600_000L);
+        jwtUtil.init();
+
+        principalCache = mock(PrincipalCache.class);
+        filter = new JwtAuthenticationFilter(jwtUtil, principalCache);
+        user = Users.builder()
+                .userId(UUID.randomUUID())
+                .email("student@example.com")
+                .role(Roles.builder().roleName("STUDENT").build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromCachedPrincipal() throws Exception {
+        when(principalCache.get(user.getUserId())).thenReturn(principal(true, "INSTRUCTOR"));
+
+        MockHttpServletResponse response = run(jwtUtil.generateToken(user));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(authentication.getPrincipal()).isEqualTo(user.getUserId());
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_INSTRUCTOR");
+    }
+
+    @Test
+    void rejectsLockedAccount() throws Exception {
+        when(principalCache.get(user.getUserId())).thenReturn(principal(false, "STUDENT"));
+
+        MockHttpServletResponse response = run(jwtUtil.generateToken(user));
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void ignoresTokenWhoseSubjectNoLongerMatches() throws Exception {
+        when(principalCache.get(user.getUserId())).thenReturn(new PrincipalCache.CachedPrincipal(
+                user.getUserId(), "renamed@example.com", "STUDENT", true, Long.MAX_VALUE));
+
+        run(jwtUtil.generateToken(user));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private PrincipalCache.CachedPrincipal principal(boolean active, String role) {
+        return new PrincipalCache.CachedPrincipal(user.getUserId(), user.getEmail(), role, active, Long.MAX_VALUE);
+    }
+
+    private MockHttpServletResponse run(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.entity.Roles;
+import com.seikyuuressha.lms.entity.Users;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTests {
+
+    private static final String SECRET = "testSecretKeyWhichMustBeVeryLongToSatisfyTheHmacShaKeyRequirementOtherwiseItWillFail";
+
+    private JwtUtil jwtUtil;
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(3_600_000L);
+        user = Users.builder()
+                .userId(UUID.randomUUID())
+                .email("student@example.com")
+                .role(Roles.builder().roleName("STUDENT").build())
+                .build();
+    }
+
+    @Test
+    void parseTokenReturnsAllClaimsFromOneParse() {
+        JwtUtil.TokenClaims access = jwtUtil.parseToken(jwtUtil.generateToken(user));
+        assertThat(access.subject()).isEqualTo("student@example.com");
+        assertThat(access.userId()).isEqualTo(user.getUserId().toString());
+        assertThat(access.role()).isEqualTo("STUDENT");
+        assertThat(access.expiration()).isInTheFuture();
+
+        JwtUtil.TokenClaims refresh = jwtUtil.parseToken(jwtUtil.generateRefreshToken(user));
+        assertThat(refresh.tokenId()).isNotBlank();
+        assertThat(refresh.tokenType()).isEqualTo("REFRESH");
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThatThrownBy(() -> jwtUtil.parseToken(tampered)).isInstanceOf(JwtException.class);
+
+        String expired = newJwtUtil(-1_000L).generateToken(user);
+        assertThatThrownBy(() -> jwtUtil.parseToken(expired)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private JwtUtil newJwtUtil(long expiration) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        ReflectionTestUtils.setField(util, "refreshExpiration", expiration);
+        util.init();
+        return util;
+    }
+}
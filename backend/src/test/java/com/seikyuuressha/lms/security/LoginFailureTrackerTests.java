@@ -0,0 +1,142 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.Users;
+import com.seikyuuressha.lms.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginFailureTrackerTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        user = new TransactionTemplate(transactionManager).execute(status -> fixtures.user("Student"));
+    }
+
+    @Test
+    void failuresBelowLimitDoNotTouchDatabase() {
+        LoginFailureTracker tracker = tracker(900_000);
+
+        statistics.clear();
+        for (int i = 0; i < 4; i++) {
+            assertThat(tracker.recordFailure(user.getEmail(), "10.0.0.1")).isFalse();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(userRepository.findById(user.getUserId()).orElseThrow().getBlockUntil()).isNull();
+    }
+
+    @Test
+    void reachingLimitPersistsBlockOnce() {
+        LoginFailureTracker tracker = tracker(900_000);
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure(user.getEmail(), "10.0.0.2");
+        }
+
+        statistics.clear();
+        assertThat(tracker.recordFailure(user.getEmail(), "10.0.0.2")).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Users blocked = userRepository.findById(user.getUserId()).orElseThrow();
+        assertThat(blocked.getFailedLoginAttempts()).isEqualTo(5);
+        assertThat(blocked.getBlockUntil()).isAfter(OffsetDateTime.now().plusMinutes(14));
+    }
+
+    @Test
+    void successClearsEmailCounter() {
+        LoginFailureTracker tracker = tracker(900_000);
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure(user.getEmail(), null);
+        }
+
+        tracker.recordSuccess(user.getEmail());
+
+        assertThat(tracker.recordFailure(user.getEmail(), null)).isFalse();
+    }
+
+    @Test
+    void ipIsBlockedAfterFailuresAcrossDistinctEmails() {
+        LoginFailureTracker tracker = tracker(900_000);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordUnknownEmail("sprayed" + i + "@example.com", "10.0.0.3");
+        }
+
+        assertThat(tracker.isIpBlocked("10.0.0.3")).isTrue();
+        assertThat(tracker.isIpBlocked("10.0.0.4")).isFalse();
+    }
+
+    @Test
+    void repeatedFailuresOnOneEmailDoNotBlockSharedIp() {
+        LoginFailureTracker tracker = tracker(900_000);
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure(user.getEmail(), "10.0.0.5");
+            tracker.recordUnknownEmail("Typo@example.com", "10.0.0.5");
+            tracker.recordUnknownEmail("typo@example.com", "10.0.0.5");
+        }
+
+        assertThat(tracker.isIpBlocked("10.0.0.5")).isFalse();
+    }
+
+    @Test
+    void fullStripesDropTheirOldestWindows() {
+        LoginFailureTracker tracker = new LoginFailureTracker(userRepository, transactionManager, 5, 3, 900_000,
+                900_000, 32);
+        for (int i = 0; i < 1_000; i++) {
+            tracker.recordUnknownEmail("user@example.com", "10.1." + (i / 256) + "." + (i % 256));
+        }
+
+        assertThat(tracker.size()).isLessThanOrEqualTo(32);
+    }
+
+    @Test
+    void countersExpireAfterWindow() throws InterruptedException {
+        LoginFailureTracker tracker = tracker(1);
+        tracker.recordFailure(user.getEmail(), null);
+        Thread.sleep(5);
+
+        tracker.evictExpired();
+
+        assertThat(tracker.size()).isZero();
+    }
+
+    private LoginFailureTracker tracker(long windowMillis) {
+        return new LoginFailureTracker(userRepository, transactionManager, 5, 3, windowMillis, 900_000, 100_000);
+    }
+}
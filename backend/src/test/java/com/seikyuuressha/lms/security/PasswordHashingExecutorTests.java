@@ -0,0 +1,103 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.configuration.PepperBCryptEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.encode(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.encode(() -> "second"));
+        waitForQueueDepth(1);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> executor.encode(() -> "third"))
+                .hasMessage("Too many sign-in requests, please try again shortly");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(1_000);
+        assertThat(meterRegistry.get("password.hashing.rejections").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void loginRehashesPasswordStoredWithOldCost() {
+        PepperBCryptEncoder oldEncoder = encoder(4);
+        PepperBCryptEncoder newEncoder = encoder(5);
+        UserDetails stored = User.withUsername("student@example.com")
+                .password(oldEncoder.encode("secret"))
+                .authorities(List.of())
+                .build();
+        AtomicReference<String> updated = new AtomicReference<>();
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(newEncoder);
+        provider.setUserDetailsService(username -> stored);
+        provider.setUserDetailsPasswordService((user, newPassword) -> {
+            updated.set(newPassword);
+            return User.withUserDetails(user).password(newPassword).build();
+        });
+        provider.authenticate(new UsernamePasswordAuthenticationToken("student@example.com", "secret"));
+
+        assertThat(updated.get()).startsWith("$2a$05$");
+        assertThat(newEncoder.matches("secret", updated.get())).isTrue();
+        assertThat(newEncoder.upgradeEncoding(updated.get())).isFalse();
+    }
+
+    private PepperBCryptEncoder encoder(int strength) {
+        PepperBCryptEncoder encoder = new PepperBCryptEncoder(strength, executor);
+        ReflectionTestUtils.setField(encoder, "pepper", "pepper");
+        return encoder;
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (meterRegistry.get("password.hashing.queue.depth").gauge().value() >= depth) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.Users;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PrincipalCache.class)
+class PrincipalCacheTests {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        user = fixtures.user("Student", fixtures.role("STUDENT"));
+        fixtures.flushAndClear();
+        ReflectionTestUtils.setField(principalCache, "ttlMillis", 60_000L);
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        statistics.clear();
+        PrincipalCache.CachedPrincipal first = principalCache.get(user.getUserId());
+        PrincipalCache.CachedPrincipal second = principalCache.get(user.getUserId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.email()).isEqualTo(user.getEmail());
+        assertThat(first.roleName()).isEqualTo("STUDENT");
+        assertThat(first.active()).isTrue();
+    }
+
+    @Test
+    void invalidateReloadsLockedAccount() {
+        assertThat(principalCache.get(user.getUserId()).active()).isTrue();
+
+        Users managed = entityManager.find(Users.class, user.getUserId());
+        managed.setActive(false);
+        entityManager.flush();
+        entityManager.clear();
+        principalCache.invalidate(user.getUserId());
+
+        assertThat(principalCache.get(user.getUserId()).active()).isFalse();
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        ReflectionTestUtils.setField(principalCache, "ttlMillis", 0L);
+
+        statistics.clear();
+        principalCache.get(user.getUserId());
+        principalCache.get(user.getUserId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        assertThat(principalCache.get(UUID.randomUUID())).isNull();
+    }
+}
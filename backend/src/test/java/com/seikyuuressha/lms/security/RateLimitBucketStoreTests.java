@@ -0,0 +1,54 @@
+package com.seikyuuressha.lms.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitBucketStoreTests {
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(1, Refill.greedy(1, Duration.ofMinutes(1))))
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void returnsSameBucketForKey() {
+        RateLimitBucketStore store = new RateLimitBucketStore(1_000, 60_000, 60, 600, 200, 2_000, new InMemoryRateLimitBackend(), meterRegistry);
+
+        Bucket first = store.resolve("ip:1.2.3.4:graphql", CONFIGURATION);
+        Bucket second = store.resolve("ip:1.2.3.4:graphql", CONFIGURATION);
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("ratelimit.buckets.active").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sizeIsCappedByEvictingLeastRecentlyUsed() {
+        RateLimitBucketStore store = new RateLimitBucketStore(160, 60_000, 60, 600, 200, 2_000, new InMemoryRateLimitBackend(), meterRegistry);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.resolve("ip:10.0." + (i / 256) + "." + (i % 256) + ":general", CONFIGURATION);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(160);
+    }
+
+    @Test
+    void idleBucketsAreSweptAndRecreated() throws InterruptedException {
+        RateLimitBucketStore store = new RateLimitBucketStore(1_000, 1, 60, 600, 200, 2_000, new InMemoryRateLimitBackend(), meterRegistry);
+        Bucket first = store.resolve("user:a:graphql", CONFIGURATION);
+        Thread.sleep(5);
+
+        store.evictIdle();
+        assertThat(store.size()).isZero();
+        assertThat(store.resolve("user:a:graphql", CONFIGURATION)).isNotSameAs(first);
+    }
+}
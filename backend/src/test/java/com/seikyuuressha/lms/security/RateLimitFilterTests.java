@@ -0,0 +1,88 @@
+package com.seikyuuressha.lms.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    private static final int GRAPHQL_LIMIT = 60;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientAddressResolver clientAddressResolver = new ClientAddressResolver("");
+    private final RateLimitFilter filter =
+            new RateLimitFilter(new RateLimitBucketStore(1_000, 600_000, GRAPHQL_LIMIT, 600, 200, 2_000, new InMemoryRateLimitBackend(), meterRegistry), clientAddressResolver, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void usersBehindSameAddressHaveSeparateBuckets() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        for (int i = 0; i < GRAPHQL_LIMIT; i++) {
+            assertThat(send(first)).isEqualTo(200);
+        }
+        assertThat(send(first)).isEqualTo(429);
+        assertThat(send(second)).isEqualTo(200);
+        assertThat(meterRegistry.get("ratelimit.rejections").tag("type", "graphql").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void anonymousRequestsAreLimitedPerAddress() throws Exception {
+        for (int i = 0; i < GRAPHQL_LIMIT; i++) {
+            assertThat(send(null)).isEqualTo(200);
+        }
+        assertThat(send(null)).isEqualTo(429);
+    }
+
+    @Test
+    void addressLimitRejectsBeforeTokenIsParsed() throws Exception {
+        AddressRateLimitFilter addressFilter = new AddressRateLimitFilter(
+                new RateLimitBucketStore(1_000, 600_000, GRAPHQL_LIMIT, 600, 200, 2, new InMemoryRateLimitBackend(), meterRegistry),
+                clientAddressResolver, meterRegistry);
+        AtomicInteger parsed = new AtomicInteger();
+
+        int status = 0;
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+            request.setRemoteAddr("10.1.1.1");
+            request.addHeader("Authorization", "Bearer bogus");
+            request.addHeader("X-Forwarded-For", "203.0.113." + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            addressFilter.doFilter(request, response, (req, res) -> parsed.incrementAndGet());
+            status = response.getStatus();
+        }
+
+        assertThat(parsed).hasValue(2);
+        assertThat(status).isEqualTo(429);
+    }
+
+    private int send(UUID userId) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (userId != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setRemoteAddr("10.1.1.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,171 @@
+package com.seikyuuressha.lms.security;
+
+import com.seikyuuressha.lms.entity.InvalidatedToken;
+import com.seikyuuressha.lms.repository.InvalidatedTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevokedTokenFilterTests {
+
+    private static final long HOUR = 3_600_000;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private RevokedTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        filter = new RevokedTokenFilter(invalidatedTokenRepository, transactionManager, HOUR, 1_000, 0.01, HOUR);
+    }
+
+    @Test
+    void answersMaybeUntilRebuilt() {
+        assertThat(filter.mightBeRevoked(UUID.randomUUID().toString(), System.currentTimeMillis() + HOUR)).isTrue();
+    }
+
+    @Test
+    void rebuildLoadsUnexpiredRevocations() {
+        OffsetDateTime expiry = OffsetDateTime.now().plusHours(2);
+        String revoked = revoke(expiry);
+
+        filter.rebuild();
+
+        long expiresAt = expiry.toInstant().toEpochMilli();
+        assertThat(filter.mightBeRevoked(revoked, expiresAt)).isTrue();
+
+        statistics.clear();
+        int positives = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (filter.mightBeRevoked(UUID.randomUUID().toString(), expiresAt)) {
+                positives++;
+            }
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(positives).isLessThan(50);
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherInstances() {
+        filter.rebuild();
+        OffsetDateTime expiry = OffsetDateTime.now().plusHours(2);
+        String revoked = revoke(expiry);
+
+        filter.sync();
+
+        assertThat(filter.mightBeRevoked(revoked, expiry.toInstant().toEpochMilli())).isTrue();
+    }
+
+    @Test
+    void syncDoesNotDependOnTheRevokingInstanceClock() {
+        filter.rebuild();
+        OffsetDateTime expiry = OffsetDateTime.now().plusHours(2);
+        String revoked = UUID.randomUUID().toString();
+        invalidatedTokenRepository.save(InvalidatedToken.builder()
+                .tokenId(revoked)
+                .expiryTime(expiry)
+                .invalidatedAt(OffsetDateTime.now().minusHours(1))
+                .build());
+
+        filter.sync();
+
+        assertThat(filter.mightBeRevoked(revoked, expiry.toInstant().toEpochMilli())).isTrue();
+    }
+
+    @Test
+    void rowCommittedBehindTheCursorIsPickedUpByTheNextSync() {
+        filter.rebuild();
+        OffsetDateTime expiry = OffsetDateTime.now().plusHours(2);
+        String rolledBack = revoke(expiry);
+        long lateSeq = invalidatedTokenRepository.findById(rolledBack).orElseThrow().getSeq();
+        invalidatedTokenRepository.deleteById(rolledBack);
+        revoke(expiry);
+        filter.sync();
+
+        String late = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO invalidated_tokens (token_id, expiry_time, invalidated_at, seq) VALUES (?, ?, ?, ?)",
+                late, expiry, OffsetDateTime.now(), lateSeq);
+        filter.sync();
+
+        assertThat(filter.mightBeRevoked(late, expiry.toInstant().toEpochMilli())).isTrue();
+    }
+
+    @Test
+    void answersMaybeOnceSyncFallsBehind() throws InterruptedException {
+        filter = new RevokedTokenFilter(invalidatedTokenRepository, transactionManager, HOUR, 1_000, 0.01, 10);
+        filter.rebuild();
+
+        Thread.sleep(50);
+
+        assertThat(filter.mightBeRevoked(UUID.randomUUID().toString(), System.currentTimeMillis() + HOUR)).isTrue();
+    }
+
+    @Test
+    void consumingAnAlreadyRevokedTokenFailsEvenIfTheFilterMissedIt() {
+        OffsetDateTime expiry = OffsetDateTime.now().plusHours(2);
+        String revoked = revoke(expiry);
+
+        assertThatThrownBy(() -> invalidatedTokenRepository.saveAndFlush(InvalidatedToken.builder()
+                .tokenId(revoked)
+                .expiryTime(expiry)
+                .invalidatedAt(OffsetDateTime.now())
+                .inserting(true)
+                .build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void expiredWindowsAreDropped() {
+        filter.rebuild();
+        filter.add(UUID.randomUUID().toString(), OffsetDateTime.now().minusHours(2));
+        filter.add(UUID.randomUUID().toString(), OffsetDateTime.now().plusHours(2));
+        int before = filter.windowCount();
+
+        filter.sync();
+
+        assertThat(filter.windowCount()).isEqualTo(before - 1);
+    }
+
+    private String revoke(OffsetDateTime expiry) {
+        String tokenId = UUID.randomUUID().toString();
+        invalidatedTokenRepository.save(InvalidatedToken.builder()
+                .tokenId(tokenId)
+                .expiryTime(expiry)
+                .invalidatedAt(OffsetDateTime.now())
+                .build());
+        return tokenId;
+    }
+}
@@ -0,0 +1,140 @@
+package com.seikyuuressha.lms.service;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.dto.response.CourseResponse;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.mapper.UserMapperImpl;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
+import com.seikyuuressha.lms.service.catalog.CourseSearchIndex;
+import com.seikyuuressha.lms.service.common.CourseResponseMapper;
+import com.seikyuuressha.lms.service.common.CourseVideoIndex;
+import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CourseService.class, CourseResponseMapper.class, CourseVideoIndex.class,
+        SecurityContextService.class, UserMapperImpl.class, CourseCatalogService.class,
+        CourseSearchIndex.class})
+class CourseServiceTests {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ProgressIngestionBuffer progressIngestionBuffer;
+
+    private Statistics statistics;
+    private TestFixtures fixtures;
+    private Users instructor;
+    private Categories category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fixtures = new TestFixtures(entityManager);
+        instructor = fixtures.user();
+        category = fixtures.category();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void courseTreeIsLoadedInFixedNumberOfStatements() {
+        Course small = persistCourse(1, 1, 0);
+        Course large = persistCourse(12, 20, 5);
+        fixtures.flushAndClear();
+
+        long smallCount = countStatements(() -> courseService.getCourseById(small.getCourseId()));
+        entityManager.clear();
+        long largeCount = countStatements(() -> courseService.getCourseById(large.getCourseId()));
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        assertThat(largeCount).isEqualTo(3);
+    }
+
+    @Test
+    void courseTreeBySlugForEnrolledStudentIsLoadedInFixedNumberOfStatements() {
+        Users student = fixtures.user();
+        Course small = persistCourse(1, 2, 1);
+        Course large = persistCourse(10, 15, 4);
+        fixtures.enrollment(student, small);
+        fixtures.enrollment(student, large);
+        fixtures.flushAndClear();
+        authenticate(student);
+
+        long smallCount = countStatements(() -> courseService.getCourseBySlug(small.getSlug()));
+        entityManager.clear();
+        long largeCount = countStatements(() -> courseService.getCourseBySlug(large.getSlug()));
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        assertThat(largeCount).isEqualTo(6);
+    }
+
+    @Test
+    void courseTreeContainsAllModulesLessonsAndCoInstructors() {
+        Course course = persistCourse(3, 4, 2);
+        fixtures.flushAndClear();
+
+        CourseResponse response = courseService.getCourseById(course.getCourseId());
+
+        assertThat(response.getModules()).hasSize(3);
+        assertThat(response.getModules()).allSatisfy(m -> assertThat(m.getLessons()).hasSize(4));
+        assertThat(response.getModules().get(0).getLessons().get(0).getOrder()).isEqualTo(1);
+        assertThat(response.getCoInstructors()).hasSize(2);
+        assertThat(response.getTotalLessons()).isEqualTo(12);
+        assertThat(response.getCategoryName()).isEqualTo("Category");
+        assertThat(response.getInstructor().getUserId()).isEqualTo(instructor.getUserId());
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Course persistCourse(int moduleCount, int lessonsPerModule, int coInstructorCount) {
+        Course course = fixtures.course(instructor, category, moduleCount, lessonsPerModule, 60);
+        for (int i = 0; i < coInstructorCount; i++) {
+            entityManager.persist(CourseInstructor.builder()
+                    .courseId(course.getCourseId())
+                    .userId(fixtures.user().getUserId())
+                    .build());
+        }
+        return course;
+    }
+
+    private void authenticate(Users user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUserId(), null, List.of()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.seikyuuressha.lms.service;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.dto.response.EnrollmentResponse;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.mapper.UserMapperImpl;
+import com.seikyuuressha.lms.service.catalog.CourseCatalogService;
+import com.seikyuuressha.lms.service.catalog.CourseSearchIndex;
+import com.seikyuuressha.lms.service.common.CourseResponseMapper;
+import com.seikyuuressha.lms.service.common.CourseVideoIndex;
+import com.seikyuuressha.lms.service.common.SecurityContextService;
+import com.seikyuuressha.lms.service.progress.ProgressIngestionBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({EnrollmentService.class, CourseService.class, CourseResponseMapper.class, CourseVideoIndex.class,
+        SecurityContextService.class, UserMapperImpl.class, CourseCatalogService.class,
+        CourseSearchIndex.class})
+class EnrollmentServiceTests {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ProgressIngestionBuffer progressIngestionBuffer;
+
+    private Statistics statistics;
+    private TestFixtures fixtures;
+    private Users instructor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fixtures = new TestFixtures(entityManager);
+        instructor = fixtures.user("Instructor");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void myEnrollmentsTakeFixedStatementsAsEnrollmentsAndLessonsGrow() {
+        Users small = enrolledStudent(3, 4);
+        Users large = enrolledStudent(6, 8);
+        fixtures.flushAndClear();
+
+        authenticate(small);
+        long smallCount = countStatements(() -> assertThat(enrollmentService.getMyEnrollments()).hasSize(3));
+        entityManager.clear();
+        authenticate(large);
+        long largeCount = countStatements(() -> assertThat(enrollmentService.getMyEnrollments()).hasSize(6));
+
+        assertThat(largeCount).isEqualTo(smallCount);
+    }
+
+    @Test
+    void myEnrollmentsCarryCourseTreeAndStoredProgress() {
+        Users student = fixtures.user("Student");
+        Course course = fixtures.course(instructor, null, 2, 3, 60);
+        Enrollment enrollment = fixtures.enrollment(student, course);
+        enrollment.setCompletedLessons(3);
+        enrollment.setProgressPercent(50.0);
+        fixtures.flushAndClear();
+        authenticate(student);
+
+        List<EnrollmentResponse> enrollments = enrollmentService.getMyEnrollments();
+
+        assertThat(enrollments).singleElement().satisfies(response -> {
+            assertThat(response.getProgressPercent()).isEqualTo(50.0);
+            assertThat(response.getCourse().getCourseId()).isEqualTo(course.getCourseId());
+            assertThat(response.getCourse().getModules()).hasSize(2);
+            assertThat(response.getCourse().getModules()).allSatisfy(m -> assertThat(m.getLessons()).hasSize(3));
+        });
+    }
+
+    private Users enrolledStudent(int courseCount, int lessonsPerCourse) {
+        Users student = fixtures.user("Student");
+        for (int i = 0; i < courseCount; i++) {
+            Course course = fixtures.course(instructor, null, 2, lessonsPerCourse / 2, 60);
+            fixtures.enrollment(student, course);
+        }
+        return student;
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void authenticate(Users user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUserId(), null, List.of()));
+    }
+}
@@ -0,0 +1,249 @@
+package com.seikyuuressha.lms.service.catalog;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.dto.request.CourseCatalogFilter;
+import com.seikyuuressha.lms.dto.request.CourseSort;
+import com.seikyuuressha.lms.dto.response.CoInstructorResponse;
+import com.seikyuuressha.lms.dto.response.CourseConnection;
+import com.seikyuuressha.lms.dto.response.CourseEdge;
+import com.seikyuuressha.lms.dto.response.CourseResponse;
+import com.seikyuuressha.lms.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "catalog.rebuild-on-startup=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CourseCatalogService.class, CourseSearchIndex.class})
+class CourseCatalogServiceTests {
+
+    @Autowired
+    private CourseCatalogService courseCatalogService;
+
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private TestFixtures fixtures;
+    private Users instructor;
+    private Categories category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fixtures = new TestFixtures(entityManager);
+        instructor = fixtures.user("Instructor");
+        category = fixtures.category();
+    }
+
+    @Test
+    void refreshStoresLessonTotalsRatingAndInstructors() {
+        Course course = persistCourse(3, 4, 90);
+        Users coInstructor = fixtures.user("Co-instructor");
+        entityManager.persist(CourseInstructor.builder()
+                .courseId(course.getCourseId())
+                .userId(coInstructor.getUserId())
+                .userRole(CourseInstructor.InstructorRole.CO_INSTRUCTOR)
+                .build());
+        persistReview(course, 5);
+        persistReview(course, 4);
+        fixtures.flushAndClear();
+
+        courseCatalogService.refreshChunk(List.of(course.getCourseId()));
+        fixtures.flushAndClear();
+
+        CourseResponse response = courseCatalogService.getPublishedCourses(null).stream()
+                .filter(c -> c.getCourseId().equals(course.getCourseId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(response.getTotalLessons()).isEqualTo(12);
+        assertThat(response.getTotalDuration()).isEqualTo(12 * 90);
+        assertThat(response.getAverageRating()).isEqualTo(4.5);
+        assertThat(response.getCategoryName()).isEqualTo("Category");
+        assertThat(response.getInstructor().getFullName()).isEqualTo("Instructor");
+        assertThat(response.getCoInstructors()).extracting(CoInstructorResponse::getFullName)
+                .containsExactly("Co-instructor");
+    }
+
+    @Test
+    void refreshRemovesUnpublishedCourses() {
+        Course course = persistCourse(1, 1, 60);
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(List.of(course.getCourseId())).applyTo(courseSearchIndex);
+        fixtures.flushAndClear();
+
+        Course managed = entityManager.find(Course.class, course.getCourseId());
+        managed.setPublished(false);
+        fixtures.flushAndClear();
+        CourseCatalogService.SearchIndexUpdate update = courseCatalogService.refreshChunk(List.of(course.getCourseId()));
+        fixtures.flushAndClear();
+
+        assertThat(courseCatalogService.searchCourses("course", 100)).extracting(CourseResponse::getCourseId)
+                .contains(course.getCourseId());
+        update.applyTo(courseSearchIndex);
+
+        assertThat(entityManager.find(CourseCatalog.class, course.getCourseId())).isNull();
+        assertThat(courseCatalogService.searchCourses("course", 100)).extracting(CourseResponse::getCourseId)
+                .doesNotContain(course.getCourseId());
+    }
+
+    @Test
+    void refreshFeedsSearchIndexWithLessonTitles() {
+        Course course = persistCourse(1, 2, 60);
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(List.of(course.getCourseId())).applyTo(courseSearchIndex);
+
+        statistics.clear();
+        List<CourseResponse> results = courseCatalogService.searchCourses("less", 100);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(results).extracting(CourseResponse::getCourseId).contains(course.getCourseId());
+    }
+
+    @Test
+    void rebuildSearchIndexConvergesOnCatalog() {
+        Course course = persistCourse(1, 1, 60);
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(List.of(course.getCourseId()));
+        fixtures.flushAndClear();
+        CourseResponse stale = CourseResponse.builder().courseId(UUID.randomUUID()).title("Course").build();
+        courseSearchIndex.index(stale, List.of());
+
+        courseCatalogService.rebuildSearchIndex();
+
+        assertThat(courseCatalogService.searchCourses("course", 100)).extracting(CourseResponse::getCourseId)
+                .contains(course.getCourseId())
+                .doesNotContain(stale.getCourseId());
+    }
+
+    @Test
+    void listingTakesOneStatementRegardlessOfCourseSize() {
+        List<UUID> courseIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            courseIds.add(persistCourse(5, 10, 30).getCourseId());
+        }
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(courseIds);
+        fixtures.flushAndClear();
+
+        statistics.clear();
+        List<CourseResponse> all = courseCatalogService.getPublishedCourses(null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(all).extracting(CourseResponse::getCourseId).containsAll(courseIds);
+
+        statistics.clear();
+        courseCatalogService.getPublishedCourses(category.getCategoryId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesThroughCatalogWithoutGapsOrDuplicates() {
+        List<UUID> courseIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Course course = persistCourse(1, 1, 60);
+            course.setPrice(BigDecimal.valueOf(i % 3));
+            courseIds.add(course.getCourseId());
+        }
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(courseIds);
+        fixtures.flushAndClear();
+
+        for (CourseSort sort : CourseSort.values()) {
+            List<CourseResponse> seen = new ArrayList<>();
+            String after = null;
+            CourseConnection page;
+            do {
+                statistics.clear();
+                page = courseCatalogService.getCatalogPage(3, after, sort, null);
+                assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+                assertThat(page.getEdges()).hasSizeLessThanOrEqualTo(3);
+                page.getEdges().stream().map(CourseEdge::getNode).forEach(seen::add);
+                after = page.getPageInfo().getEndCursor();
+            } while (page.getPageInfo().isHasNextPage());
+
+            assertThat(seen).extracting(CourseResponse::getCourseId).containsExactlyInAnyOrderElementsOf(courseIds);
+            if (sort == CourseSort.PRICE_ASC) {
+                assertThat(seen).extracting(CourseResponse::getPrice).isSortedAccordingTo(BigDecimal::compareTo);
+            }
+        }
+    }
+
+    @Test
+    void filtersByLevelAndPriceRange() {
+        Course cheap = persistCourse(1, 1, 60);
+        cheap.setPrice(BigDecimal.valueOf(5));
+        cheap.setLevel("BEGINNER");
+        Course pricey = persistCourse(1, 1, 60);
+        pricey.setPrice(BigDecimal.valueOf(50));
+        pricey.setLevel("BEGINNER");
+        Course advanced = persistCourse(1, 1, 60);
+        advanced.setPrice(BigDecimal.valueOf(5));
+        advanced.setLevel("ADVANCED");
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(List.of(cheap.getCourseId(), pricey.getCourseId(), advanced.getCourseId()));
+        fixtures.flushAndClear();
+
+        CourseConnection page = courseCatalogService.getCatalogPage(10, null, CourseSort.NEWEST,
+                CourseCatalogFilter.builder()
+                        .level("BEGINNER")
+                        .minPrice(BigDecimal.ONE)
+                        .maxPrice(BigDecimal.TEN)
+                        .build());
+
+        assertThat(page.getEdges()).extracting(e -> e.getNode().getCourseId()).containsExactly(cheap.getCourseId());
+        assertThat(page.getPageInfo().isHasNextPage()).isFalse();
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        Course course = persistCourse(1, 1, 60);
+        persistCourse(1, 1, 60);
+        fixtures.flushAndClear();
+        courseCatalogService.refreshChunk(List.of(course.getCourseId()));
+        fixtures.flushAndClear();
+
+        String cursor = courseCatalogService.getCatalogPage(1, null, CourseSort.NEWEST, null)
+                .getPageInfo().getEndCursor();
+
+        assertThatThrownBy(() -> courseCatalogService.getCatalogPage(1, cursor, CourseSort.RATING, null))
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> courseCatalogService.getCatalogPage(1, "not-a-cursor", CourseSort.NEWEST, null))
+                .hasMessage("Invalid cursor");
+    }
+
+    private Course persistCourse(int moduleCount, int lessonsPerModule, int lessonDuration) {
+        return fixtures.course(instructor, category, moduleCount, lessonsPerModule, lessonDuration);
+    }
+
+    private void persistReview(Course course, int rating) {
+        entityManager.persist(Review.builder()
+                .course(course)
+                .user(fixtures.user("Student"))
+                .rating(rating)
+                .isActive(true)
+                .build());
+    }
+}
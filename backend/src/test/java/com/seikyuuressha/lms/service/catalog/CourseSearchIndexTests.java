@@ -0,0 +1,81 @@
+package com.seikyuuressha.lms.service.catalog;
+
+import com.seikyuuressha.lms.dto.response.CourseResponse;
+import com.seikyuuressha.lms.dto.response.InstructorResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseSearchIndexTests {
+
+    private final CourseSearchIndex index = new CourseSearchIndex();
+
+    @Test
+    void foldsVietnameseDiacritics() {
+        assertThat(CourseSearchIndex.tokenize("Lập trình Đồ họa")).containsExactly("lap", "trinh", "do", "hoa");
+
+        CourseResponse course = course("Lập trình Java cơ bản", "Nhập môn", "Nguyễn Văn An");
+        index.index(course, List.of());
+
+        assertThat(index.search("lap trinh", 10)).extracting(CourseResponse::getCourseId)
+                .containsExactly(course.getCourseId());
+        assertThat(index.search("NGUYỄN", 10)).extracting(CourseResponse::getCourseId)
+                .containsExactly(course.getCourseId());
+    }
+
+    @Test
+    void matchesPrefixOfLastToken() {
+        CourseResponse spring = course("Spring Boot", "Backend", "Teacher");
+        CourseResponse react = course("React", "Frontend", "Teacher");
+        index.index(spring, List.of("Dependency injection"));
+        index.index(react, List.of("Hooks"));
+
+        assertThat(index.search("spr", 10)).extracting(CourseResponse::getCourseId)
+                .containsExactly(spring.getCourseId());
+        assertThat(index.search("depend", 10)).extracting(CourseResponse::getCourseId)
+                .containsExactly(spring.getCourseId());
+        assertThat(index.search("s", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatches() {
+        CourseResponse inTitle = course("Docker for developers", "Containers", "Teacher");
+        CourseResponse inLesson = course("DevOps pipeline", "Continuous delivery", "Teacher");
+        CourseResponse unrelated = course("Painting", "Watercolor basics", "Artist");
+        index.index(inLesson, List.of("Building a docker image"));
+        index.index(inTitle, List.of("Installation"));
+        index.index(unrelated, List.of("Brushes"));
+
+        assertThat(index.search("docker", 10)).extracting(CourseResponse::getCourseId)
+                .containsExactly(inTitle.getCourseId(), inLesson.getCourseId());
+        assertThat(index.search("docker", 1)).hasSize(1);
+    }
+
+    @Test
+    void reindexAndRemoveReplacePostings() {
+        CourseResponse course = course("Kotlin", "Android", "Teacher");
+        index.index(course, List.of());
+
+        course.setTitle("Swift");
+        index.index(course, List.of());
+        assertThat(index.search("kotlin", 10)).isEmpty();
+        assertThat(index.search("swift", 10)).hasSize(1);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(course.getCourseId());
+        assertThat(index.search("swift", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private CourseResponse course(String title, String description, String instructorName) {
+        return CourseResponse.builder()
+                .courseId(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .instructor(InstructorResponse.builder().userId(UUID.randomUUID()).fullName(instructorName).build())
+                .build();
+    }
+}
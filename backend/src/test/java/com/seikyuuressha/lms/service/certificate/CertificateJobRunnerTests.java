@@ -0,0 +1,119 @@
+package com.seikyuuressha.lms.service.certificate;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.repository.CertificateRepository;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "certificate.jobs.recovery-interval-ms=3600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CertificateJobRunner.class, CertificatePdfRenderer.class})
+class CertificateJobRunnerTests {
+
+    @Autowired
+    private CertificateJobRunner certificateJobRunner;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ObjectStorage objectStorage;
+
+    private Users student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        student = fixtures.user("Student");
+        course = fixtures.course(student);
+    }
+
+    @Test
+    void pendingCertificateIsRenderedUploadedAndMarkedReady() {
+        Certificate certificate = persistPending();
+
+        certificateJobRunner.process(certificate.getCertificateId());
+        entityManager.clear();
+
+        Certificate ready = entityManager.find(Certificate.class, certificate.getCertificateId());
+        assertThat(ready.getStatus()).isEqualTo(Certificate.Status.READY);
+        assertThat(ready.getPdfUrl()).isEqualTo("certificates/" + certificate.getCertificateCode() + ".pdf");
+        verify(objectStorage).put(eq(ready.getPdfUrl()), any(byte[].class), eq("application/pdf"));
+    }
+
+    @Test
+    void uploadFailureMarksCertificateFailed() {
+        Certificate certificate = persistPending();
+        doThrow(new RuntimeException("unavailable"))
+                .when(objectStorage).put(anyString(), any(byte[].class), anyString());
+
+        certificateJobRunner.process(certificate.getCertificateId());
+        entityManager.clear();
+
+        Certificate failed = entityManager.find(Certificate.class, certificate.getCertificateId());
+        assertThat(failed.getStatus()).isEqualTo(Certificate.Status.FAILED);
+        assertThat(failed.getPdfUrl()).isNull();
+    }
+
+    @Test
+    void certificateThatIsNoLongerPendingIsSkipped() {
+        Certificate certificate = entityManager.find(Certificate.class, persistPending().getCertificateId());
+        certificate.setStatus(Certificate.Status.READY);
+        certificate.setPdfUrl("certificates/existing.pdf");
+        entityManager.flush();
+        entityManager.clear();
+
+        certificateJobRunner.process(certificate.getCertificateId());
+
+        verifyNoInteractions(objectStorage);
+    }
+    @Test
+    void staleCertificateIsClaimedByOneReplicaOnly() {
+        Certificate certificate = Certificate.builder()
+                .user(student)
+                .course(course)
+                .issuedAt(OffsetDateTime.now().minusHours(1))
+                .build();
+        entityManager.persist(certificate);
+        entityManager.flush();
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime before = now.minusMinutes(5);
+
+        assertThat(certificateRepository.claimStale(certificate.getCertificateId(), before, now)).isEqualTo(1);
+        assertThat(certificateRepository.claimStale(certificate.getCertificateId(), before, now)).isZero();
+    }
+
+    private Certificate persistPending() {
+        Certificate certificate = Certificate.builder()
+                .user(student)
+                .course(course)
+                .finalScore(95.0)
+                .build();
+        entityManager.persist(certificate);
+        entityManager.flush();
+        entityManager.clear();
+        return certificate;
+    }
+}
@@ -0,0 +1,50 @@
+package com.seikyuuressha.lms.service.certificate;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificatePdfRendererTests {
+
+    private final CertificatePdfRenderer renderer;
+
+    CertificatePdfRendererTests() throws IOException {
+        renderer = new CertificatePdfRenderer();
+    }
+
+    @Test
+    void rendersVariableTextOverSharedBackground() throws IOException {
+        byte[] pdf = renderer.render("Nguyen Van A", "Spring Boot Basics", "LMS-2026-000001", 92.5);
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            PdfPage page = document.getFirstPage();
+            String text = PdfTextExtractor.getTextFromPage(page);
+            assertThat(text).contains("NGUYEN VAN A", "Spring Boot Basics", "Final Grade: 92.5/100",
+                    "Certificate ID: LMS-2026-000001");
+
+            PdfDictionary xObjects = page.getResources().getResource(PdfName.XObject);
+            assertThat(xObjects).isNotNull();
+            assertThat(xObjects.size()).isEqualTo(1);
+            assertThat(page.getResources().getResource(PdfName.Font).size()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void rendererIsReusableAcrossDocuments() {
+        byte[] first = renderer.render("A", "Course", "LMS-1", 90.0);
+        byte[] second = renderer.render("B", "Course", "LMS-2", 95.0);
+
+        assertThat(first).isNotEmpty();
+        assertThat(second).isNotEmpty();
+    }
+}
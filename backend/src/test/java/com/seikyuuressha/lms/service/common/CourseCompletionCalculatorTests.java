@@ -0,0 +1,49 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.Course;
+import com.seikyuuressha.lms.entity.Lesson;
+import com.seikyuuressha.lms.entity.Users;
+import com.seikyuuressha.lms.service.common.CourseCompletionCalculator.CourseCompletion;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CourseCompletionCalculator.class)
+class CourseCompletionCalculatorTests {
+
+    @Autowired
+    private CourseCompletionCalculator calculator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void computesCompletedAndTotalLessonsPerCourse() {
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        Users student = fixtures.user();
+        Course course = fixtures.course(fixtures.user());
+        List<Lesson> lessons = fixtures.lessons(fixtures.module(course, 1), 4, 60);
+        fixtures.progress(student, lessons.get(0), 100.0);
+        fixtures.progress(student, lessons.get(1), 80.0);
+        fixtures.progress(student, lessons.get(2), 79.9);
+        fixtures.flushAndClear();
+
+        CourseCompletion completion = calculator.liveCompletion(student.getUserId(), course.getCourseId());
+
+        assertThat(completion.getCompletedLessons()).isEqualTo(2);
+        assertThat(completion.getTotalLessons()).isEqualTo(4);
+        assertThat(completion.getProgressPercent()).isEqualTo(50.0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.entity.Video;
+import com.seikyuuressha.lms.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CourseVideoIndexTests {
+
+    private final UUID courseId = UUID.randomUUID();
+    private final UUID lessonId = UUID.randomUUID();
+    private VideoRepository videoRepository;
+
+    @BeforeEach
+    void setUp() {
+        videoRepository = mock(VideoRepository.class);
+        when(videoRepository.findLessonIdsByCourseIdAndStatus(any(), eq(Video.ProcessingStatus.COMPLETED)))
+                .thenReturn(List.of(lessonId));
+    }
+
+    @Test
+    void cachesCourseUntilInvalidated() {
+        CourseVideoIndex index = new CourseVideoIndex(videoRepository, 100, 60_000);
+
+        assertThat(index.lessonsWithVideo(courseId)).containsExactly(lessonId);
+        index.lessonsWithVideo(courseId);
+        verify(videoRepository, times(1)).findLessonIdsByCourseIdAndStatus(courseId, Video.ProcessingStatus.COMPLETED);
+
+        index.invalidate(courseId);
+        index.lessonsWithVideo(courseId);
+        verify(videoRepository, times(2)).findLessonIdsByCourseIdAndStatus(courseId, Video.ProcessingStatus.COMPLETED);
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        CourseVideoIndex index = new CourseVideoIndex(videoRepository, 100, 60_000);
+        when(videoRepository.findLessonIdsByCourseIdAndStatus(courseId, Video.ProcessingStatus.COMPLETED))
+                .thenAnswer(invocation -> {
+                    index.invalidate(courseId);
+                    return List.of(lessonId);
+                })
+                .thenReturn(List.of());
+
+        assertThat(index.lessonsWithVideo(courseId)).containsExactly(lessonId);
+        assertThat(index.lessonsWithVideo(courseId)).isEmpty();
+    }
+
+    @Test
+    void expiredCourseIsReloaded() {
+        CourseVideoIndex index = new CourseVideoIndex(videoRepository, 100, 0);
+
+        index.lessonsWithVideo(courseId);
+        index.lessonsWithVideo(courseId);
+
+        verify(videoRepository, times(2)).findLessonIdsByCourseIdAndStatus(courseId, Video.ProcessingStatus.COMPLETED);
+    }
+
+    @Test
+    void leastRecentlyUsedCourseIsEvictedWhenFull() {
+        CourseVideoIndex index = new CourseVideoIndex(videoRepository, 1, 60_000);
+        UUID otherCourse = UUID.randomUUID();
+
+        index.lessonsWithVideo(courseId);
+        index.lessonsWithVideo(otherCourse);
+        index.lessonsWithVideo(courseId);
+
+        verify(videoRepository, times(2)).findLessonIdsByCourseIdAndStatus(courseId, Video.ProcessingStatus.COMPLETED);
+    }
+}
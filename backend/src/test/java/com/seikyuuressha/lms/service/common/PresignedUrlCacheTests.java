@@ -0,0 +1,87 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PresignedUrlCacheTests {
+
+    private final ObjectStorage objectStorage = mock(ObjectStorage.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger signatures = new AtomicInteger();
+
+    PresignedUrlCacheTests() {
+        when(objectStorage.presignGet(anyString(), any(Duration.class), any())).thenAnswer(invocation ->
+                "https://bucket.example/" + invocation.getArgument(0) + "?sig=" + signatures.incrementAndGet());
+    }
+
+    @Test
+    void reusesUrlWithinHalfOfItsValidity() {
+        PresignedUrlCache cache = new PresignedUrlCache(objectStorage, 100, meterRegistry);
+
+        String first = cache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, "certs/1.pdf", Duration.ofHours(1));
+        String second = cache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, "certs/1.pdf", Duration.ofHours(1));
+
+        assertThat(second).isEqualTo(first);
+        verify(objectStorage, times(1)).presignGet(anyString(), any(Duration.class), any());
+        assertThat(meterRegistry.get("presigned.url.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("presigned.url.cache").tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void scopesAreSignedSeparately() {
+        PresignedUrlCache cache = new PresignedUrlCache(objectStorage, 100, meterRegistry);
+
+        String stream = cache.getObjectUrl(PresignedUrlCache.SCOPE_VIDEO_STREAM, "videos/1.mp4", Duration.ofHours(1),
+                "public, max-age=86400");
+        String plain = cache.getObjectUrl(PresignedUrlCache.SCOPE_LESSON_RESOURCE, "videos/1.mp4", Duration.ofHours(1));
+
+        assertThat(plain).isNotEqualTo(stream);
+        verify(objectStorage).presignGet("videos/1.mp4", Duration.ofHours(1), "public, max-age=86400");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void resignsOnceReuseWindowHasPassed() throws InterruptedException {
+        PresignedUrlCache cache = new PresignedUrlCache(objectStorage, 100, meterRegistry);
+
+        String first = cache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, "certs/1.pdf", Duration.ofMillis(4));
+        Thread.sleep(5);
+
+        assertThat(cache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, "certs/1.pdf", Duration.ofMillis(4)))
+                .isNotEqualTo(first);
+    }
+
+    @Test
+    void invalidateDropsEveryScopeForObject() {
+        PresignedUrlCache cache = new PresignedUrlCache(objectStorage, 100, meterRegistry);
+        cache.getObjectUrl(PresignedUrlCache.SCOPE_VIDEO_STREAM, "videos/1.mp4", Duration.ofHours(1));
+        cache.getObjectUrl(PresignedUrlCache.SCOPE_LESSON_RESOURCE, "videos/1.mp4", Duration.ofHours(1));
+        cache.getObjectUrl(PresignedUrlCache.SCOPE_LESSON_RESOURCE, "videos/2.mp4", Duration.ofHours(1));
+
+        cache.invalidate("videos/1.mp4");
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeIsBounded() {
+        PresignedUrlCache cache = new PresignedUrlCache(objectStorage, 10, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.getObjectUrl(PresignedUrlCache.SCOPE_CERTIFICATE, "certs/" + i, Duration.ofHours(1)))
+                    .isNotNull();
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("presigned.url.cache.size").gauge().value()).isEqualTo(cache.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.seikyuuressha.lms.service.common;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.Users;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(SecurityContextService.class)
+class SecurityContextServiceTests {
+
+    @Autowired
+    private SecurityContextService securityContextService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Users instructor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        instructor = fixtures.user("Instructor", fixtures.role("INSTRUCTOR"));
+        fixtures.flushAndClear();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void roleChecksUseGrantedAuthorityWithoutQuery() {
+        authenticate(List.of(new SimpleGrantedAuthority("ROLE_INSTRUCTOR")));
+
+        statistics.clear();
+        assertThat(securityContextService.isInstructor()).isTrue();
+        assertThat(securityContextService.isAdmin()).isFalse();
+        assertThat(securityContextService.hasRole("INSTRUCTOR")).isTrue();
+        assertThat(securityContextService.getCurrentIdentity().active()).isTrue();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void currentUserIsLoadedOncePerRequest() {
+        authenticate(List.of(new SimpleGrantedAuthority("ROLE_INSTRUCTOR")));
+
+        statistics.clear();
+        Users first = securityContextService.getCurrentInstructor();
+        entityManager.clear();
+        Users second = securityContextService.getCurrentUser();
+
+        assertThat(second).isSameAs(first);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void roleFallsBackToUserRowWhenAuthenticationHasNoRole() {
+        authenticate(List.of());
+
+        statistics.clear();
+        assertThat(securityContextService.isInstructor()).isTrue();
+        long afterFirstCheck = statistics.getPrepareStatementCount();
+
+        assertThat(securityContextService.hasRole("ADMIN")).isFalse();
+        assertThat(securityContextService.isAdmin()).isFalse();
+        assertThat(securityContextService.getCurrentUser().getUserId()).isEqualTo(instructor.getUserId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstCheck);
+    }
+
+    @Test
+    void roleChecksStillRequireAuthentication() {
+        assertThatThrownBy(() -> securityContextService.isAdmin()).hasMessage("Unauthorized");
+        assertThat(securityContextService.hasRole("ADMIN")).isFalse();
+    }
+
+    private void authenticate(List<GrantedAuthority> authorities) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(instructor.getUserId(), null, authorities));
+    }
+}
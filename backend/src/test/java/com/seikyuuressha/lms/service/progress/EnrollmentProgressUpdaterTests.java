@@ -0,0 +1,87 @@
+package com.seikyuuressha.lms.service.progress;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.service.progress.EnrollmentProgressUpdater.UserCourse;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(EnrollmentProgressUpdater.class)
+class EnrollmentProgressUpdaterTests {
+
+    @Autowired
+    private EnrollmentProgressUpdater updater;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TestFixtures fixtures;
+    private Course course;
+    private List<Lesson> lessons;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(entityManager);
+        course = fixtures.course(fixtures.user());
+        lessons = fixtures.lessons(fixtures.module(course, 1), 4, 60);
+    }
+
+    @Test
+    void addsCompletedLessonsAndRecalculatesPercent() {
+        Users student = fixtures.user();
+        Enrollment enrollment = fixtures.enrollment(student, course);
+        fixtures.flushAndClear();
+
+        updater.addCompletedLessons(Map.of(new UserCourse(student.getUserId(), course.getCourseId()), 1));
+        updater.addCompletedLessons(Map.of(new UserCourse(student.getUserId(), course.getCourseId()), 2));
+        fixtures.flushAndClear();
+
+        Enrollment updated = entityManager.find(Enrollment.class, enrollment.getEnrollmentId());
+        assertThat(updated.getCompletedLessons()).isEqualTo(3);
+        assertThat(updated.getProgressPercent()).isEqualTo(75.0);
+    }
+
+    @Test
+    void recomputeCountsProgressRowsAboveThreshold() {
+        Users first = fixtures.user();
+        Users second = fixtures.user();
+        Enrollment firstEnrollment = fixtures.enrollment(first, course);
+        Enrollment secondEnrollment = fixtures.enrollment(second, course);
+        fixtures.progress(first, lessons.get(0), 100.0);
+        fixtures.progress(first, lessons.get(1), 80.0);
+        fixtures.progress(first, lessons.get(2), 79.9);
+        fixtures.progress(second, lessons.get(3), 95.0);
+        fixtures.flushAndClear();
+
+        updater.recomputeCourse(course.getCourseId());
+        fixtures.flushAndClear();
+
+        Enrollment firstUpdated = entityManager.find(Enrollment.class, firstEnrollment.getEnrollmentId());
+        Enrollment secondUpdated = entityManager.find(Enrollment.class, secondEnrollment.getEnrollmentId());
+        assertThat(firstUpdated.getCompletedLessons()).isEqualTo(2);
+        assertThat(firstUpdated.getProgressPercent()).isEqualTo(50.0);
+        assertThat(secondUpdated.getCompletedLessons()).isEqualTo(1);
+        assertThat(secondUpdated.getProgressPercent()).isEqualTo(25.0);
+    }
+
+    @Test
+    void thresholdCrossingIsCountedOnce() {
+        assertThat(EnrollmentProgressUpdater.crossesThreshold(0.0, 80.0)).isTrue();
+        assertThat(EnrollmentProgressUpdater.crossesThreshold(79.9, 100.0)).isTrue();
+        assertThat(EnrollmentProgressUpdater.crossesThreshold(80.0, 100.0)).isFalse();
+        assertThat(EnrollmentProgressUpdater.crossesThreshold(10.0, 79.9)).isFalse();
+    }
+}
@@ -0,0 +1,137 @@
+package com.seikyuuressha.lms.service.progress;
+
+import com.seikyuuressha.lms.dto.response.ProgressResponse;
+import com.seikyuuressha.lms.entity.Progress;
+import com.seikyuuressha.lms.repository.LessonRepository;
+import com.seikyuuressha.lms.repository.ProgressRepository;
+import com.seikyuuressha.lms.repository.UserRepository;
+import com.seikyuuressha.lms.service.progress.EnrollmentProgressUpdater.UserCourse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProgressIngestionBufferTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID courseId = UUID.randomUUID();
+    private ProgressRepository progressRepository;
+    private EnrollmentProgressUpdater enrollmentProgressUpdater;
+    private ProgressIngestionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        progressRepository = mock(ProgressRepository.class);
+        enrollmentProgressUpdater = mock(EnrollmentProgressUpdater.class);
+        buffer = new ProgressIngestionBuffer(progressRepository, mock(UserRepository.class),
+                mock(LessonRepository.class), enrollmentProgressUpdater, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(buffer, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(buffer, "idleTimeoutMs", 60_000L);
+    }
+
+    @Test
+    void keepsTheHighestValuesAndFlushesThemOnce() {
+        UUID lessonId = UUID.randomUUID();
+        buffer.track(seed(lessonId, courseId), 10, 20.0);
+        buffer.merge(userId, lessonId, 5, 85.0);
+        ProgressResponse merged = buffer.merge(userId, lessonId, 30, 40.0).orElseThrow();
+
+        assertThat(merged.getWatchedSeconds()).isEqualTo(30);
+        assertThat(merged.getProgressPercent()).isEqualTo(85.0);
+
+        buffer.flush();
+        buffer.flush();
+
+        Progress written = savedBatches().get(0).get(0);
+        assertThat(written.getWatchedSeconds()).isEqualTo(30);
+        assertThat(written.getProgressPercent()).isEqualTo(85.0);
+        verify(progressRepository, times(1)).saveAll(anyList());
+        verify(enrollmentProgressUpdater).addCompletedLessons(Map.of(new UserCourse(userId, courseId), 1));
+    }
+
+    @Test
+    void drainWritesPendingEntries() {
+        buffer.track(seed(UUID.randomUUID(), courseId), 10, 20.0);
+
+        buffer.drain();
+
+        assertThat(savedBatches()).hasSize(1);
+    }
+
+    @Test
+    void failedBatchIsRetriedEntryByEntry() {
+        when(progressRepository.saveAll(anyList())).thenThrow(new RuntimeException("deadlock"));
+        when(progressRepository.save(any(Progress.class)))
+                .thenThrow(new RuntimeException("constraint violation"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        UUID dropped = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        buffer.track(seed(dropped, courseId), 10, 20.0);
+        buffer.track(seed(kept, courseId), 10, 20.0);
+
+        buffer.flush();
+
+        verify(progressRepository, times(2)).save(any(Progress.class));
+        assertThat(buffer.findByUser(userId, courseId)).hasSize(1);
+
+        buffer.flush();
+        verify(progressRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void idleEntriesAreEvictedFromEveryIndex() {
+        ReflectionTestUtils.setField(buffer, "idleTimeoutMs", 0L);
+        UUID lessonId = UUID.randomUUID();
+        buffer.track(seed(lessonId, courseId), 10, 20.0);
+        assertThat(buffer.hasLesson(lessonId)).isTrue();
+
+        buffer.flush();
+
+        assertThat(buffer.find(userId, lessonId)).isEmpty();
+        assertThat(buffer.findByUser(userId, null)).isEmpty();
+        assertThat(buffer.hasLesson(lessonId)).isFalse();
+        assertThat(buffer.merge(userId, lessonId, 20, 30.0)).isEmpty();
+    }
+
+    @Test
+    void discardedCourseIsNotWritten() {
+        UUID otherCourse = UUID.randomUUID();
+        UUID discardedLesson = UUID.randomUUID();
+        buffer.track(seed(discardedLesson, courseId), 10, 20.0);
+        buffer.track(seed(UUID.randomUUID(), otherCourse), 10, 20.0);
+
+        buffer.discardUserCourse(userId, courseId);
+        buffer.flush();
+
+        assertThat(savedBatches().get(0)).hasSize(1);
+        assertThat(buffer.hasLesson(discardedLesson)).isFalse();
+        assertThat(buffer.findByUser(userId, null)).hasSize(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Progress>> savedBatches() {
+        ArgumentCaptor<List<Progress>> captor = ArgumentCaptor.forClass(List.class);
+        verify(progressRepository, atLeastOnce()).saveAll(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private ProgressIngestionBuffer.ProgressSeed seed(UUID lessonId, UUID lessonCourseId) {
+        return ProgressIngestionBuffer.ProgressSeed.builder()
+                .userId(userId)
+                .lessonId(lessonId)
+                .courseId(lessonCourseId)
+                .lessonTitle("Lesson")
+                .progressId(UUID.randomUUID())
+                .build();
+    }
+}
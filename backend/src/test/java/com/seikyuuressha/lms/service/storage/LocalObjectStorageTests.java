@@ -0,0 +1,147 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.service.storage.ObjectStorage.CompletedPart;
+import com.seikyuuressha.lms.service.storage.ObjectStorage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalObjectStorageTests {
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/", "secret", List.of("images/"));
+    }
+
+    @Test
+    void putGetHeadAndDelete() throws IOException {
+        storage.put("certificates/a.pdf", bytes("hello"), "application/pdf");
+
+        try (InputStream in = storage.get("certificates/a.pdf")) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+        }
+        assertThat(storage.head("certificates/a.pdf")).map(StoredObject::size).contains(5L);
+
+        storage.delete("certificates/a.pdf");
+        assertThat(storage.head("certificates/a.pdf")).isEmpty();
+    }
+
+    @Test
+    void deleteAllTreatsMissingObjectsAsDeleted() {
+        storage.put("videos/a.mp4", bytes("a"), "video/mp4");
+        storage.put("resources/b.pdf", bytes("b"), "application/pdf");
+
+        assertThat(storage.deleteAll(List.of("videos/a.mp4", "resources/b.pdf", "videos/missing.mp4"))).isEmpty();
+        assertThat(storage.head("videos/a.mp4")).isEmpty();
+        assertThat(storage.head("resources/b.pdf")).isEmpty();
+    }
+
+    @Test
+    void readRangeFillsBufferFromPosition() {
+        storage.put("videos/v.mp4", bytes("0123456789"), "video/mp4");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+
+        assertThat(storage.readRange("videos/v.mp4", 8, buffer)).isEqualTo(2);
+        buffer.flip();
+        assertThat(StandardCharsets.UTF_8.decode(buffer).toString()).isEqualTo("89");
+        assertThat(storage.readRange("videos/v.mp4", 10, ByteBuffer.allocate(4))).isEqualTo(-1);
+    }
+
+    @Test
+    void listFiltersByPrefixAndSkipsMultipartStaging() {
+        storage.put("videos/a.mp4", bytes("a"), "video/mp4");
+        storage.put("resources/b.pdf", bytes("b"), "application/pdf");
+        storage.createMultipartUpload("videos/c.mp4", "video/mp4");
+
+        try (Stream<StoredObject> objects = storage.list("videos/")) {
+            assertThat(objects.map(StoredObject::key)).containsExactly("videos/a.mp4");
+        }
+    }
+
+    @Test
+    void keysCannotEscapeRoot() {
+        assertThatThrownBy(() -> storage.put("../outside", bytes("x"), null)).hasMessage("Invalid object key");
+        assertThatThrownBy(() -> storage.get(".multipart/x/1")).hasMessage("Invalid object key");
+    }
+
+    @Test
+    void presignedUrlsVerifyUntilTampered() {
+        UriComponents url = UriComponentsBuilder.fromUriString(
+                storage.presignGet("videos/my video.mp4", Duration.ofMinutes(5), "public, max-age=60")).build();
+
+        assertThat(url.getPath()).isEqualTo("/storage/videos/my%20video.mp4");
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+        assertThat(storage.verify("GET", "videos/my video.mp4", expires, "public, max-age=60", signature)).isTrue();
+        assertThat(storage.verify("GET", "videos/my video.mp4", expires, null, signature)).isFalse();
+        assertThat(storage.verify("PUT", "videos/my video.mp4", expires, "public, max-age=60", signature)).isFalse();
+        assertThat(storage.verify("GET", "videos/other.mp4", expires, "public, max-age=60", signature)).isFalse();
+        assertThat(storage.verify("GET", "videos/my video.mp4", 1, "public, max-age=60", signature)).isFalse();
+    }
+
+    @Test
+    void multipartPartsAreConcatenatedInOrder() {
+        String uploadId = storage.createMultipartUpload("videos/big.mp4", "video/mp4");
+        String second = storage.writePart(uploadId, 2, new ByteArrayInputStream(bytes("world")));
+        String first = storage.writePart(uploadId, 1, new ByteArrayInputStream(bytes("hello ")));
+
+        storage.completeMultipartUpload("videos/big.mp4", uploadId,
+                List.of(new CompletedPart(1, first), new CompletedPart(2, second)));
+
+        assertThat(new String(readAll("videos/big.mp4"), StandardCharsets.UTF_8)).isEqualTo("hello world");
+        assertThat(Files.exists(root.resolve(LocalObjectStorage.MULTIPART_DIR).resolve(uploadId))).isFalse();
+    }
+
+    @Test
+    void abortDiscardsStagedParts() {
+        String uploadId = storage.createMultipartUpload("videos/big.mp4", "video/mp4");
+        storage.writePart(uploadId, 1, new ByteArrayInputStream(bytes("data")));
+
+        storage.abortMultipartUpload("videos/big.mp4", uploadId);
+        storage.abortMultipartUpload("videos/big.mp4", uploadId);
+
+        assertThat(Files.exists(root.resolve(LocalObjectStorage.MULTIPART_DIR).resolve(uploadId))).isFalse();
+        assertThatThrownBy(() -> storage.writePart(uploadId, 2, new ByteArrayInputStream(bytes("x"))))
+                .hasMessage("Multipart upload not found");
+    }
+
+    @Test
+    void publicPrefixIsMatchedAfterNormalizing() {
+        assertThat(storage.isPublic("images/avatars/a.png")).isTrue();
+        assertThat(storage.isPublic("images/../certificates/a.pdf")).isFalse();
+        assertThat(storage.isPublic("videos/../images/a.png")).isTrue();
+    }
+
+    private byte[] readAll(String key) {
+        try (InputStream in = storage.get(key)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.entity.PendingObjectDeletion;
+import com.seikyuuressha.lms.repository.PendingObjectDeletionRepository;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {"storage.deletion.batch-size=2", "storage.deletion.max-attempts=2"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ObjectDeletionQueue.class)
+class ObjectDeletionQueueTests {
+
+    @Autowired
+    private ObjectDeletionQueue objectDeletionQueue;
+
+    @Autowired
+    private PendingObjectDeletionRepository pendingObjectDeletionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ObjectStorage objectStorage;
+
+    @MockitoBean
+    private PresignedUrlCache presignedUrlCache;
+
+    @Test
+    void enqueueRecordsDistinctKeysAndInvalidatesUrls() {
+        objectDeletionQueue.enqueue(Arrays.asList("videos/a.mp4", "videos/a.mp4", null, " ", "resources/b.pdf"));
+
+        assertThat(pendingObjectDeletionRepository.findAll())
+                .extracting(PendingObjectDeletion::getObjectKey)
+                .containsExactlyInAnyOrder("videos/a.mp4", "resources/b.pdf");
+        verify(presignedUrlCache).invalidate("videos/a.mp4");
+        verify(presignedUrlCache).invalidate("resources/b.pdf");
+    }
+
+    @Test
+    void drainDeletesInBatchesUntilQueueIsEmpty() {
+        List<Collection<String>> calls = new ArrayList<>();
+        when(objectStorage.deleteAll(anyCollection())).thenAnswer(invocation -> {
+            calls.add(new ArrayList<>(invocation.<Collection<String>>getArgument(0)));
+            return List.of();
+        });
+        objectDeletionQueue.enqueue(List.of("k1", "k2", "k3", "k4", "k5"));
+
+        objectDeletionQueue.drain();
+
+        assertThat(calls).extracting(Collection::size).containsExactly(2, 2, 1);
+        assertThat(calls).flatExtracting(keys -> keys).containsExactlyInAnyOrder("k1", "k2", "k3", "k4", "k5");
+        assertThat(pendingObjectDeletionRepository.count()).isZero();
+    }
+
+    @Test
+    void failedKeysAreRetriedAndDroppedAfterMaxAttempts() {
+        when(objectStorage.deleteAll(anyCollection())).thenReturn(List.of("stuck"));
+        objectDeletionQueue.enqueue(List.of("stuck", "gone"));
+
+        objectDeletionQueue.drain();
+        entityManager.clear();
+
+        assertThat(pendingObjectDeletionRepository.findAll())
+                .extracting(PendingObjectDeletion::getObjectKey, PendingObjectDeletion::getAttempts)
+                .containsExactly(tuple("stuck", 1));
+
+        objectDeletionQueue.drain();
+
+        assertThat(pendingObjectDeletionRepository.count()).isZero();
+        verify(objectStorage, times(2)).deleteAll(anyCollection());
+    }
+
+    @Test
+    void drainAbortsQueuedUploadsAndRetriesFailures() {
+        doThrow(new RuntimeException("unavailable"))
+                .doNothing()
+                .when(objectStorage).abortMultipartUpload("videos/a.mp4", "upload-1");
+        objectDeletionQueue.enqueueUpload("videos/a.mp4", "upload-1");
+
+        objectDeletionQueue.drain();
+        entityManager.clear();
+
+        assertThat(pendingObjectDeletionRepository.findAll())
+                .extracting(PendingObjectDeletion::getUploadId, PendingObjectDeletion::getAttempts)
+                .containsExactly(tuple("upload-1", 1));
+
+        objectDeletionQueue.drain();
+
+        assertThat(pendingObjectDeletionRepository.count()).isZero();
+        verify(objectStorage, times(2)).abortMultipartUpload("videos/a.mp4", "upload-1");
+        verify(objectStorage, never()).deleteAll(anyCollection());
+    }
+}
@@ -0,0 +1,106 @@
+package com.seikyuuressha.lms.service.storage;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.repository.PendingObjectDeletionRepository;
+import com.seikyuuressha.lms.service.common.PresignedUrlCache;
+import com.seikyuuressha.lms.service.storage.ObjectStorage.StoredObject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "storage.orphan-sweep.grace-hours=24")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrphanObjectSweeper.class, ObjectDeletionQueue.class})
+class OrphanObjectSweeperTests {
+
+    @Autowired
+    private OrphanObjectSweeper orphanObjectSweeper;
+
+    @Autowired
+    private ObjectDeletionQueue objectDeletionQueue;
+
+    @Autowired
+    private PendingObjectDeletionRepository pendingObjectDeletionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ObjectStorage objectStorage;
+
+    @MockitoBean
+    private PresignedUrlCache presignedUrlCache;
+
+    private final OffsetDateTime old = OffsetDateTime.now().minusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        Lesson lesson = fixtures.lesson(fixtures.course(fixtures.user()));
+        entityManager.persist(Video.builder()
+                .lesson(lesson)
+                .s3Key("videos/kept.mp4")
+                .s3Bucket("bucket")
+                .processingStatus(Video.ProcessingStatus.COMPLETED)
+                .uploadedAt(old)
+                .build());
+        entityManager.persist(LessonResource.builder()
+                .lesson(lesson)
+                .s3Key("resources/kept.pdf")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void queuesOnlyUnreferencedObjectsOlderThanGracePeriod() {
+        objectDeletionQueue.enqueue("videos/already-queued.mp4");
+        when(objectStorage.list("videos/")).thenReturn(Stream.of(
+                stored("videos/kept.mp4", old),
+                stored("videos/orphan.mp4", old),
+                stored("videos/uploading.mp4", OffsetDateTime.now()),
+                stored("videos/already-queued.mp4", old)));
+        when(objectStorage.list("resources/")).thenReturn(Stream.of(
+                stored("resources/kept.pdf", old),
+                stored("resources/orphan.pdf", old)));
+        when(objectStorage.list("certificates/")).thenReturn(Stream.of(
+                stored("certificates/orphan.pdf", old)));
+
+        orphanObjectSweeper.sweep();
+
+        assertThat(pendingObjectDeletionRepository.findAll())
+                .extracting(PendingObjectDeletion::getObjectKey)
+                .containsExactlyInAnyOrder("videos/already-queued.mp4", "videos/orphan.mp4",
+                        "resources/orphan.pdf", "certificates/orphan.pdf");
+    }
+
+    @Test
+    void listingFailureOnOnePrefixDoesNotStopTheOthers() {
+        when(objectStorage.list("videos/")).thenThrow(new RuntimeException("listing failed"));
+        when(objectStorage.list("resources/")).thenReturn(Stream.empty());
+        when(objectStorage.list("certificates/")).thenReturn(Stream.of(stored("certificates/orphan.pdf", old)));
+
+        orphanObjectSweeper.sweep();
+
+        assertThat(pendingObjectDeletionRepository.findAll())
+                .extracting(PendingObjectDeletion::getObjectKey)
+                .containsExactly("certificates/orphan.pdf");
+    }
+
+    private static StoredObject stored(String key, OffsetDateTime lastModified) {
+        return new StoredObject(key, 1, null, lastModified);
+    }
+}
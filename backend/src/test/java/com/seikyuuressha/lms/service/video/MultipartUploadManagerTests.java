@@ -0,0 +1,203 @@
+package com.seikyuuressha.lms.service.video;
+
+import com.seikyuuressha.lms.TestFixtures;
+import com.seikyuuressha.lms.dto.request.UploadedPartInput;
+import com.seikyuuressha.lms.dto.response.UploadPartUrlResponse;
+import com.seikyuuressha.lms.dto.response.VideoUploadSessionResponse;
+import com.seikyuuressha.lms.entity.*;
+import com.seikyuuressha.lms.service.storage.ObjectDeletionQueue;
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import com.seikyuuressha.lms.service.storage.ObjectStorage.CompletedPart;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "aws.s3.multipart.sweep-interval-ms=3600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(MultipartUploadManager.class)
+class MultipartUploadManagerTests {
+
+    private static final long MB = 1024 * 1024;
+
+    @Autowired
+    private MultipartUploadManager multipartUploadManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ObjectStorage objectStorage;
+
+    @MockitoBean
+    private ObjectDeletionQueue objectDeletionQueue;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        lesson = fixtures.lesson(fixtures.course(fixtures.user()));
+
+        when(objectStorage.createMultipartUpload(anyString(), anyString()))
+                .thenAnswer(invocation -> "upload-" + UUID.randomUUID());
+    }
+
+    @Test
+    void startSplitsFileIntoPartsOfConfiguredSize() {
+        Video video = startUpload(100 * MB);
+
+        assertThat(video.getMultipartUploadId()).startsWith("upload-");
+        assertThat(video.getPartSize()).isEqualTo(16 * MB);
+        assertThat(multipartUploadManager.describe(video).getPartCount()).isEqualTo(7);
+    }
+
+    @Test
+    void partSizeGrowsToStayWithinPartLimit() {
+        Video video = startUpload(500_000 * MB);
+
+        assertThat(multipartUploadManager.describe(video).getPartCount())
+                .isLessThanOrEqualTo(MultipartUploadManager.MAX_PARTS);
+    }
+
+    @Test
+    void presignsRequestedPartsWithinRange() {
+        Video video = startUpload(40 * MB);
+        when(objectStorage.presignUploadPart(anyString(), anyString(), anyInt(), any(Duration.class)))
+                .thenReturn("https://bucket.example/part");
+
+        List<UploadPartUrlResponse> urls = multipartUploadManager.presignParts(video, List.of(3, 1, 2));
+
+        assertThat(urls).extracting(UploadPartUrlResponse::getPartNumber).containsExactly(1, 2, 3);
+        verify(objectStorage).presignUploadPart(eq(video.getS3Key()), eq(video.getMultipartUploadId()), eq(3),
+                any(Duration.class));
+        assertThatThrownBy(() -> multipartUploadManager.presignParts(video, List.of(4)))
+                .hasMessageContaining("between 1 and 3");
+    }
+
+    @Test
+    void recordingPartAgainReplacesItsEtag() {
+        Video video = startUpload(40 * MB);
+
+        multipartUploadManager.recordParts(video, List.of(part(1, "a"), part(2, "b")));
+        multipartUploadManager.recordParts(video, List.of(part(1, "a2")));
+        entityManager.flush();
+
+        VideoUploadSessionResponse session = multipartUploadManager.describe(video);
+        assertThat(session.getUploadedParts()).extracting("partNumber", "etag")
+                .containsExactly(tuple(1, "a2"), tuple(2, "b"));
+    }
+
+    @Test
+    void completeRequiresEveryPartAndClearsSession() {
+        Video video = startUpload(40 * MB);
+        multipartUploadManager.recordParts(video, List.of(part(2, "b"), part(1, "a")));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> multipartUploadManager.complete(video)).hasMessageContaining("[3]");
+        verify(objectStorage, never()).completeMultipartUpload(anyString(), anyString(), anyList());
+
+        multipartUploadManager.recordParts(video, List.of(part(3, "c")));
+        entityManager.flush();
+        String uploadId = video.getMultipartUploadId();
+        multipartUploadManager.complete(video);
+
+        verify(objectStorage).completeMultipartUpload(video.getS3Key(), uploadId,
+                List.of(new CompletedPart(1, "a"), new CompletedPart(2, "b"), new CompletedPart(3, "c")));
+        assertThat(video.getMultipartUploadId()).isNull();
+        assertThat(entityManager.createQuery("SELECT COUNT(p) FROM VideoUploadPart p", Long.class).getSingleResult())
+                .isZero();
+    }
+
+    @Test
+    void sweeperAbortsOnlyAbandonedUploads() {
+        Video abandoned = startUpload(40 * MB);
+        abandoned.setUploadedAt(OffsetDateTime.now().minusDays(2));
+        Video active = startUpload(40 * MB);
+        active.setUploadedAt(OffsetDateTime.now().minusDays(2));
+        multipartUploadManager.recordParts(active, List.of(part(1, "a")));
+        entityManager.flush();
+        String abandonedUploadId = abandoned.getMultipartUploadId();
+
+        multipartUploadManager.abortAbandonedUploads();
+
+        verify(objectStorage).abortMultipartUpload(abandoned.getS3Key(), abandonedUploadId);
+        verify(objectStorage, never()).abortMultipartUpload(active.getS3Key(), active.getMultipartUploadId());
+        assertThat(abandoned.getProcessingStatus()).isEqualTo(Video.ProcessingStatus.FAILED);
+        assertThat(abandoned.getMultipartUploadId()).isNull();
+        assertThat(active.getMultipartUploadId()).isNotNull();
+    }
+
+    @Test
+    void failedAbortKeepsSessionForTheSweeper() {
+        Video video = startUpload(40 * MB);
+        video.setUploadedAt(OffsetDateTime.now().minusDays(2));
+        entityManager.flush();
+        String uploadId = video.getMultipartUploadId();
+        doThrow(new RuntimeException("unavailable"))
+                .doNothing()
+                .when(objectStorage).abortMultipartUpload(video.getS3Key(), uploadId);
+
+        assertThat(multipartUploadManager.abort(video)).isFalse();
+        assertThat(video.getMultipartUploadId()).isEqualTo(uploadId);
+
+        multipartUploadManager.abortAbandonedUploads();
+
+        verify(objectStorage, times(2)).abortMultipartUpload(video.getS3Key(), uploadId);
+        assertThat(video.getMultipartUploadId()).isNull();
+    }
+
+    @Test
+    void abortForDeletionQueuesUploadsThatFailToAbort() {
+        Video aborted = startUpload(40 * MB);
+        Video failing = startUpload(40 * MB);
+        String failingUploadId = failing.getMultipartUploadId();
+        doThrow(new RuntimeException("unavailable"))
+                .when(objectStorage).abortMultipartUpload(failing.getS3Key(), failingUploadId);
+
+        multipartUploadManager.abortForDeletion(aborted);
+        multipartUploadManager.abortForDeletion(failing);
+
+        verify(objectDeletionQueue, never()).enqueueUpload(eq(aborted.getS3Key()), anyString());
+        verify(objectDeletionQueue).enqueueUpload(failing.getS3Key(), failingUploadId);
+    }
+
+    private Video startUpload(long fileSize) {
+        Video video = Video.builder()
+                .lesson(lesson)
+                .s3Key("videos/" + UUID.randomUUID() + ".mp4")
+                .s3Bucket("test-bucket")
+                .originalFilename("lecture.mp4")
+                .fileSize(fileSize)
+                .mimeType("video/mp4")
+                .build();
+        multipartUploadManager.start(video);
+        entityManager.persist(video);
+        return video;
+    }
+
+    private static UploadedPartInput part(int partNumber, String etag) {
+        return UploadedPartInput.builder().partNumber(partNumber).etag(etag).size(16 * MB).build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.seikyuuressha.lms.service.video;
+
+import com.seikyuuressha.lms.service.storage.ObjectStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VideoChunkCacheTests {
+
+    private static final int CHUNK = 1024;
+    private static final String KEY = "videos/i/l/1.mp4";
+
+    private final byte[] content = new byte[CHUNK * 5 + 100];
+    private ObjectStorage objectStorage;
+    private SimpleMeterRegistry meterRegistry;
+    private VideoChunkCache cache;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        objectStorage = mock(ObjectStorage.class);
+        when(objectStorage.readRange(eq(KEY), anyLong(), any())).thenAnswer(invocation -> {
+            long position = invocation.getArgument(1);
+            ByteBuffer target = invocation.getArgument(2);
+            if (position >= content.length) {
+                return -1;
+            }
+            int length = (int) Math.min(target.remaining(), content.length - position);
+            target.put(content, (int) position, length);
+            return length;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void servesRangesAcrossChunkBoundaries() throws Exception {
+        cache = new VideoChunkCache(objectStorage, meterRegistry, CHUNK, 16L * CHUNK, 0, 1);
+
+        assertThat(read(1000, 2100)).isEqualTo(Arrays.copyOfRange(content, 1000, 2101));
+        assertThat(read(CHUNK * 5, content.length - 1))
+                .isEqualTo(Arrays.copyOfRange(content, CHUNK * 5, content.length));
+        assertThat(read(0, content.length - 1)).isEqualTo(content);
+    }
+
+    @Test
+    void repeatedRangesAreServedFromCache() throws Exception {
+        cache = new VideoChunkCache(objectStorage, meterRegistry, CHUNK, 16L * CHUNK, 0, 1);
+
+        read(0, 99);
+        read(100, 500);
+        read(0, CHUNK - 1);
+
+        verify(objectStorage, times(1)).readRange(eq(KEY), eq(0L), any());
+        assertThat(meterRegistry.counter("video.stream.cache", "result", "hit").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("video.stream.cache", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedChunkWhenFull() throws Exception {
+        cache = new VideoChunkCache(objectStorage, meterRegistry, CHUNK, 2L * CHUNK, 0, 1);
+
+        read(0, 10);
+        read(CHUNK, CHUNK + 10);
+        read(0, 10);
+        read(2 * CHUNK, 2 * CHUNK + 10);
+
+        assertThat(cache.size()).isEqualTo(2);
+        read(0, 10);
+        verify(objectStorage, times(1)).readRange(eq(KEY), eq(0L), any());
+
+        read(CHUNK, CHUNK + 10);
+        verify(objectStorage, times(2)).readRange(eq(KEY), eq((long) CHUNK), any());
+    }
+
+    @Test
+    void readsAheadOfSequentialPlayback() throws Exception {
+        cache = new VideoChunkCache(objectStorage, meterRegistry, CHUNK, 16L * CHUNK, 2, 1);
+
+        read(0, 100);
+
+        verify(objectStorage, timeout(2000)).readRange(eq(KEY), eq((long) CHUNK), any());
+        verify(objectStorage, timeout(2000)).readRange(eq(KEY), eq(2L * CHUNK), any());
+        verify(objectStorage, never()).readRange(eq(KEY), eq(3L * CHUNK), any());
+    }
+
+    @Test
+    void failedLoadIsNotCached() throws Exception {
+        cache = new VideoChunkCache(objectStorage, meterRegistry, CHUNK, 16L * CHUNK, 0, 1);
+        when(objectStorage.readRange(eq(KEY), eq(0L), any()))
+                .thenThrow(new RuntimeException("storage unavailable"))
+                .thenAnswer(invocation -> {
+                    ByteBuffer target = invocation.getArgument(2);
+                    int length = target.remaining();
+                    target.put(content, 0, length);
+                    return length;
+                });
+
+        assertThatThrownBy(() -> read(0, 10)).hasMessage("storage unavailable");
+        assertThat(cache.size()).isZero();
+        assertThat(read(0, 10)).isEqualTo(Arrays.copyOfRange(content, 0, 11));
+    }
+
+    private byte[] read(long start, long end) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = cache.transfer(KEY, content.length, start, end, Channels.newChannel(out));
+        assertThat(written).isEqualTo(end - start + 1);
+        return out.toByteArray();
+    }
+}
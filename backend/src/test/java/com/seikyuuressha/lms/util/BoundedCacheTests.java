@@ -0,0 +1,35 @@
+package com.seikyuuressha.lms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTests {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryInsteadOfRejectingPuts() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(64, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "v" + i);
+            assertThat(cache.get(0)).isEqualTo("v0");
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(64);
+        assertThat(cache.get(999)).isEqualTo("v999");
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        cache.put("live", "a");
+        cache.put("expired", "b", System.currentTimeMillis() - 1);
+
+        assertThat(cache.get("live")).isEqualTo("a");
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
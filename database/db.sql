@@ -111,7 +111,9 @@ CREATE TABLE Videos (
     mimeType NVARCHAR(100),
     durationSeconds INT,
     processingStatus NVARCHAR(20) NOT NULL DEFAULT 'PENDING',
-    uploadedAt DATETIMEOFFSET NOT NULL DEFAULT GETDATE()
+    uploadedAt DATETIMEOFFSET NOT NULL DEFAULT GETDATE(),
+    multipartUploadId NVARCHAR(1024) NULL,
+    partSize BIGINT NULL
 );
 
 -- ============================================
@@ -138,6 +140,7 @@ CREATE TABLE Enrollments (
     courseId UNIQUEIDENTIFIER FOREIGN KEY REFERENCES Courses(courseId) ON UPDATE CASCADE ON DELETE CASCADE,
     enrolledAt DATETIMEOFFSET DEFAULT GETDATE(),
     progressPercent FLOAT DEFAULT 0,
+    completedLessons INT NOT NULL DEFAULT 0,
     UNIQUE (userId, courseId)
 );
 
@@ -308,7 +311,8 @@ CREATE TABLE Certificates (
     userId UNIQUEIDENTIFIER NOT NULL FOREIGN KEY REFERENCES Users(userId) ON UPDATE NO ACTION ON DELETE NO ACTION,
     courseId UNIQUEIDENTIFIER NOT NULL FOREIGN KEY REFERENCES Courses(courseId) ON UPDATE CASCADE ON DELETE CASCADE,
     certificateCode NVARCHAR(100) NOT NULL UNIQUE,
-    pdfUrl NVARCHAR(255) NOT NULL,
+    pdfUrl NVARCHAR(255) NULL,
+    status NVARCHAR(20) NOT NULL DEFAULT 'READY',
     issuedAt DATETIMEOFFSET NOT NULL DEFAULT GETDATE(),
     finalScore FLOAT NULL,
     completionNote NVARCHAR(MAX),
@@ -330,9 +334,71 @@ CREATE TABLE PasswordResetTokens (
 CREATE TABLE InvalidatedTokens (
 	tokenId VARCHAR(36) NOT NULL PRIMARY KEY,
 	expiryTime DATETIMEOFFSET NOT NULL,
-	invalidatedAt DATETIMEOFFSET
+	invalidatedAt DATETIMEOFFSET,
+	seq BIGINT IDENTITY(1,1) NOT NULL
 )
 
+-- ============================================
+-- 20. CourseCatalog Table (read model cho danh sách khóa học đã publish)
+-- ============================================
+CREATE TABLE CourseCatalog (
+    courseId UNIQUEIDENTIFIER PRIMARY KEY FOREIGN KEY REFERENCES Courses(courseId) ON UPDATE CASCADE ON DELETE CASCADE,
+    title NVARCHAR(200) NOT NULL,
+    slug NVARCHAR(150) NOT NULL,
+    description NVARCHAR(MAX),
+    thumbnailUrl NVARCHAR(255),
+    level NVARCHAR(50),
+    price DECIMAL(10,2) NOT NULL DEFAULT 0,
+    categoryId UNIQUEIDENTIFIER NULL,
+    categoryName NVARCHAR(100),
+    instructorId UNIQUEIDENTIFIER NULL,
+    instructorName NVARCHAR(100),
+    instructorEmail NVARCHAR(100),
+    instructorAvatarUrl NVARCHAR(255),
+    instructorBio NVARCHAR(500),
+    coInstructors NVARCHAR(MAX),
+    totalLessons INT NOT NULL DEFAULT 0,
+    totalDuration INT NOT NULL DEFAULT 0,
+    averageRating FLOAT NOT NULL DEFAULT 0,
+    reviewCount INT NOT NULL DEFAULT 0,
+    createdAt DATETIMEOFFSET NOT NULL,
+    updatedAt DATETIMEOFFSET NOT NULL
+);
+
+-- ============================================
+-- 21. RateLimitBuckets Table (trạng thái bucket dùng chung giữa các instance khi rate-limit.backend=jdbc)
+-- ============================================
+CREATE TABLE RateLimitBuckets (
+    bucketKey NVARCHAR(255) NOT NULL PRIMARY KEY,
+    state VARBINARY(2048) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    expiresAt BIGINT NOT NULL
+);
+
+-- ============================================
+-- 22. VideoUploadParts Table (các part đã upload của multipart upload đang dở)
+-- ============================================
+CREATE TABLE VideoUploadParts (
+    partId UNIQUEIDENTIFIER PRIMARY KEY,
+    videoId UNIQUEIDENTIFIER NOT NULL FOREIGN KEY REFERENCES Videos(videoId) ON DELETE CASCADE,
+    partNumber INT NOT NULL,
+    eTag NVARCHAR(200) NOT NULL,
+    sizeBytes BIGINT NULL,
+    uploadedAt DATETIMEOFFSET NOT NULL,
+    CONSTRAINT UQ_VideoUploadParts_VideoPart UNIQUE (videoId, partNumber)
+);
+
+-- ============================================
+-- 23. PendingObjectDeletions Table (object cần xoá khỏi storage, worker xoá theo lô)
+-- ============================================
+CREATE TABLE PendingObjectDeletions (
+    deletionId UNIQUEIDENTIFIER PRIMARY KEY,
+    objectKey NVARCHAR(1024) NOT NULL,
+    uploadId NVARCHAR(1024) NULL,
+    requestedAt DATETIMEOFFSET NOT NULL,
+    attempts INT NOT NULL DEFAULT 0
+);
+
 -- ============================================
 -- Indexes
 -- ============================================
@@ -347,10 +413,20 @@ CREATE INDEX IX_Quizzes_ModuleId ON Quizzes(moduleId);
 CREATE INDEX IX_Quizzes_LessonId ON Quizzes(lessonId);
 CREATE INDEX IX_QuizAttempts_UserQuiz ON QuizAttempts(userId, quizId);
 CREATE INDEX IX_QuizAnswers_Attempt ON QuizAnswers(attemptId);
+CREATE INDEX IX_PendingObjectDeletions_Attempts ON PendingObjectDeletions(attempts, requestedAt);
+CREATE INDEX IX_PendingObjectDeletions_ObjectKey ON PendingObjectDeletions(objectKey);
 CREATE INDEX IX_Payments_Enrollment ON Payments(enrollmentId);
 CREATE INDEX IX_Certificates_Code ON Certificates(certificateCode);
+CREATE INDEX IX_Certificates_Status ON Certificates(status, issuedAt);
 CREATE INDEX IX_CourseInstructors_UserId ON CourseInstructors(userId);
 CREATE INDEX idx_invalidated_tokens_expiry ON InvalidatedTokens(expiryTime);
+CREATE UNIQUE INDEX idx_invalidated_tokens_seq ON InvalidatedTokens(seq);
+CREATE INDEX IX_CourseCatalog_CategoryId ON CourseCatalog(categoryId);
+CREATE INDEX IX_CourseCatalog_Newest ON CourseCatalog(createdAt DESC, courseId DESC);
+CREATE INDEX IX_CourseCatalog_Price ON CourseCatalog(price, courseId);
+CREATE INDEX IX_CourseCatalog_Rating ON CourseCatalog(averageRating DESC, courseId DESC);
+CREATE INDEX IX_RateLimitBuckets_ExpiresAt ON RateLimitBuckets(expiresAt);
+CREATE INDEX IX_Videos_MultipartUpload ON Videos(uploadedAt) WHERE multipartUploadId IS NOT NULL;
 GO
 
 -- ============================================
@@ -387,12 +463,13 @@ BEGIN
         JOIN Lessons l ON p.lessonId = l.lessonId
         JOIN Modules m ON l.moduleId = m.moduleId
         WHERE m.courseId = @courseId 
-            AND p.progressPercent >= 90
+            AND p.progressPercent >= 80
             AND p.userId = @userId
     );
 
     UPDATE Enrollments
-    SET progressPercent = (100.0 * @completedLessons / NULLIF(@totalLessons, 0))
+    SET completedLessons = @completedLessons,
+        progressPercent = ISNULL(100.0 * @completedLessons / NULLIF(@totalLessons, 0), 0)
     WHERE userId = @userId AND courseId = @courseId;
 END;
 GO
@@ -0,0 +1,66 @@
+-- ============================================
+-- Nâng cấp database LMS đã có dữ liệu: thêm Enrollments.completedLessons
+-- (database tạo mới bằng db.sql đã có cột này, không cần chạy script)
+-- ============================================
+USE LMS;
+GO
+
+IF COL_LENGTH('Enrollments', 'completedLessons') IS NULL
+    ALTER TABLE Enrollments ADD completedLessons INT NOT NULL DEFAULT 0;
+GO
+
+-- ============================================
+-- UpdateCourseProgress: ngưỡng 80% và ghi completedLessons
+-- ============================================
+CREATE OR ALTER PROCEDURE UpdateCourseProgress
+    @userId UNIQUEIDENTIFIER,
+    @courseId UNIQUEIDENTIFIER
+AS
+BEGIN
+    DECLARE @totalLessons INT = (
+        SELECT COUNT(*) FROM Lessons l
+        JOIN Modules m ON l.moduleId = m.moduleId
+        WHERE m.courseId = @courseId
+    );
+
+    DECLARE @completedLessons INT = (
+        SELECT COUNT(*) FROM Progress p
+        JOIN Lessons l ON p.lessonId = l.lessonId
+        JOIN Modules m ON l.moduleId = m.moduleId
+        WHERE m.courseId = @courseId 
+            AND p.progressPercent >= 80
+            AND p.userId = @userId
+    );
+
+    UPDATE Enrollments
+    SET completedLessons = @completedLessons,
+        progressPercent = ISNULL(100.0 * @completedLessons / NULLIF(@totalLessons, 0), 0)
+    WHERE userId = @userId AND courseId = @courseId;
+END;
+GO
+
+-- ============================================
+-- Backfill completedLessons/progressPercent từ Progress cho các enrollment đã có
+-- ============================================
+UPDATE e
+SET completedLessons = ISNULL(done.completedLessons, 0),
+    progressPercent = ISNULL(100.0 * ISNULL(done.completedLessons, 0) / NULLIF(total.totalLessons, 0), 0)
+FROM Enrollments e
+LEFT JOIN (
+    SELECT p.userId, m.courseId, COUNT(*) AS completedLessons
+    FROM Progress p
+    JOIN Lessons l ON p.lessonId = l.lessonId
+    JOIN Modules m ON l.moduleId = m.moduleId
+    WHERE p.progressPercent >= 80
+    GROUP BY p.userId, m.courseId
+) done ON done.userId = e.userId AND done.courseId = e.courseId
+LEFT JOIN (
+    SELECT m.courseId, COUNT(*) AS totalLessons
+    FROM Lessons l
+    JOIN Modules m ON l.moduleId = m.moduleId
+    GROUP BY m.courseId
+) total ON total.courseId = e.courseId;
+GO
+
+PRINT 'Enrollments.completedLessons migrated';
+GO
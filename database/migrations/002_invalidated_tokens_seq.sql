@@ -0,0 +1,20 @@
+-- ============================================
+-- Nâng cấp database LMS đã có dữ liệu: thêm InvalidatedTokens.seq
+-- (số thứ tự do database cấp, các instance đồng bộ Bloom filter theo cột này thay vì invalidatedAt)
+-- ============================================
+USE LMS;
+GO
+
+IF COL_LENGTH('InvalidatedTokens', 'seq') IS NULL
+    ALTER TABLE InvalidatedTokens ADD seq BIGINT IDENTITY(1,1) NOT NULL;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_invalidated_tokens_invalidated_at'
+           AND object_id = OBJECT_ID('InvalidatedTokens'))
+    DROP INDEX idx_invalidated_tokens_invalidated_at ON InvalidatedTokens;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_invalidated_tokens_seq'
+               AND object_id = OBJECT_ID('InvalidatedTokens'))
+    CREATE UNIQUE INDEX idx_invalidated_tokens_seq ON InvalidatedTokens(seq);
+GO